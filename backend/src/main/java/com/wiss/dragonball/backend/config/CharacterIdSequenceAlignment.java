@@ -0,0 +1,60 @@
+package com.wiss.dragonball.backend.config;
+
+import com.wiss.dragonball.backend.entity.Character;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Setzt die Sequenz {@code character_seq} beim Start hinter die hoechste vergebene Charakter-ID.
+ * <p>
+ * Bis zur Umstellung auf Sequenz-IDs hat die Datenbank die IDs per IDENTITY vergeben; eine
+ * neu angelegte Sequenz beginnt aber bei 1. Der pooled Optimizer vergibt nach einem Sequenzwert
+ * {@code v} die IDs {@code v - }{@value Character#ID_ALLOCATION_SIZE}{@code  + 1} bis {@code v};
+ * liegt dieser Bereich nicht komplett ueber der hoechsten ID, wird die Sequenz neu gestartet.
+ * Laeuft direkt nach dem Erzeugen aller Beans und damit bevor der Webserver Anfragen annimmt
+ * (ein {@code CommandLineRunner} liefe erst danach) und vor dem {@link DataInitializer}.
+ * </p>
+ */
+@Component
+public class CharacterIdSequenceAlignment implements SmartInitializingSingleton {
+
+    static final String SEQUENCE_NAME = "character_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CharacterIdSequenceAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        align();
+    }
+
+    /**
+     * Startet die Sequenz neu, falls ihr naechster Block mit bestehenden IDs kollidieren wuerde.
+     *
+     * @return {@code true}, wenn die Sequenz neu gestartet wurde
+     */
+    boolean align() {
+        String nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE_NAME);
+        long next = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from character", Long.class);
+        if (maxId == 0 || next - Character.ID_ALLOCATION_SIZE >= maxId) {
+            return false;
+        }
+        // DDL erlaubt keine Bind-Parameter; der Wert ist eine berechnete Zahl
+        jdbcTemplate.execute("alter sequence " + SEQUENCE_NAME + " restart with "
+                + (maxId + Character.ID_ALLOCATION_SIZE));
+        return true;
+    }
+}
@@ -5,6 +5,8 @@ import com.wiss.dragonball.backend.entity.Role;
 import com.wiss.dragonball.backend.entity.User;
 import com.wiss.dragonball.backend.repository.CharacterRepository;
 import com.wiss.dragonball.backend.repository.UserRepository;
+import com.wiss.dragonball.backend.service.CharacterService;
+import com.wiss.dragonball.backend.service.UserService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -19,13 +21,19 @@ public class DataInitializer implements CommandLineRunner {
     private final UserRepository userRepository;
     private final CharacterRepository characterRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final CharacterService characterService;
 
     public DataInitializer(UserRepository userRepository,
                            CharacterRepository characterRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           UserService userService,
+                           CharacterService characterService) {
         this.userRepository = userRepository;
         this.characterRepository = characterRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userService = userService;
+        this.characterService = characterService;
     }
 
     @Override
@@ -46,6 +54,8 @@ public class DataInitializer implements CommandLineRunner {
             User user = new User(username, passwordEncoder.encode(rawPassword), role);
             userRepository.save(user);
         });
+        // Passwort und Rolle koennen sich geaendert haben
+        userService.evictCachedUser(username);
     }
 
     private void seedCharacters() {
@@ -57,6 +67,8 @@ public class DataInitializer implements CommandLineRunner {
                 java.util.List.of("Super Saiyan", "Super Saiyan Blue", "Ultra Instinct"),
                 null, "Male", "Earth-raised Saiyan warrior",
                 "/img/Jiren.webp", "Z Fighter"));
+        // Der Katalog wurde beim Start bereits geladen und kennt die Seed-Daten noch nicht
+        characterService.invalidateCatalog();
 
         // TODO: Weitere Charaktere wie Vegeta, Gohan, Frieza, Jiren hinzufügen
     }
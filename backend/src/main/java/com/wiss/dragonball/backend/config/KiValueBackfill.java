@@ -0,0 +1,60 @@
+package com.wiss.dragonball.backend.config;
+
+import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.repository.CharacterRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fuellt beim Start die numerischen Ki-Schattenspalten fuer bestehende Zeilen nach,
+ * bevor der Webserver Anfragen annimmt.
+ * <p>
+ * Arbeitet in Bloecken von {@value #BATCH_SIZE} Zeilen mit je eigener Transaktion und
+ * blaettert per ID weiter. Jede bearbeitete Zeile wird als berechnet markiert, damit auch
+ * nicht interpretierbare Werte nur einmal angefasst werden, nicht bei jedem Start erneut.
+ * </p>
+ */
+@Component
+public class KiValueBackfill implements SmartInitializingSingleton {
+
+    static final int BATCH_SIZE = 500;
+
+    private final CharacterRepository characterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public KiValueBackfill(CharacterRepository characterRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.characterRepository = characterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long lastId = 0;
+        Long next;
+        while ((next = backfillBatch(lastId)) != null) {
+            lastId = next;
+        }
+    }
+
+    /**
+     * Berechnet die Schattenwerte eines Blocks neu.
+     *
+     * @return ID des letzten verarbeiteten Charakters oder {@code null}, wenn nichts mehr zu tun ist
+     */
+    Long backfillBatch(long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Character> batch = characterRepository.findKiBackfillBatch(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return null;
+            }
+            batch.forEach(Character::syncKiValues);
+            return batch.getLast().getId();
+        });
+    }
+}
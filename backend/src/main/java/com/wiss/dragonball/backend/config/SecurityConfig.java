@@ -2,8 +2,10 @@ package com.wiss.dragonball.backend.config;
 
 import com.wiss.dragonball.backend.security.JwtAuthenticationFilter;
 import com.wiss.dragonball.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -14,6 +16,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
@@ -43,6 +46,9 @@ public class SecurityConfig {
                 )
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Fehlendes oder abgelaufenes Token -> 401, damit der Client den Refresh-Token einsetzt
+                .exceptionHandling(exceptions ->
+                        exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -55,9 +61,13 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt mit konfigurierbaren Kosten ({@code security.bcrypt.strength}, Default 12).
+     * Wird der Wert erhoeht, werden bestehende Hashes beim naechsten Login neu berechnet.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:12}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -66,6 +76,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehash-on-Login: veraltete Hashes nach erfolgreicher Pruefung mit aktuellen Kosten speichern
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 }
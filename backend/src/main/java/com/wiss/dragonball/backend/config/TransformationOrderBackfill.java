@@ -0,0 +1,76 @@
+package com.wiss.dragonball.backend.config;
+
+import com.wiss.dragonball.backend.entity.Character;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nummeriert beim Start die Transformationen von Charakteren, deren Positionen nicht
+ * {@code 0..n-1} ergeben.
+ * <p>
+ * Betrifft Zeilen aus der Zeit, als die Transformationen ein ungeordneter Bag waren: das
+ * Schema-Update legt die Positionsspalte mit Default 0 an. Pro Charakter werden die Zeilen in
+ * einer eigenen Transaktion geloescht und mit fortlaufender Position neu eingefuegt (in der
+ * Reihenfolge, in der die Datenbank sie liefert). Laeuft wie die {@link CharacterIdSequenceAlignment}
+ * bevor der Webserver Anfragen annimmt und vor dem {@link DataInitializer}, damit weder eine
+ * Anfrage noch der Start eine Liste mit doppelten Positionen laedt oder waehrend der
+ * Neunummerierung aendert.
+ * </p>
+ */
+@Component
+public class TransformationOrderBackfill implements SmartInitializingSingleton {
+
+    private static final String ORDER = Character.TRANSFORMATION_ORDER_COLUMN;
+
+    private static final String FIND_UNORDERED_SQL = "select character_id from character_transformations"
+            + " group by character_id having count(distinct " + ORDER + ") <> count(*)"
+            + " or max(" + ORDER + ") <> count(*) - 1";
+
+    private static final String SELECT_SQL =
+            "select transformations from character_transformations where character_id = ? order by " + ORDER;
+
+    private static final String DELETE_SQL = "delete from character_transformations where character_id = ?";
+
+    private static final String INSERT_SQL = "insert into character_transformations (character_id, "
+            + ORDER + ", transformations) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransformationOrderBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfill();
+    }
+
+    /**
+     * @return Anzahl neu nummerierter Charaktere
+     */
+    int backfill() {
+        List<Long> characterIds = jdbcTemplate.queryForList(FIND_UNORDERED_SQL, Long.class);
+        for (Long characterId : characterIds) {
+            transactionTemplate.executeWithoutResult(status -> renumber(characterId));
+        }
+        return characterIds.size();
+    }
+
+    private void renumber(long characterId) {
+        List<String> transformations = jdbcTemplate.queryForList(SELECT_SQL, String.class, characterId);
+        jdbcTemplate.update(DELETE_SQL, characterId);
+        List<Object[]> rows = new ArrayList<>(transformations.size());
+        for (int i = 0; i < transformations.size(); i++) {
+            rows.add(new Object[]{characterId, i, transformations.get(i)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
@@ -2,49 +2,90 @@ package com.wiss.dragonball.backend.controller;
 
 import com.wiss.dragonball.backend.entity.Role;
 import com.wiss.dragonball.backend.entity.User;
+import com.wiss.dragonball.backend.security.LoginRateLimiter;
+import com.wiss.dragonball.backend.security.PasswordAuthenticator;
+import com.wiss.dragonball.backend.security.PasswordHashingExecutor;
 import com.wiss.dragonball.backend.service.JwtService;
+import com.wiss.dragonball.backend.service.RefreshTokenService;
 import com.wiss.dragonball.backend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Authentifizierungs‑Controller. Stellt Login‑ und Registrierungs‑Endpunkte bereit und
  * generiert dabei JWTs. Die Endpunkte liegen unter /api/auth/**.
+ * <p>
+ * Passwortpruefung und -hashing laufen asynchron auf dem {@link PasswordHashingExecutor},
+ * damit ein Login-Ansturm keine Tomcat-Threads blockiert; ist der Pool voll, antworten
+ * beide Endpunkte mit 503. Vorher drosselt der {@link LoginRateLimiter} Versuche
+ * pro Benutzername und Client-IP (429), sodass gedrosselte Anfragen gar nicht erst hashen.
+ * Alle Datenbankarbeit (Nutzer laden bzw. auf Existenz pruefen, Refresh-Token, neuen Hash
+ * oder neuen Nutzer speichern) laeuft auf dem allgemeinen Task-Executor, damit weder die
+ * Hash-Threads noch Tomcat-Threads auf JDBC warten; siehe {@link PasswordAuthenticator}.
+ * </p>
+ * <p>
+ * Access-Tokens sind kurzlebig. Zusammen mit ihnen wird ein rotierender Refresh-Token
+ * ausgegeben, den {@code /refresh} ohne Passwortpruefung und ohne Benutzerabfrage gegen
+ * ein neues Token-Paar tauscht; {@code /logout} widerruft ihn.
+ * </p>
  */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
-    private final AuthenticationManager authenticationManager;
+    private final PasswordAuthenticator passwordAuthenticator;
     private final UserService userService;
     private final JwtService jwtService;
+    private final PasswordHashingExecutor passwordHashing;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final Executor databaseWork;
 
-    public AuthController(AuthenticationManager authenticationManager, UserService userService, JwtService jwtService) {
-        this.authenticationManager = authenticationManager;
+    public AuthController(PasswordAuthenticator passwordAuthenticator, UserService userService, JwtService jwtService,
+                          PasswordHashingExecutor passwordHashing, LoginRateLimiter loginRateLimiter,
+                          RefreshTokenService refreshTokenService,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                          Executor databaseWork) {
+        this.passwordAuthenticator = passwordAuthenticator;
         this.userService = userService;
         this.jwtService = jwtService;
+        this.passwordHashing = passwordHashing;
+        this.loginRateLimiter = loginRateLimiter;
+        this.refreshTokenService = refreshTokenService;
+        this.databaseWork = databaseWork;
     }
 
     /**
-     * Authentifiziert einen Nutzer und liefert ein JWT sowie Benutzerinformationen zurück.
+     * Authentifiziert einen Nutzer und liefert ein JWT, einen Refresh-Token sowie Benutzerinformationen zurück.
      */
     @PostMapping("/login")
-    public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
-        UserDetails principal = (UserDetails) authentication.getPrincipal();
-        // JWT erzeugen
-        String token = jwtService.generateToken(principal);
-
-        // Benutzerdaten ermitteln (inkl. ID und Rolle)
+    public CompletableFuture<ResponseEntity<TokenResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                  HttpServletRequest httpRequest) {
+        loginRateLimiter.acquire(request.getUsername(), httpRequest.getRemoteAddr());
+        return passwordAuthenticator.authenticate(request.getUsername(), request.getPassword())
+                .thenApplyAsync(this::issueToken, databaseWork);
+    }
+
+    private ResponseEntity<TokenResponse> issueToken(UserDetails principal) {
+
+        // Benutzerdaten ermitteln (inkl. ID, Rolle und Token-Generation)
         User dbUser = userService.loadUserOrThrow(principal.getUsername());
+
+        // Access-Token und Refresh-Token erzeugen
+        String token = jwtService.generateToken(principal, dbUser.getTokenGeneration());
+        String refreshToken = refreshTokenService.issue(dbUser.getUsername(), JwtService.joinRoles(principal),
+                dbUser.getTokenGeneration(), dbUser.getId());
         TokenResponse response = new TokenResponse();
         response.setToken(token);
+        response.setRefreshToken(refreshToken);
         response.setUsername(dbUser.getUsername());
         response.setRole(dbUser.getRole().name());
         response.setUserId(dbUser.getId());
@@ -52,18 +93,61 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Tauscht einen Refresh-Token gegen ein neues Paar aus Access- und Refresh-Token.
+     * Der alte Refresh-Token ist danach ungültig.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        RefreshTokenService.IssuedTokens issued = refreshTokenService.rotate(request.getRefreshToken());
+        TokenResponse response = new TokenResponse(issued.accessToken(), issued.username(),
+                roleFromClaim(issued.roles()), issued.userId());
+        response.setRefreshToken(issued.refreshToken());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Widerruft den übergebenen Refresh-Token (Logout).
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Erste Rolle aus dem Claim "roles" ohne Prefix, z.B. "ROLE_ADMIN" -> "ADMIN".
+     */
+    private static String roleFromClaim(String roles) {
+        if (roles == null || roles.isBlank()) {
+            return null;
+        }
+        String role = roles.split(",")[0].trim();
+        return role.startsWith("ROLE_") ? role.substring(5) : role;
+    }
+
     /**
      * Registriert einen neuen Nutzer, sofern der Benutzername noch frei ist.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request,
+                                                         HttpServletRequest httpRequest) {
+        loginRateLimiter.acquire(request.getUsername(), httpRequest.getRemoteAddr());
         // Prüfen, ob der Benutzername bereits existiert
-        if (userService.findByUsername(request.getUsername()).isPresent()) {
-            return ResponseEntity.status(409).body("username already exists");
-        }
+        return CompletableFuture.supplyAsync(() -> userService.findByUsername(request.getUsername()).isPresent(),
+                        databaseWork)
+                .thenCompose(exists -> exists
+                        ? CompletableFuture.<ResponseEntity<?>>completedFuture(
+                                ResponseEntity.status(409).body("username already exists"))
+                        : createPlayer(request));
+    }
+
+    private CompletableFuture<ResponseEntity<?>> createPlayer(RegisterRequest request) {
         // Neue Benutzer bekommen immer die Rolle PLAYER
-        User user = userService.createUser(request.getUsername(), request.getPassword(), Role.PLAYER);
-        return ResponseEntity.ok("registered " + user.getUsername());
+        return passwordHashing.submit(() -> userService.encodePassword(request.getPassword()))
+                .thenApplyAsync(hash -> userService.createUserWithEncodedPassword(request.getUsername(), hash, Role.PLAYER),
+                        databaseWork)
+                .thenApply(user -> ResponseEntity.ok("registered " + user.getUsername()));
     }
 
     /**
@@ -80,10 +164,22 @@ public class AuthController {
     }
 
     /**
-     * Response‑DTO für den Login mit JWT‑Token und User‑Infos.
+     * DTO für Refresh- und Logout-Anfragen.
+     */
+    public static class RefreshRequest {
+        @NotBlank
+        private String refreshToken;
+
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    }
+
+    /**
+     * Response‑DTO für den Login mit JWT‑Token, Refresh-Token und User‑Infos.
      */
     public static class TokenResponse {
         private String token;
+        private String refreshToken;
         private String username;
         private String role;
         private Long userId;
@@ -99,6 +195,8 @@ public class AuthController {
 
         public String getToken() { return token; }
         public void setToken(String token) { this.token = token; }
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
         public String getUsername() { return username; }
         public void setUsername(String username) { this.username = username; }
         public String getRole() { return role; }
@@ -1,7 +1,16 @@
 package com.wiss.dragonball.backend.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.wiss.dragonball.backend.dto.CharacterDTO;
+import com.wiss.dragonball.backend.dto.CharacterPageDTO;
+import com.wiss.dragonball.backend.dto.FavouriteRankDTO;
+import com.wiss.dragonball.backend.dto.PowerRankDTO;
+import com.wiss.dragonball.backend.dto.RaceFacetDTO;
+import com.wiss.dragonball.backend.dto.RelatedCharacterDTO;
+import com.wiss.dragonball.backend.dto.TransformationOperationDTO;
 import com.wiss.dragonball.backend.service.CharacterService;
+import com.wiss.dragonball.backend.service.FavouriteBitmap;
+import com.wiss.dragonball.backend.service.FavouriteBitmapCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,38 +18,93 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * REST‑Controller für Dragon Ball Charaktere.
+ * <p>
+ * Lesende Endpunkte liefern starke ETags aus der Katalogversion des {@link CharacterService}
+ * und beantworten passende {@code If-None-Match}-Header mit 304, ohne Datenbank oder Serialisierung.
+ * </p>
  */
 @RestController
 @RequestMapping("/api/characters")
 @Tag(name = "Characters", description = "CRUD operations for Dragon Ball characters")
 public class CharacterController {
+
+    /** Media Type fuer JSON Merge Patch (RFC 7396). */
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final CharacterService service;
-    public CharacterController(CharacterService service) { this.service = service; }
+    private final FavouriteBitmapCache favouriteBitmaps;
+
+    public CharacterController(CharacterService service, FavouriteBitmapCache favouriteBitmaps) {
+        this.service = service;
+        this.favouriteBitmaps = favouriteBitmaps;
+    }
 
     @GetMapping
-    @Operation(summary = "Get all characters", description = "Returns a list of all characters")
-    public ResponseEntity<List<CharacterDTO>> getAllCharacters() {
-        return ResponseEntity.ok(service.getAllCharacters());
+    @Operation(summary = "Get all characters", description = "Returns a list of all characters, each flagged as favourite of the current user or not")
+    public ResponseEntity<List<CharacterDTO>> getAllCharacters(WebRequest request,
+                                                               @AuthenticationPrincipal UserDetails principal) {
+        FavouriteBitmap favourites = favouritesOf(principal);
+        return conditional(request, favouritesETag(service.getCatalogETag(), favourites),
+                () -> markFavourites(service.getAllCharacters(), favourites));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get characters page", description = "Returns one cursor-paginated page of all characters")
+    public ResponseEntity<CharacterPageDTO> getCharacterPage(
+            @Parameter(description = "Sort key: powerLevel (descending) or name (ascending)", example = "powerLevel")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Opaque cursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100, default 20)", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.ok(markFavourites(service.getCharacterPage(sort, cursor, limit), favouritesOf(principal)));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search characters by name",
+            description = "Type-ahead substring search over character names, ranked by relevance")
+    @ApiResponse(responseCode = "200", description = "Matching characters")
+    @ApiResponse(responseCode = "404", description = "No character matches")
+    public ResponseEntity<List<CharacterDTO>> searchCharacters(
+            @Parameter(description = "Name fragment", example = "gok") @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-50, default 10)", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.searchByName(q, limit));
+    }
+
+    @GetMapping("/search/{fragment}")
+    @Operation(summary = "Search characters by name (path variant)",
+            description = "Same as /search?q=, kept for the existing frontend client")
+    public ResponseEntity<List<CharacterDTO>> searchCharactersByPath(@PathVariable String fragment,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.searchByName(fragment, limit));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get character by ID", description = "Returns a character by its ID")
     @ApiResponse(responseCode = "200", description = "Character found")
     @ApiResponse(responseCode = "404", description = "Character not found")
-    public ResponseEntity<CharacterDTO> getCharacterById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.getCharacterById(id));
+    public ResponseEntity<CharacterDTO> getCharacterById(@PathVariable Long id, WebRequest request) {
+        return conditional(request, service.getCharacterETag(id), () -> service.getCharacterById(id));
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<CharacterDTO> getCharacterByName(@PathVariable String name) {
-        return ResponseEntity.ok(service.getCharacterByName(name));
+    public ResponseEntity<CharacterDTO> getCharacterByName(@PathVariable String name, WebRequest request) {
+        return conditional(request, service.getCharacterETagByName(name), () -> service.getCharacterByName(name));
     }
 
     /**
@@ -63,6 +127,37 @@ public class CharacterController {
         return ResponseEntity.ok(service.updateCharacter(id, dto));
     }
 
+    /**
+     * Aendert einzelne Felder per JSON Merge Patch (RFC 7396). ADMIN‑Rolle erforderlich.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Patch a character",
+            description = "Applies a JSON Merge Patch (RFC 7396): present fields are replaced, null removes a field."
+                    + " Only changed columns are written; a patch without changes writes nothing")
+    @ApiResponse(responseCode = "200", description = "Character patched")
+    @ApiResponse(responseCode = "400", description = "Patch is not an object, changes the id or produces invalid data")
+    @ApiResponse(responseCode = "404", description = "Character not found")
+    public ResponseEntity<CharacterDTO> patchCharacter(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return ResponseEntity.ok(service.patchCharacter(id, patch));
+    }
+
+    /**
+     * Fuegt Transformationen geordnet ein, entfernt oder verschiebt sie. ADMIN‑Rolle erforderlich.
+     */
+    @PatchMapping(value = "/{id}/transformations", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Edit the transformations of a character",
+            description = "Applies insert, remove and move operations in order. Only positions whose value"
+                    + " changed are written; an invalid operation leaves the list unchanged")
+    @ApiResponse(responseCode = "200", description = "Transformations updated")
+    @ApiResponse(responseCode = "400", description = "No operations, unknown operation, missing value or index out of range")
+    @ApiResponse(responseCode = "404", description = "Character not found")
+    public ResponseEntity<CharacterDTO> editTransformations(@PathVariable Long id,
+                                                            @RequestBody List<TransformationOperationDTO> operations) {
+        return ResponseEntity.ok(service.editTransformations(id, operations));
+    }
+
     /**
      * Löscht einen Charakter. ADMIN‑Rolle erforderlich.
      */
@@ -76,8 +171,34 @@ public class CharacterController {
 
     @GetMapping("/race/{race}")
     @Operation(summary = "Get characters by race", description = "Returns all characters of a specific race")
-    public ResponseEntity<List<CharacterDTO>> getByRace(@PathVariable String race) {
-        return ResponseEntity.ok(service.getCharactersByRace(race));
+    public ResponseEntity<List<CharacterDTO>> getByRace(@PathVariable String race, WebRequest request,
+                                                        @AuthenticationPrincipal UserDetails principal) {
+        FavouriteBitmap favourites = favouritesOf(principal);
+        return conditional(request, favouritesETag(service.getCatalogETag(), favourites),
+                () -> markFavourites(service.getCharactersByRace(race), favourites));
+    }
+
+    @GetMapping("/race/{race}/page")
+    @Operation(summary = "Get characters page by race", description = "Returns one cursor-paginated page of a specific race")
+    public ResponseEntity<CharacterPageDTO> getPageByRace(@PathVariable String race,
+                                                          @RequestParam(required = false) String sort,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.ok(markFavourites(service.getCharacterPageByRace(race, sort, cursor, limit),
+                favouritesOf(principal)));
+    }
+
+    @GetMapping("/facets/race")
+    @Operation(summary = "Get race facets", description = "Returns the number of characters per race, most common first")
+    public ResponseEntity<List<RaceFacetDTO>> getRaceFacets() {
+        return ResponseEntity.ok(service.getRaceFacets());
+    }
+
+    @GetMapping("/count/race/{race}")
+    @Operation(summary = "Count characters by race", description = "Returns the number of characters of a race (case-insensitive)")
+    public ResponseEntity<Long> countByRace(@PathVariable String race) {
+        return ResponseEntity.ok(service.countCharactersByRace(race));
     }
 
     @GetMapping("/powerlevel/{level}")
@@ -96,9 +217,136 @@ public class CharacterController {
         return ResponseEntity.ok(service.getCharactersByPowerLevel(level));
     }
 
+    @GetMapping("/powerlevel-greater-than/{minPower}")
+    @Operation(summary = "Get strongest characters above a power level",
+            description = "Returns the strongest characters with a power level greater than minPower, strongest first")
+    public ResponseEntity<List<CharacterDTO>> getTopByPowerGreaterThan(
+            @PathVariable long minPower,
+            @Parameter(description = "Number of results (1-100, default 5)", example = "5")
+            @RequestParam(defaultValue = "5") Integer limit) {
+        return ResponseEntity.ok(service.getTopByPowerGreaterThan(minPower, limit));
+    }
+
+    @GetMapping("/powerlevel-range")
+    @Operation(summary = "Get characters in a power level range",
+            description = "Returns characters with min <= powerLevel <= max, strongest first")
+    public ResponseEntity<List<CharacterDTO>> getByPowerRange(@RequestParam long min,
+                                                              @RequestParam long max,
+                                                              @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.getCharactersByPowerRange(min, max, limit));
+    }
+
+    @GetMapping("/ki")
+    @Operation(summary = "Get characters by ki",
+            description = "Returns characters sorted by their numeric ki or max ki; bounds accept display values like '1 Billion'")
+    @ApiResponse(responseCode = "200", description = "Characters found")
+    @ApiResponse(responseCode = "400", description = "Invalid field, direction or ki value")
+    public ResponseEntity<List<CharacterDTO>> getByKi(
+            @Parameter(description = "Field to sort by: ki or maxKi", example = "ki")
+            @RequestParam(defaultValue = "ki") String field,
+            @Parameter(description = "Lower bound (inclusive)", example = "1 Million")
+            @RequestParam(required = false) String min,
+            @Parameter(description = "Upper bound (inclusive)", example = "90 Septillion")
+            @RequestParam(required = false) String max,
+            @Parameter(description = "Sort direction: asc or desc", example = "desc")
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.getCharactersByKi(field, min, max, direction, limit));
+    }
+
+    @GetMapping("/{id}/rank")
+    @Operation(summary = "Get power level rank", description = "Returns the leaderboard position of a character")
+    @ApiResponse(responseCode = "200", description = "Rank found")
+    @ApiResponse(responseCode = "404", description = "Character not found")
+    public ResponseEntity<PowerRankDTO> getPowerRank(@PathVariable Long id) {
+        return ResponseEntity.ok(service.getPowerRank(id));
+    }
+
+    @GetMapping("/most-favourited")
+    @Operation(summary = "Get most favourited characters", description = "Returns the characters with the most favourites, highest first")
+    public ResponseEntity<List<FavouriteRankDTO>> getMostFavourited(
+            @Parameter(description = "Maximum number of results (1-100, default 10)", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.getMostFavourited(limit));
+    }
+
+    @GetMapping("/{id}/related")
+    @Operation(summary = "Get related characters",
+            description = "Returns the characters most often favourited together with the given character")
+    @ApiResponse(responseCode = "200", description = "Related characters found")
+    @ApiResponse(responseCode = "404", description = "Character not found")
+    public ResponseEntity<List<RelatedCharacterDTO>> getRelatedCharacters(
+            @PathVariable Long id,
+            @Parameter(description = "Maximum number of results (1-100, default 10)", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.getRelatedCharacters(id, limit));
+    }
+
     @GetMapping("/race-ignore")
     @Operation(summary = "Get characters by race (ignore case)", description = "Returns characters with case-insensitive race filter")
-    public ResponseEntity<List<CharacterDTO>> getCharactersByRaceIgnoreCase(@RequestParam String race) {
-        return ResponseEntity.ok(service.getCharactersByRaceIgnoreCase(race));
+    public ResponseEntity<List<CharacterDTO>> getCharactersByRaceIgnoreCase(@RequestParam String race,
+                                                                            @AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.ok(markFavourites(service.getCharactersByRaceIgnoreCase(race), favouritesOf(principal)));
+    }
+
+    @GetMapping("/race-ignore/page")
+    @Operation(summary = "Get characters page by race (ignore case)", description = "Returns one cursor-paginated page with case-insensitive race filter")
+    public ResponseEntity<CharacterPageDTO> getPageByRaceIgnoreCase(@RequestParam String race,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.ok(markFavourites(service.getCharacterPageByRaceIgnoreCase(race, sort, cursor, limit),
+                favouritesOf(principal)));
+    }
+
+    /**
+     * Favoriten-Bitmap des angemeldeten Nutzers oder {@code null} ohne Nutzer (dann kein Flag).
+     */
+    private FavouriteBitmap favouritesOf(UserDetails principal) {
+        return principal != null ? favouriteBitmaps.get(principal.getUsername()) : null;
+    }
+
+    /**
+     * Setzt das Favoriten-Flag per Bitmap-Lookup, ohne Abfrage pro Charakter.
+     */
+    private static List<CharacterDTO> markFavourites(List<CharacterDTO> characters, FavouriteBitmap favourites) {
+        if (favourites == null) {
+            return characters;
+        }
+        return characters.stream()
+                .map(character -> character.withFavourite(character.getId() != null && favourites.contains(character.getId())))
+                .toList();
+    }
+
+    private static CharacterPageDTO markFavourites(CharacterPageDTO page, FavouriteBitmap favourites) {
+        if (favourites != null) {
+            page.setItems(markFavourites(page.getItems(), favourites));
+        }
+        return page;
+    }
+
+    /**
+     * Die Antwort haengt auch von den Favoriten des Nutzers ab, deshalb geht deren Version in den ETag ein.
+     */
+    private static String favouritesETag(String etag, FavouriteBitmap favourites) {
+        if (etag == null || favourites == null) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-f" + favourites.getVersion() + "\"";
+    }
+
+    /**
+     * Prüft {@code If-None-Match} gegen den ETag, bevor der Body berechnet wird.
+     * Der ETag wird vor dem Lesen ermittelt, damit er nie neuer ist als der ausgelieferte Stand.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
     }
 }
@@ -0,0 +1,57 @@
+package com.wiss.dragonball.backend.controller;
+
+import com.wiss.dragonball.backend.service.CharacterExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST‑Controller für den Export des ganzen Charakter-Katalogs.
+ * <p>
+ * Gedacht für Sync-Jobs: die Antwort wird gestreamt (chunked), statt wie
+ * {@code GET /api/characters} die komplette Liste im Speicher aufzubauen.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/characters/export")
+@Tag(name = "Characters", description = "CRUD operations for Dragon Ball characters")
+public class CharacterExportController {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final CharacterExportService exportService;
+
+    public CharacterExportController(CharacterExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Export all characters",
+            description = "Streams every character as NDJSON (default) or as a chunked JSON array")
+    public ResponseEntity<StreamingResponseBody> exportCharacters(
+            @Parameter(description = "Export format: ndjson or json", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        CharacterExportService.Format exportFormat;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            exportFormat = CharacterExportService.Format.NDJSON;
+        } else if ("json".equalsIgnoreCase(format)) {
+            exportFormat = CharacterExportService.Format.JSON;
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> exportService.exportAll(out, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat == CharacterExportService.Format.NDJSON
+                        ? APPLICATION_NDJSON
+                        : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
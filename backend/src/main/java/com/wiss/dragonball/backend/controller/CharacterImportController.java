@@ -0,0 +1,45 @@
+package com.wiss.dragonball.backend.controller;
+
+import com.wiss.dragonball.backend.dto.CharacterImportResultDTO;
+import com.wiss.dragonball.backend.service.CharacterImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST‑Controller für den Massenimport von Charakteren. ADMIN‑Rolle erforderlich.
+ * <p>
+ * Gegenstueck zum {@link CharacterExportController}: der Request-Body wird gestreamt gelesen,
+ * statt die ganze Liste als {@code List<CharacterDTO>} zu binden.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/characters/import")
+@Tag(name = "Characters", description = "CRUD operations for Dragon Ball characters")
+public class CharacterImportController {
+
+    private final CharacterImportService importService;
+
+    public CharacterImportController(CharacterImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import characters",
+            description = "Streams a JSON array or NDJSON of characters, stores valid records in batches"
+                    + " and reports every rejected record")
+    @ApiResponse(responseCode = "200", description = "Import finished, see errors for rejected records")
+    public ResponseEntity<CharacterImportResultDTO> importCharacters(InputStream body) throws IOException {
+        return ResponseEntity.ok(importService.importCharacters(body));
+    }
+}
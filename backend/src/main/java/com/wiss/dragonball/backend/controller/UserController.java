@@ -1,8 +1,16 @@
 package com.wiss.dragonball.backend.controller;
 
-import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.dto.CacheStatsDTO;
+import com.wiss.dragonball.backend.dto.CharacterPageDTO;
+import com.wiss.dragonball.backend.dto.FavouriteBatchRequestDTO;
+import com.wiss.dragonball.backend.dto.FavouriteBatchResultDTO;
+import com.wiss.dragonball.backend.dto.PasswordHashingStatsDTO;
 import com.wiss.dragonball.backend.entity.User;
+import com.wiss.dragonball.backend.security.PasswordHashingExecutor;
+import com.wiss.dragonball.backend.service.CharacterService;
 import com.wiss.dragonball.backend.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,23 +29,35 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final CharacterService characterService;
+    private final PasswordHashingExecutor passwordHashing;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, CharacterService characterService,
+                          PasswordHashingExecutor passwordHashing) {
         this.userService = userService;
+        this.characterService = characterService;
+        this.passwordHashing = passwordHashing;
     }
 
     /**
-     * GET /api/users/favourites
-     * Liefert die Favoriten des aktuell eingeloggten Benutzers.
+     * GET /api/users/favourites?cursor=..&limit=..
+     * Liefert eine Seite der Favoriten des aktuell eingeloggten Benutzers, stabil nach ID sortiert.
      */
     @GetMapping("/favourites")
-    public List<Character> listFavourites(@AuthenticationPrincipal UserDetails principal) {
-        return userService.getFavourites(principal.getUsername());
+    @Operation(summary = "Get my favourites", description = "Returns one cursor-paginated page of the current user's favourites")
+    public CharacterPageDTO listFavourites(
+            @Parameter(description = "Opaque cursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100, default 20)", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserDetails principal) {
+        return characterService.getFavouritePage(principal.getUsername(), cursor, limit);
     }
 
     /**
      * POST /api/users/favourites/{characterId}
-     * Fuegt einen Charakter zur Favoritenliste des eingeloggten Nutzers hinzu.
+     * Fuegt einen Charakter zur Favoritenliste des eingeloggten Nutzers hinzu (idempotent,
+     * 404 bei unbekanntem Charakter).
      */
     @PostMapping("/favourites/{characterId}")
     public void addFavourite(@PathVariable Long characterId,
@@ -55,6 +75,53 @@ public class UserController {
         userService.removeFavourite(principal.getUsername(), characterId);
     }
 
+    /**
+     * POST /api/users/favourites/batch
+     * Fuegt mehrere Favoriten hinzu und entfernt andere in einer einzigen Transaktion
+     * und liefert zurueck, was sich tatsaechlich geaendert hat.
+     */
+    @PostMapping("/favourites/batch")
+    public FavouriteBatchResultDTO applyFavouriteBatch(@RequestBody FavouriteBatchRequestDTO request,
+                                                       @AuthenticationPrincipal UserDetails principal) {
+        return userService.applyFavouriteBatch(principal.getUsername(), request);
+    }
+
+    /**
+     * POST /api/users/tokens/revoke
+     * Meldet den eingeloggten Nutzer auf allen Geraeten ab (alle bisherigen Tokens werden ungueltig).
+     */
+    @PostMapping("/tokens/revoke")
+    public void revokeOwnTokens(@AuthenticationPrincipal UserDetails principal) {
+        userService.revokeTokens(principal.getUsername());
+    }
+
+    /**
+     * ADMIN: widerruft alle Tokens des angegebenen Nutzers.
+     */
+    @PostMapping("/{username}/tokens/revoke")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void revokeTokens(@PathVariable String username) {
+        userService.revokeTokens(username);
+    }
+
+    /**
+     * ADMIN: Kennzahlen des UserDetails-Caches (Treffer, Fehlzugriffe, Verdraengungen).
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CacheStatsDTO userDetailsCacheStats() {
+        return userService.getUserDetailsCacheStats();
+    }
+
+    /**
+     * ADMIN: Warteschlangenlaenge, Ablehnungen und Hash-Latenz des Passwort-Hashing-Pools.
+     */
+    @GetMapping("/password-hashing-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PasswordHashingStatsDTO passwordHashingStats() {
+        return passwordHashing.stats();
+    }
+
     /**
      * ADMIN: liefert alle Benutzer der Anwendung.
      */
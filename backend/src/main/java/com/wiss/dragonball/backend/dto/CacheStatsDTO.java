@@ -0,0 +1,65 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Kennzahlen eines In-Memory-Caches fuer das Monitoring.
+ */
+@Schema(description = "Hit, miss and eviction counters of an in-memory cache")
+public class CacheStatsDTO {
+
+    /**
+     * Name des Caches.
+     */
+    @Schema(description = "Cache name", example = "userDetails")
+    private String name;
+
+    /**
+     * Anzahl Zugriffe, die aus dem Cache bedient wurden.
+     */
+    @Schema(description = "Number of lookups served from the cache", example = "1520")
+    private long hits;
+
+    /**
+     * Anzahl Zugriffe, die geladen werden mussten.
+     */
+    @Schema(description = "Number of lookups that had to be loaded", example = "37")
+    private long misses;
+
+    /**
+     * Anzahl Eintraege, die wegen Ablauf oder Platzmangel verdraengt wurden.
+     */
+    @Schema(description = "Number of entries evicted because of TTL or size", example = "4")
+    private long evictions;
+
+    /**
+     * Aktuelle Anzahl Eintraege.
+     */
+    @Schema(description = "Current number of entries", example = "33")
+    private long size;
+
+    public CacheStatsDTO() {}
+
+    public CacheStatsDTO(String name, long hits, long misses, long evictions, long size) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+}
@@ -1,5 +1,6 @@
 package com.wiss.dragonball.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 
@@ -131,6 +132,15 @@ public class CharacterDTO {
     @Schema(description = "Alternative or extra image URL", example = "https://example.com/vegeta_alternate.png")
     private String imageUrl;
 
+    /**
+     * Ob der angemeldete Nutzer den Charakter favorisiert hat. Wird nur von den
+     * Listen-Endpunkten gesetzt und sonst nicht serialisiert.
+     */
+    @Schema(description = "Whether the current user has favourited the character (list endpoints only)",
+            example = "true", accessMode = Schema.AccessMode.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean favourite;
+
     /**
      * Leerer Konstruktor fÃ¼r das Framework und die Serialisierung.
      */
@@ -228,5 +238,18 @@ public class CharacterDTO {
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
-}
 
+    public Boolean getFavourite() { return favourite; }
+    public void setFavourite(Boolean favourite) { this.favourite = favourite; }
+
+    /**
+     * Liefert eine flache Kopie mit gesetztem Favoriten-Flag. Die DTOs im Katalog-Snapshot
+     * werden von allen Anfragen geteilt und duerfen deshalb nicht veraendert werden.
+     */
+    public CharacterDTO withFavourite(boolean favourite) {
+        CharacterDTO copy = new CharacterDTO(id, name, ki, maxKi, race, gender, description, image,
+                affiliation, powerLevel, universe, villain, transformations, imageUrl);
+        copy.favourite = favourite;
+        return copy;
+    }
+}
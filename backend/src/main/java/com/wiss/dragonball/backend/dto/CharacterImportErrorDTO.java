@@ -0,0 +1,39 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Fehler zu einem einzelnen Datensatz eines Charakter-Imports.
+ */
+@Schema(description = "Why a single record of a character import was rejected")
+public class CharacterImportErrorDTO {
+
+    /**
+     * Position des Datensatzes in der Eingabe, beginnend bei 1 (bei NDJSON die n-te Zeile mit Inhalt).
+     */
+    @Schema(description = "Position of the record in the input, starting at 1", example = "42")
+    private long record;
+
+    @Schema(description = "Name of the character, if it could be read", example = "Goku")
+    private String name;
+
+    @Schema(description = "Reason the record was rejected", example = "Race is required")
+    private String message;
+
+    public CharacterImportErrorDTO() {}
+
+    public CharacterImportErrorDTO(long record, String name, String message) {
+        this.record = record;
+        this.name = name;
+        this.message = message;
+    }
+
+    public long getRecord() { return record; }
+    public void setRecord(long record) { this.record = record; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,42 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines Charakter-Imports: Anzahl gespeicherter Charaktere und ein Fehler pro
+ * abgelehntem Datensatz.
+ */
+@Schema(description = "Outcome of a bulk character import")
+public class CharacterImportResultDTO {
+
+    @Schema(description = "Number of characters that were stored", example = "199998", type = "integer", format = "int64")
+    private long imported;
+
+    @Schema(description = "Number of records that were rejected", example = "2", type = "integer", format = "int64")
+    private long failed;
+
+    /**
+     * Ein Eintrag pro abgelehntem Datensatz, in Eingabereihenfolge.
+     */
+    @Schema(description = "One entry per rejected record, in input order")
+    private List<CharacterImportErrorDTO> errors;
+
+    public CharacterImportResultDTO() {}
+
+    public CharacterImportResultDTO(long imported, List<CharacterImportErrorDTO> errors) {
+        this.imported = imported;
+        this.failed = errors.size();
+        this.errors = errors;
+    }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public List<CharacterImportErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<CharacterImportErrorDTO> errors) { this.errors = errors; }
+}
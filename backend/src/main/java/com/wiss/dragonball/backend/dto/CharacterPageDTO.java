@@ -0,0 +1,62 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Eine Seite von Charakteren fuer die Cursor-basierte (Keyset-)Pagination.
+ * <p>
+ * Der {@code nextCursor} ist ein undurchsichtiger String, den der Client unveraendert
+ * an den naechsten Aufruf uebergibt. Ist er {@code null}, wurde die letzte Seite erreicht.
+ * </p>
+ */
+@Schema(description = "Cursor-paginated page of characters")
+public class CharacterPageDTO {
+
+    /**
+     * Charaktere dieser Seite in Sortierreihenfolge.
+     */
+    @Schema(description = "Characters of this page")
+    private List<CharacterDTO> items = new ArrayList<>();
+
+    /**
+     * Cursor fuer die naechste Seite oder {@code null}, falls keine weitere Seite existiert.
+     */
+    @Schema(description = "Opaque cursor for the next page, null on the last page", example = "cDoxOjkwMDAwMDAwMDAwMA")
+    private String nextCursor;
+
+    /**
+     * Verwendete Seitengroesse.
+     */
+    @Schema(description = "Page size used for this request", example = "20")
+    private int limit;
+
+    /**
+     * Verwendete Sortierung ({@code powerLevel} oder {@code name}).
+     */
+    @Schema(description = "Sort key used for this page", example = "powerLevel")
+    private String sort;
+
+    public CharacterPageDTO() {}
+
+    public CharacterPageDTO(List<CharacterDTO> items, String nextCursor, int limit, String sort) {
+        this.items = items != null ? items : new ArrayList<>();
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+        this.sort = sort;
+    }
+
+    public List<CharacterDTO> getItems() { return items; }
+    public void setItems(List<CharacterDTO> items) { this.items = items != null ? items : new ArrayList<>(); }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+}
@@ -0,0 +1,38 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Anfrage zum Hinzufuegen und Entfernen mehrerer Favoriten in einem Aufruf.
+ */
+@Schema(description = "Character ids to add to and remove from the favourites in one request")
+public class FavouriteBatchRequestDTO {
+
+    /**
+     * IDs der Charaktere, die zu den Favoriten hinzugefuegt werden.
+     */
+    @Schema(description = "Character ids to add", example = "[1, 2, 3]")
+    private List<Long> add = new ArrayList<>();
+
+    /**
+     * IDs der Charaktere, die aus den Favoriten entfernt werden.
+     */
+    @Schema(description = "Character ids to remove", example = "[7]")
+    private List<Long> remove = new ArrayList<>();
+
+    public FavouriteBatchRequestDTO() {}
+
+    public FavouriteBatchRequestDTO(List<Long> add, List<Long> remove) {
+        this.add = add;
+        this.remove = remove;
+    }
+
+    public List<Long> getAdd() { return add; }
+    public void setAdd(List<Long> add) { this.add = add; }
+
+    public List<Long> getRemove() { return remove; }
+    public void setRemove(List<Long> remove) { this.remove = remove; }
+}
@@ -0,0 +1,47 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Tatsaechliche Aenderung einer Favoriten-Batch-Anfrage.
+ */
+@Schema(description = "Favourites that were actually changed by a batch request")
+public class FavouriteBatchResultDTO {
+
+    /**
+     * Neu hinzugefuegte Favoriten (bereits vorhandene fehlen).
+     */
+    @Schema(description = "Character ids that were newly added", example = "[1, 3]")
+    private List<Long> added;
+
+    /**
+     * Tatsaechlich entfernte Favoriten (nicht vorhandene fehlen).
+     */
+    @Schema(description = "Character ids that were actually removed", example = "[7]")
+    private List<Long> removed;
+
+    /**
+     * Angefragte IDs, zu denen es keinen Charakter gibt.
+     */
+    @Schema(description = "Requested ids without a matching character", example = "[9999]")
+    private List<Long> unknown;
+
+    public FavouriteBatchResultDTO() {}
+
+    public FavouriteBatchResultDTO(List<Long> added, List<Long> removed, List<Long> unknown) {
+        this.added = added;
+        this.removed = removed;
+        this.unknown = unknown;
+    }
+
+    public List<Long> getAdded() { return added; }
+    public void setAdded(List<Long> added) { this.added = added; }
+
+    public List<Long> getRemoved() { return removed; }
+    public void setRemoved(List<Long> removed) { this.removed = removed; }
+
+    public List<Long> getUnknown() { return unknown; }
+    public void setUnknown(List<Long> unknown) { this.unknown = unknown; }
+}
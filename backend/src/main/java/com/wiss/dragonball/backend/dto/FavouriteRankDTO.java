@@ -0,0 +1,53 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Platzierung eines Charakters in der Rangliste der meistfavorisierten Charaktere.
+ */
+@Schema(description = "Leaderboard position of a character by number of favourites")
+public class FavouriteRankDTO {
+
+    @Schema(description = "Unique identifier of the character", example = "1")
+    private Long id;
+
+    @Schema(description = "Name of the character", example = "Goku")
+    private String name;
+
+    @Schema(description = "Image URL of the character", example = "https://example.com/goku.png")
+    private String image;
+
+    @Schema(description = "Number of users who favourited the character", example = "1234", type = "integer", format = "int64")
+    private long favouriteCount;
+
+    /**
+     * Rang, 1 = meistfavorisierter Charakter. Charaktere mit gleich vielen Favoriten teilen sich den Rang.
+     */
+    @Schema(description = "Rank (1 = most favourited, ties share a rank)", example = "1")
+    private int rank;
+
+    public FavouriteRankDTO() {}
+
+    public FavouriteRankDTO(Long id, String name, String image, long favouriteCount, int rank) {
+        this.id = id;
+        this.name = name;
+        this.image = image;
+        this.favouriteCount = favouriteCount;
+        this.rank = rank;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getImage() { return image; }
+    public void setImage(String image) { this.image = image; }
+
+    public long getFavouriteCount() { return favouriteCount; }
+    public void setFavouriteCount(long favouriteCount) { this.favouriteCount = favouriteCount; }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+}
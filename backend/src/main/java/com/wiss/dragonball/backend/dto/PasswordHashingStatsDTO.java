@@ -0,0 +1,80 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Kennzahlen des Passwort-Hashing-Pools (Auslastung, Warteschlange, Latenz).
+ */
+@Schema(description = "Queue depth, rejection and latency figures of the password hashing pool")
+public class PasswordHashingStatsDTO {
+
+    @Schema(description = "Number of hashing threads", example = "2")
+    private int poolSize;
+
+    @Schema(description = "Threads currently hashing", example = "1")
+    private int activeThreads;
+
+    @Schema(description = "Tasks waiting in the queue", example = "0")
+    private int queueDepth;
+
+    @Schema(description = "Maximum number of waiting tasks before requests are rejected", example = "64")
+    private int queueCapacity;
+
+    @Schema(description = "Completed hashing tasks", example = "1200")
+    private long completed;
+
+    @Schema(description = "Tasks rejected with 503 because the queue was full", example = "3")
+    private long rejected;
+
+    @Schema(description = "Average time spent hashing per task in milliseconds", example = "248.5")
+    private double averageHashMillis;
+
+    @Schema(description = "Longest time spent hashing in milliseconds", example = "410.2")
+    private double maxHashMillis;
+
+    @Schema(description = "Average time a task waited in the queue in milliseconds", example = "12.0")
+    private double averageQueueWaitMillis;
+
+    public PasswordHashingStatsDTO() {}
+
+    public PasswordHashingStatsDTO(int poolSize, int activeThreads, int queueDepth, int queueCapacity,
+                                   long completed, long rejected, double averageHashMillis,
+                                   double maxHashMillis, double averageQueueWaitMillis) {
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.averageHashMillis = averageHashMillis;
+        this.maxHashMillis = maxHashMillis;
+        this.averageQueueWaitMillis = averageQueueWaitMillis;
+    }
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getActiveThreads() { return activeThreads; }
+    public void setActiveThreads(int activeThreads) { this.activeThreads = activeThreads; }
+
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public double getAverageHashMillis() { return averageHashMillis; }
+    public void setAverageHashMillis(double averageHashMillis) { this.averageHashMillis = averageHashMillis; }
+
+    public double getMaxHashMillis() { return maxHashMillis; }
+    public void setMaxHashMillis(double maxHashMillis) { this.maxHashMillis = maxHashMillis; }
+
+    public double getAverageQueueWaitMillis() { return averageQueueWaitMillis; }
+    public void setAverageQueueWaitMillis(double averageQueueWaitMillis) { this.averageQueueWaitMillis = averageQueueWaitMillis; }
+}
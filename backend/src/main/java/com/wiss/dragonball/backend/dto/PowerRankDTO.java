@@ -0,0 +1,56 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Platzierung eines Charakters in der Power-Level-Rangliste.
+ */
+@Schema(description = "Leaderboard position of a character by power level")
+public class PowerRankDTO {
+
+    @Schema(description = "Unique identifier of the character", example = "1")
+    private Long id;
+
+    @Schema(description = "Name of the character", example = "Goku")
+    private String name;
+
+    @Schema(description = "Power level of the character", example = "900000000000", type = "integer", format = "int64")
+    private long powerLevel;
+
+    /**
+     * Rang, 1 = staerkster Charakter. Gleich starke Charaktere teilen sich den Rang.
+     */
+    @Schema(description = "Rank (1 = strongest, ties share a rank)", example = "3")
+    private int rank;
+
+    /**
+     * Anzahl Charaktere in der Rangliste.
+     */
+    @Schema(description = "Number of ranked characters", example = "42")
+    private int total;
+
+    public PowerRankDTO() {}
+
+    public PowerRankDTO(Long id, String name, long powerLevel, int rank, int total) {
+        this.id = id;
+        this.name = name;
+        this.powerLevel = powerLevel;
+        this.rank = rank;
+        this.total = total;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getPowerLevel() { return powerLevel; }
+    public void setPowerLevel(long powerLevel) { this.powerLevel = powerLevel; }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+}
@@ -0,0 +1,35 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Anzahl Charaktere pro Rasse fuer Filter-Sidebars.
+ */
+@Schema(description = "Number of characters per race")
+public class RaceFacetDTO {
+
+    /**
+     * Rasse (Schreibweise des ersten Charakters dieser Rasse).
+     */
+    @Schema(description = "Race name", example = "Saiyan")
+    private String race;
+
+    /**
+     * Anzahl Charaktere dieser Rasse.
+     */
+    @Schema(description = "Number of characters of this race", example = "12")
+    private long count;
+
+    public RaceFacetDTO() {}
+
+    public RaceFacetDTO(String race, long count) {
+        this.race = race;
+        this.count = count;
+    }
+
+    public String getRace() { return race; }
+    public void setRace(String race) { this.race = race; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,46 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Charakter, der haeufig zusammen mit einem anderen Charakter favorisiert wurde.
+ */
+@Schema(description = "Character that is often favourited together with another character")
+public class RelatedCharacterDTO {
+
+    @Schema(description = "Unique identifier of the character", example = "2")
+    private Long id;
+
+    @Schema(description = "Name of the character", example = "Vegeta")
+    private String name;
+
+    @Schema(description = "Image URL of the character", example = "https://example.com/vegeta.png")
+    private String image;
+
+    /**
+     * Anzahl Nutzer, die beide Charaktere favorisiert haben.
+     */
+    @Schema(description = "Number of users who favourited both characters", example = "42", type = "integer", format = "int64")
+    private long sharedFavourites;
+
+    public RelatedCharacterDTO() {}
+
+    public RelatedCharacterDTO(Long id, String name, String image, long sharedFavourites) {
+        this.id = id;
+        this.name = name;
+        this.image = image;
+        this.sharedFavourites = sharedFavourites;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getImage() { return image; }
+    public void setImage(String image) { this.image = image; }
+
+    public long getSharedFavourites() { return sharedFavourites; }
+    public void setSharedFavourites(long sharedFavourites) { this.sharedFavourites = sharedFavourites; }
+}
@@ -0,0 +1,61 @@
+package com.wiss.dragonball.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Einzelne Aenderung an der geordneten Liste der Transformationen eines Charakters.
+ * <p>
+ * {@code insert} fuegt {@link #value} an {@link #index} ein (ohne Index am Ende), {@code remove}
+ * entfernt den Eintrag an {@link #index}, {@code move} verschiebt ihn von {@link #index} nach
+ * {@link #to}. Mehrere Operationen werden nacheinander angewendet; jede sieht das Ergebnis der
+ * vorherigen.
+ * </p>
+ */
+@Schema(description = "Single ordered change to the transformations of a character")
+public class TransformationOperationDTO {
+
+    @Schema(description = "Operation: insert, remove or move", example = "insert")
+    private String op;
+
+    @Schema(description = "Position to insert at (default: end), to remove, or to move from; starts at 0", example = "1")
+    private Integer index;
+
+    @Schema(description = "Target position for move", example = "0")
+    private Integer to;
+
+    @Schema(description = "Transformation to insert", example = "Super Saiyan Blue")
+    private String value;
+
+    public TransformationOperationDTO() {}
+
+    public TransformationOperationDTO(String op, Integer index, Integer to, String value) {
+        this.op = op;
+        this.index = index;
+        this.to = to;
+        this.value = value;
+    }
+
+    public static TransformationOperationDTO insert(Integer index, String value) {
+        return new TransformationOperationDTO("insert", index, null, value);
+    }
+
+    public static TransformationOperationDTO remove(int index) {
+        return new TransformationOperationDTO("remove", index, null, null);
+    }
+
+    public static TransformationOperationDTO move(int from, int to) {
+        return new TransformationOperationDTO("move", from, to, null);
+    }
+
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+
+    public Integer getTo() { return to; }
+    public void setTo(Integer to) { this.to = to; }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+}
@@ -1,6 +1,12 @@
 package com.wiss.dragonball.backend.entity;
 
+import com.wiss.dragonball.backend.mapper.KiValueParser;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -20,14 +26,37 @@ import java.util.List;
  * Haelt alle Felder, die das REST-API speichert, inklusive Bilder, Rasse und Transformationen.
  */
 @Entity
-@Table(name = "character")
+// UPDATE enthaelt nur die geaenderten Spalten (z.B. beim PATCH einzelner Felder)
+@DynamicUpdate
+@Table(name = "character", indexes = {
+        // Indizes fuer die Keyset-Pagination nach (powerLevel, id) und (name, id)
+        @Index(name = "idx_character_power_level_id", columnList = "powerLevel, id"),
+        @Index(name = "idx_character_name_id", columnList = "name, id"),
+        @Index(name = "idx_character_race_power_level_id", columnList = "race, powerLevel, id"),
+        @Index(name = "idx_character_race_name_id", columnList = "race, name, id"),
+        // Indizes fuer Sortierung und Bereichsfilter auf den numerischen Ki-Werten
+        @Index(name = "idx_character_ki_value_id", columnList = "kiValue, id"),
+        @Index(name = "idx_character_max_ki_value_id", columnList = "maxKiValue, id")
+})
 public class Character {
 
+    /**
+     * Anzahl IDs, die Hibernate pro Sequenz-Aufruf reserviert (pooled Optimizer). Im Gegensatz zu
+     * IDENTITY kennt Hibernate die IDs damit vor dem INSERT und kann Inserts als JDBC-Batch senden.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Positionsspalte der Transformationen in {@code character_transformations}.
+     */
+    public static final String TRANSFORMATION_ORDER_COLUMN = "transformation_order";
+
     /**
      * Eindeutige ID des Charakters (PrimÃ¤rschlÃ¼ssel).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "character_seq")
+    @SequenceGenerator(name = "character_seq", sequenceName = "character_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -50,6 +79,25 @@ public class Character {
      */
     private String maxKi;
 
+    /**
+     * Numerischer Schattenwert von {@link #ki} fuer Sortierung und Bereichsfilter.
+     * Wird vor jedem Speichern aus dem Anzeigewert berechnet; {@code null}, wenn nicht interpretierbar.
+     */
+    @Column(precision = KiValueParser.PRECISION, scale = 0)
+    private BigDecimal kiValue;
+
+    /**
+     * Numerischer Schattenwert von {@link #maxKi}.
+     */
+    @Column(precision = KiValueParser.PRECISION, scale = 0)
+    private BigDecimal maxKiValue;
+
+    /**
+     * {@code true}, sobald die Ki-Schattenwerte berechnet wurden, auch wenn der Anzeigewert nicht
+     * interpretierbar war; {@code null} fuer Zeilen aus der Zeit vor den Schattenspalten.
+     */
+    private Boolean kiValuesSynced;
+
     /**
      * Power Level des Charakters (z.B. 900000000000).
      */
@@ -88,8 +136,20 @@ public class Character {
 
     /**
      * Liste der Transformationen (z.B. Super Saiyan, Ultra Instinct).
+     * <p>
+     * Listen-Abfragen laden die Collection per Entity-Graph mit; wo das nicht geht
+     * (z.B. bei LIMIT-Abfragen), werden bis zu 100 Collections pro SELECT nachgeladen.
+     * </p>
+     * <p>
+     * Die Reihenfolge steht in der Spalte {@value #TRANSFORMATION_ORDER_COLUMN}. Als indizierte Liste
+     * vergleicht Hibernate Position fuer Position mit dem geladenen Stand und schreibt nur geaenderte
+     * Zeilen, statt wie bei einem Bag alle Zeilen zu loeschen und neu einzufuegen. Der Default
+     * erlaubt das Hinzufuegen der Spalte per Schema-Update auf bestehende Zeilen.
+     * </p>
      */
     @ElementCollection
+    @OrderColumn(name = TRANSFORMATION_ORDER_COLUMN, columnDefinition = "integer default 0")
+    @BatchSize(size = 100)
     private List<String> transformations;
 
     /**
@@ -97,6 +157,14 @@ public class Character {
      */
     private String imageUrl;
 
+    /**
+     * Anzahl Nutzer, die den Charakter favorisiert haben. Wird nur per Bulk-Update von
+     * {@code FavouriteCounters} gepflegt, nie ueber die Entity geschrieben.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long favouriteCount;
+
     /**
      * Leerer Konstruktor fÃ¼r JPA.
      */
@@ -195,6 +263,24 @@ public class Character {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    public long getFavouriteCount() { return favouriteCount; }
+
+    public BigDecimal getKiValue() { return kiValue; }
+
+    public BigDecimal getMaxKiValue() { return maxKiValue; }
+
+    /**
+     * Berechnet die numerischen Ki-Schattenwerte aus den Anzeigewerten neu.
+     * Laeuft automatisch vor jedem Insert/Update und beim Backfill bestehender Zeilen.
+     */
+    @PrePersist
+    @PreUpdate
+    public void syncKiValues() {
+        this.kiValue = KiValueParser.parse(ki);
+        this.maxKiValue = KiValueParser.parse(maxKi);
+        this.kiValuesSynced = true;
+    }
+
 
 }
 
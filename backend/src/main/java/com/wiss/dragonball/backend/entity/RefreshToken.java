@@ -0,0 +1,64 @@
+package com.wiss.dragonball.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Entity fuer einen ausgestellten Refresh-Token. Gespeichert wird nur der SHA-256-Hash
+ * des Tokens, nie der Token selbst. Bei jeder Verwendung wird der Token rotiert, d.h. als
+ * widerrufen markiert und durch einen neuen ersetzt.
+ */
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_revoked_expires_at", columnList = "revoked, expiresAt")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * SHA-256-Hash des Tokens (hexadezimal).
+     */
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * {@code true}, sobald der Token rotiert oder beim Logout widerrufen wurde.
+     */
+    @Column(nullable = false)
+    private boolean revoked;
+
+    // Konstruktoren
+    public RefreshToken() { }
+
+    public RefreshToken(String tokenHash, String username, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.username = username;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getter und Setter
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public boolean isRevoked() { return revoked; }
+    public void setRevoked(boolean revoked) { this.revoked = revoked; }
+}
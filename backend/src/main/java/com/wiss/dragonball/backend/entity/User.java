@@ -1,6 +1,8 @@
 package com.wiss.dragonball.backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.util.HashSet;
 import java.util.Set;
 
@@ -27,6 +29,14 @@ public class User {
     @Column(nullable = false)
     private Role role;
 
+    /**
+     * Generation der ausgestellten Tokens. Wird bei Rollenwechsel oder Widerruf erhoeht;
+     * Tokens mit aelterer Generation werden danach abgelehnt.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long tokenGeneration;
+
     /**
      * Many-to-many Verknuepfung zwischen Nutzern und ihren Lieblings-Charakteren.
      * Erstellt eine Join-Tabelle {@code user_favourite}. Der Tabellenname kann
@@ -60,7 +70,16 @@ public class User {
     public void setPassword(String password) { this.password = password; }
 
     public Role getRole() { return role; }
-    public void setRole(Role role) { this.role = role; }
+    public void setRole(Role role) {
+        // Rollenwechsel entwertet bereits ausgestellte Tokens, da diese die alte Rolle enthalten
+        if (this.role != null && this.role != role) {
+            this.tokenGeneration++;
+        }
+        this.role = role;
+    }
+
+    public long getTokenGeneration() { return tokenGeneration; }
+    public void setTokenGeneration(long tokenGeneration) { this.tokenGeneration = tokenGeneration; }
 
     public Set<Character> getFavourites() { return favourites; }
     public void setFavourites(Set<Character> favourites) { this.favourites = favourites; }
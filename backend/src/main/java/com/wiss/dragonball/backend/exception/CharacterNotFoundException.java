@@ -22,6 +22,15 @@ public class CharacterNotFoundException extends RuntimeException {
      */
     private final Long characterId;
 
+    /**
+     * Konstruktor für einen nicht gefundenen Charakter, der sich nicht genauer benennen lässt.
+     */
+    public CharacterNotFoundException() {
+        super("Character not found");
+        this.characterName = null;
+        this.characterId = null;
+    }
+
     /**
      * Konstruktor für einen nicht gefundenen Charakter anhand des Namens.
      *
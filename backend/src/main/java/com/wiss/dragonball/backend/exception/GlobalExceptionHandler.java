@@ -2,6 +2,7 @@ package com.wiss.dragonball.backend.exception;
 
 import com.wiss.dragonball.backend.dto.ErrorResponseDTO;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -177,6 +178,115 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Behandelt ungültige Pagination-Parameter (Cursor, Sortierung).
+     *
+     * @param ex      Die {@link InvalidPageRequestException}
+     * @param request Die HTTP-Anfrage
+     * @return Antwort mit Erklärung und Status 400
+     */
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidPageRequest(
+            InvalidPageRequestException ex, HttpServletRequest request) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                "INVALID_PAGE_REQUEST",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    /**
+     * Behandelt ungültige Favoriten-Batch-Anfragen (zu viele IDs, widersprüchliche IDs).
+     *
+     * @param ex      Die {@link InvalidFavouriteBatchException}
+     * @param request Die HTTP-Anfrage
+     * @return Antwort mit Erklärung und Status 400
+     */
+    @ExceptionHandler(InvalidFavouriteBatchException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidFavouriteBatch(
+            InvalidFavouriteBatchException ex, HttpServletRequest request) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                "INVALID_FAVOURITE_BATCH",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    /**
+     * Behandelt einen ausgelasteten Passwort-Hashing-Pool (Login-/Registrierungs-Ansturm).
+     *
+     * @param ex      Die {@link PasswordHashingBusyException}
+     * @param request Die HTTP-Anfrage
+     * @return Antwort mit Header {@code Retry-After} und Status 503
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePasswordHashingBusy(
+            PasswordHashingBusyException ex, HttpServletRequest request) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                "AUTHENTICATION_BUSY",
+                "Too many login or registration requests. Please try again shortly.",
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Behandelt zu viele Login- oder Registrierungsversuche.
+     *
+     * @param ex      Die {@link TooManyLoginAttemptsException}
+     * @param request Die HTTP-Anfrage
+     * @return Antwort mit Header {@code Retry-After} und Status 429
+     */
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTooManyLoginAttempts(
+            TooManyLoginAttemptsException ex, HttpServletRequest request) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                "TOO_MANY_LOGIN_ATTEMPTS",
+                "Too many attempts. Please try again in " + ex.getRetryAfterSeconds() + " seconds.",
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Behandelt ungültige, abgelaufene oder bereits eingelöste Refresh-Tokens.
+     *
+     * @param ex      Die {@link InvalidRefreshTokenException}
+     * @param request Die HTTP-Anfrage
+     * @return Antwort mit Fehlerdetails und Status 401
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidRefreshToken(
+            InvalidRefreshTokenException ex, HttpServletRequest request) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                "INVALID_REFRESH_TOKEN",
+                ex.getMessage(),
+                HttpStatus.UNAUTHORIZED.value(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+    }
+
     // ✅ Pfad extrahieren
     private String extractPath(WebRequest request) {
         return request.getDescription(false).replace("uri=", "");
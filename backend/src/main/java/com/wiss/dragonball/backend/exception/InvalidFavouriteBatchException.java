@@ -0,0 +1,23 @@
+package com.wiss.dragonball.backend.exception;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn eine Favoriten-Batch-Anfrage ungültig ist,
+ * z.B. zu viele IDs enthält oder dieselbe ID gleichzeitig hinzufügen und entfernen will.
+ * <p>
+ * Wird mit Status 400 beantwortet.
+ * </p>
+ *
+ * @author Thierno
+ * @version 1.0
+ */
+public class InvalidFavouriteBatchException extends RuntimeException {
+
+    /**
+     * Konstruktor mit Fehlermeldung.
+     *
+     * @param message Beschreibung, warum die Anfrage ungültig ist
+     */
+    public InvalidFavouriteBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.wiss.dragonball.backend.exception;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn Pagination-, Sortier- oder Filterparameter ungültig sind.
+ * <p>
+ * Wird z.B. geworfen, wenn ein Cursor manipuliert wurde, nicht zur gewählten
+ * Sortierung passt, eine unbekannte Sortierung angefragt wird oder ein Filterwert
+ * (z.B. ein Ki-Wert) nicht interpretiert werden kann.
+ * </p>
+ *
+ * @author Thierno
+ * @version 1.0
+ */
+public class InvalidPageRequestException extends RuntimeException {
+
+    /**
+     * Konstruktor mit Beschreibung des Fehlers.
+     *
+     * @param message Beschreibung (z.B. "Invalid cursor")
+     */
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.wiss.dragonball.backend.exception;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn ein Refresh-Token ungültig, abgelaufen,
+ * widerrufen oder bereits eingelöst ist.
+ * <p>
+ * Wird mit Status 401 beantwortet; der Client muss sich neu anmelden.
+ * </p>
+ *
+ * @author Thierno
+ * @version 1.0
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    /**
+     * Konstruktor mit Fehlermeldung.
+     *
+     * @param message Beschreibung, warum der Token abgelehnt wurde
+     */
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.wiss.dragonball.backend.exception;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn der Passwort-Hashing-Pool ausgelastet ist.
+ * <p>
+ * Login und Registrierung werden dann sofort mit Status 503 abgewiesen, statt
+ * Request-Threads zu blockieren. Der Client soll es nach {@link #getRetryAfterSeconds()}
+ * Sekunden erneut versuchen.
+ * </p>
+ *
+ * @author Thierno
+ * @version 1.0
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    /**
+     * Empfohlene Wartezeit in Sekunden bis zum nächsten Versuch.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Konstruktor mit empfohlener Wartezeit.
+     *
+     * @param retryAfterSeconds Wartezeit in Sekunden (für den Header {@code Retry-After})
+     */
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Password hashing capacity exhausted");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Gibt die empfohlene Wartezeit zurück.
+     *
+     * @return Wartezeit in Sekunden
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
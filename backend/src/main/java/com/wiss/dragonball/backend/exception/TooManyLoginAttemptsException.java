@@ -0,0 +1,38 @@
+package com.wiss.dragonball.backend.exception;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn für einen Benutzernamen oder eine Client-IP
+ * zu viele Login- oder Registrierungsversuche erfolgt sind.
+ * <p>
+ * Wird vor jeder Passwortprüfung geworfen und mit Status 429 beantwortet.
+ * </p>
+ *
+ * @author Thierno
+ * @version 1.0
+ */
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    /**
+     * Wartezeit in Sekunden, bis wieder ein Versuch erlaubt ist.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Konstruktor mit Wartezeit.
+     *
+     * @param retryAfterSeconds Wartezeit in Sekunden (für den Header {@code Retry-After})
+     */
+    public TooManyLoginAttemptsException(long retryAfterSeconds) {
+        super("Too many login attempts");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Gibt die Wartezeit zurück.
+     *
+     * @return Wartezeit in Sekunden
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,79 @@
+package com.wiss.dragonball.backend.mapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Wandelt Ki-Anzeigewerte wie {@code "60,000,000"} oder {@code "90 Septillion"} in Zahlen um.
+ * <p>
+ * Unterstuetzt Tausender-Trennzeichen (Komma, Apostroph, Leerzeichen), einen Dezimalpunkt und
+ * benannte Groessenordnungen (short scale) von {@code thousand} bis {@code googol}. Nicht
+ * interpretierbare Werte (z.B. {@code "Unknown"}) ergeben {@code null}.
+ * </p>
+ */
+public final class KiValueParser {
+
+    private static final Pattern VALUE = Pattern.compile("^([0-9][0-9,' ]*(?:\\.[0-9]+)?)\\s*([a-z]*)$");
+
+    private static final Map<String, Integer> MAGNITUDES = Map.ofEntries(
+            Map.entry("", 0),
+            Map.entry("thousand", 3),
+            Map.entry("million", 6),
+            Map.entry("billion", 9),
+            Map.entry("trillion", 12),
+            Map.entry("quadrillion", 15),
+            Map.entry("quintillion", 18),
+            Map.entry("sextillion", 21),
+            Map.entry("septillion", 24),
+            Map.entry("octillion", 27),
+            Map.entry("nonillion", 30),
+            Map.entry("decillion", 33),
+            Map.entry("undecillion", 36),
+            Map.entry("duodecillion", 39),
+            Map.entry("tredecillion", 42),
+            Map.entry("quattuordecillion", 45),
+            Map.entry("quindecillion", 48),
+            Map.entry("sexdecillion", 51),
+            Map.entry("septendecillion", 54),
+            Map.entry("octodecillion", 57),
+            Map.entry("novemdecillion", 60),
+            Map.entry("vigintillion", 63),
+            Map.entry("googol", 100)
+    );
+
+    /**
+     * Maximale Anzahl Stellen der numerischen Schattenspalten (reicht bis Googol).
+     */
+    public static final int PRECISION = 120;
+
+    private KiValueParser() {
+    }
+
+    /**
+     * Parst einen Ki-Anzeigewert.
+     *
+     * @param display Anzeigewert, z.B. {@code "1.5 Billion"}
+     * @return ganzzahliger Wert oder {@code null}, falls der Text keine Zahl darstellt
+     */
+    public static BigDecimal parse(String display) {
+        if (display == null) {
+            return null;
+        }
+        String normalized = display.trim().toLowerCase(Locale.ROOT);
+        Matcher matcher = VALUE.matcher(normalized);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Integer exponent = MAGNITUDES.get(matcher.group(2));
+        if (exponent == null) {
+            return null;
+        }
+        String digits = matcher.group(1).replaceAll("[,' ]", "");
+        BigDecimal value = new BigDecimal(digits).scaleByPowerOfTen(exponent).setScale(0, RoundingMode.HALF_UP);
+        return value.precision() <= PRECISION ? value : null;
+    }
+}
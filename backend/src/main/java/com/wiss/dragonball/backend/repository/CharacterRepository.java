@@ -1,10 +1,25 @@
 package com.wiss.dragonball.backend.repository;
 
 import com.wiss.dragonball.backend.entity.Character;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository-Interface für den Zugriff auf {@link Character} Entitäten.
@@ -12,12 +27,25 @@ import java.util.Optional;
  * Bietet CRUD-Operationen sowie benutzerdefinierte Abfragen über Methodennamen
  * mit Spring Data JPA.
  * </p>
+ * <p>
+ * Listen-Abfragen laden die Transformationen per {@link EntityGraph} im selben SELECT,
+ * damit das Mapping zu DTOs keine zusätzliche Abfrage pro Charakter auslöst.
+ * </p>
  *
  * @author Thierno
  * @version 1.0
  */
 public interface CharacterRepository extends JpaRepository<Character, Long> {
 
+    /**
+     * Lädt alle Charaktere inklusive Transformationen in einer Abfrage.
+     *
+     * @return Liste aller Charaktere
+     */
+    @Override
+    @EntityGraph(attributePaths = "transformations")
+    List<Character> findAll();
+
     /**
      * Sucht einen Charakter mit exakt übereinstimmendem Namen.
      *
@@ -32,6 +60,7 @@ public interface CharacterRepository extends JpaRepository<Character, Long> {
      * @param race Die gesuchte Rasse
      * @return Liste der passenden Charaktere
      */
+    @EntityGraph(attributePaths = "transformations")
     List<Character> findByRace(String race);
 
     /**
@@ -40,6 +69,7 @@ public interface CharacterRepository extends JpaRepository<Character, Long> {
      * @param race Die gesuchte Rasse
      * @return Liste der passenden Charaktere
      */
+    @EntityGraph(attributePaths = "transformations")
     List<Character> findByRaceIgnoreCase(String race);
 
     /**
@@ -48,6 +78,7 @@ public interface CharacterRepository extends JpaRepository<Character, Long> {
      * @param powerLevel Der Power Level
      * @return Liste der passenden Charaktere
      */
+    @EntityGraph(attributePaths = "transformations")
     List<Character> findByPowerLevel(long powerLevel);
 
     /**
@@ -56,6 +87,7 @@ public interface CharacterRepository extends JpaRepository<Character, Long> {
      * @param name Suchbegriff
      * @return Liste der passenden Charaktere
      */
+    @EntityGraph(attributePaths = "transformations")
     List<Character> findByNameContainingIgnoreCase(String name);
 
     /**
@@ -66,14 +98,6 @@ public interface CharacterRepository extends JpaRepository<Character, Long> {
      */
     long countByRace(String race);
 
-    /**
-     * Findet die Top 5 Charaktere mit einem Power Level größer als {@code minPower}, sortiert absteigend.
-     *
-     * @param minPower Untergrenze für das Power Level
-     * @return Liste der stärksten 5 Charaktere über der Grenze
-     */
-    List<Character> findTop5ByPowerLevelGreaterThanOrderByPowerLevelDesc(int minPower);
-
     /**
      * Prüft, ob ein Charakter mit einem bestimmten Namen und einer bestimmten Rasse existiert.
      *
@@ -82,4 +106,109 @@ public interface CharacterRepository extends JpaRepository<Character, Long> {
      * @return {@code true}, wenn mindestens ein passender Charakter existiert
      */
     boolean existsByNameAndRace(String name, String race);
+
+    /**
+     * Keyset-Pagination ueber alle Charaktere. Die Position enthaelt die Sortierschluessel
+     * des letzten Elements der Vorseite, sodass die Datenbank per Index weitersucht (kein OFFSET).
+     *
+     * @param position Startposition (z.B. {@code ScrollPosition.keyset()} fuer die erste Seite)
+     * @param sort     Sortierung, muss mit der ID als Tiebreaker enden
+     * @param limit    maximale Anzahl Elemente pro Seite
+     * @return Fenster mit den Charakteren der Seite
+     */
+    Window<Character> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Keyset-Pagination ueber alle Charaktere einer Rasse (Gross-/Kleinschreibung beachtet).
+     *
+     * @param race     Die Rasse
+     * @param position Startposition
+     * @param sort     Sortierung, muss mit der ID als Tiebreaker enden
+     * @param limit    maximale Anzahl Elemente pro Seite
+     * @return Fenster mit den Charakteren der Seite
+     */
+    Window<Character> findByRace(String race, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Keyset-Pagination ueber alle Charaktere einer Rasse (Gross-/Kleinschreibung ignoriert).
+     *
+     * @param race     Die Rasse
+     * @param position Startposition
+     * @param sort     Sortierung, muss mit der ID als Tiebreaker enden
+     * @param limit    maximale Anzahl Elemente pro Seite
+     * @return Fenster mit den Charakteren der Seite
+     */
+    Window<Character> findByRaceIgnoreCase(String race, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Liest alle Charaktere vorwaerts ueber einen Datenbank-Cursor (nach ID sortiert).
+     * <p>
+     * Muss innerhalb einer Transaktion konsumiert und geschlossen werden. Der JDBC-Treiber
+     * holt jeweils nur {@code fetchSize} Zeilen, statt die ganze Tabelle zu materialisieren.
+     * </p>
+     *
+     * @return Stream aller Charaktere
+     */
+    @Query("select c from Character c order by c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Character> streamAllByOrderById();
+
+    /**
+     * Loescht einen Charakter per Bulk-Statement, ohne ihn vorher zu laden. Hibernate entfernt
+     * dabei die Transformationen ({@code @ElementCollection}) mit einem eigenen Bulk-Statement.
+     *
+     * @return Anzahl geloeschter Zeilen (0, wenn die ID unbekannt ist)
+     */
+    @Modifying
+    @Query("delete from Character c where c.id = :id")
+    int deleteCharacterById(@Param("id") Long id);
+
+    /**
+     * Liefert von den angegebenen IDs diejenigen, zu denen es einen Charakter gibt.
+     */
+    @Query("select c.id from Character c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Liefert die IDs der Charaktere, deren numerischer Ki-Wert im Bereich liegt, sortiert und begrenzt.
+     * Die Daten selbst kommen aus dem Katalog, daher werden keine Entities geladen.
+     *
+     * @param min   Untergrenze (inklusiv)
+     * @param max   Obergrenze (inklusiv)
+     * @param sort  Sortierung (z.B. nach {@code kiValue} absteigend)
+     * @param limit maximale Anzahl Treffer
+     * @return IDs der passenden Charaktere
+     */
+    @Query("select c.id from Character c where c.kiValue between :min and :max")
+    List<Long> findIdsByKiValueBetween(@Param("min") BigDecimal min, @Param("max") BigDecimal max,
+                                       Sort sort, Limit limit);
+
+    /**
+     * Liefert die IDs der Charaktere, deren numerischer Max-Ki-Wert im Bereich liegt, sortiert und begrenzt.
+     *
+     * @param min   Untergrenze (inklusiv)
+     * @param max   Obergrenze (inklusiv)
+     * @param sort  Sortierung (z.B. nach {@code maxKiValue} absteigend)
+     * @param limit maximale Anzahl Treffer
+     * @return IDs der passenden Charaktere
+     */
+    @Query("select c.id from Character c where c.maxKiValue between :min and :max")
+    List<Long> findIdsByMaxKiValueBetween(@Param("min") BigDecimal min, @Param("max") BigDecimal max,
+                                          Sort sort, Limit limit);
+
+    /**
+     * Liefert den naechsten Block von Charakteren, deren Ki-Schattenwerte noch nie berechnet wurden
+     * (nach ID, ab {@code afterId}). Nicht interpretierbare Werte gelten nach dem ersten Versuch als
+     * berechnet und werden nicht bei jedem Start erneut gelesen.
+     *
+     * @param afterId  letzte bereits verarbeitete ID
+     * @param pageable Blockgroesse
+     * @return Charaktere, deren Schattenwerte berechnet werden muessen
+     */
+    @Query("select c from Character c where c.id > :afterId and c.kiValuesSynced is null order by c.id")
+    List<Character> findKiBackfillBatch(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -0,0 +1,188 @@
+package com.wiss.dragonball.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC-Zugriff auf die Join-Tabelle {@code user_favourite} fuer Batch-Aenderungen.
+ * <p>
+ * Alle Zeilen einer Anfrage werden als ein JDBC-Batch gesendet statt als einzelne
+ * Statements. Die Methoden laufen in der Transaktion des Aufrufers (JdbcTemplate nutzt
+ * dieselbe Verbindung wie JPA) und liefern die IDs zurueck, die sich tatsaechlich geaendert haben.
+ * Welche das sind, entscheidet eine Abfrage der vorhandenen Favoriten vor dem Batch; die
+ * Zeilenzahlen des Batches allein reichen nicht, da Treiber sie als
+ * {@link Statement#SUCCESS_NO_INFO} melden duerfen.
+ * </p>
+ * <p>
+ * Ausserdem pflegt es die daraus abgeleitete Spalte {@code character.favourite_count} und
+ * liefert die Daten fuer den Neuaufbau der Co-Favoriten-Matrix.
+ * </p>
+ */
+@Repository
+public class FavouriteBatchRepository {
+
+    /** Modulus fuer die Quadratsumme im Fingerabdruck, damit die Summe nicht ueberlaeuft. */
+    public static final long FINGERPRINT_MODULUS = 1_000_000_007L;
+
+    private static final String INSERT_SQL = "insert into user_favourite (user_id, character_id)"
+            + " select ?, ? where not exists (select 1 from user_favourite f"
+            + " where f.user_id = ? and f.character_id = ?)";
+
+    private static final String DELETE_SQL = "delete from user_favourite where user_id = ? and character_id = ?";
+
+    private static final String SELECT_EXISTING_SQL =
+            "select character_id from user_favourite where user_id = ? and character_id in (%s)";
+
+    private static final String ADD_COUNT_SQL =
+            "update character set favourite_count = favourite_count + ? where id = ?";
+
+    private static final String RECONCILE_COUNTS_SQL = "update character c set favourite_count ="
+            + " (select count(*) from user_favourite f where f.character_id = c.id)";
+
+    private static final String SELECT_COUNTS_SQL =
+            "select id, favourite_count from character where favourite_count > 0";
+
+    private static final String SELECT_BY_USER_SQL =
+            "select user_id, character_id from user_favourite order by user_id, character_id";
+
+    private static final String FINGERPRINT_SQL = "select count(*), coalesce(sum(character_id), 0),"
+            + " coalesce(sum(mod(character_id * character_id, " + FINGERPRINT_MODULUS + ")), 0) from user_favourite";
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * Empfaengt eine Zeile aus {@code user_favourite}.
+     */
+    @FunctionalInterface
+    public interface FavouriteRowHandler {
+        void accept(long userId, long characterId);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FavouriteBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Fuegt Favoriten als Batch ein; bereits vorhandene werden nicht gesendet.
+     *
+     * @return IDs der tatsaechlich eingefuegten Charaktere
+     */
+    public List<Long> insertAll(long userId, List<Long> characterIds) {
+        Set<Long> existing = findExistingFavourites(userId, characterIds);
+        List<Long> missing = characterIds.stream().distinct().filter(id -> !existing.contains(id)).toList();
+        List<Object[]> rows = new ArrayList<>(missing.size());
+        for (Long characterId : missing) {
+            rows.add(new Object[]{userId, characterId, userId, characterId});
+        }
+        return changed(missing, jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+    }
+
+    /**
+     * Loescht Favoriten als Batch; nicht vorhandene werden nicht gesendet.
+     *
+     * @return IDs der tatsaechlich entfernten Charaktere
+     */
+    public List<Long> deleteAll(long userId, List<Long> characterIds) {
+        Set<Long> existing = findExistingFavourites(userId, characterIds);
+        List<Long> present = characterIds.stream().distinct().filter(existing::contains).toList();
+        List<Object[]> rows = new ArrayList<>(present.size());
+        for (Long characterId : present) {
+            rows.add(new Object[]{userId, characterId});
+        }
+        return changed(present, jdbcTemplate.batchUpdate(DELETE_SQL, rows));
+    }
+
+    /**
+     * Addiert die Differenzen als Batch auf {@code favourite_count}; unbekannte IDs werden ignoriert.
+     *
+     * @param deltas Charakter-ID auf Differenz (positiv oder negativ)
+     */
+    public void addToFavouriteCounts(Map<Long, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((characterId, delta) -> rows.add(new Object[]{delta, characterId}));
+        jdbcTemplate.batchUpdate(ADD_COUNT_SQL, rows);
+    }
+
+    /**
+     * Setzt {@code favourite_count} aller Charaktere auf die tatsaechliche Anzahl Zeilen in
+     * {@code user_favourite} (ein Statement).
+     */
+    public int reconcileFavouriteCounts() {
+        return jdbcTemplate.update(RECONCILE_COUNTS_SQL);
+    }
+
+    /**
+     * Liefert {@code favourite_count} aller Charaktere mit mindestens einem Favoriten.
+     */
+    public Map<Long, Long> findFavouriteCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(SELECT_COUNTS_SQL, rs -> {
+            counts.put(rs.getLong(1), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    /**
+     * Liest alle Favoriten nach Nutzer und Charakter sortiert, ohne sie im Speicher zu sammeln.
+     */
+    public void forEachFavouriteByUser(FavouriteRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_BY_USER_SQL);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            handler.accept(rs.getLong(1), rs.getLong(2));
+        });
+    }
+
+    /**
+     * Fingerabdruck von {@code user_favourite}: Anzahl Zeilen, Summe der Charakter-IDs und Summe
+     * ihrer Quadrate modulo {@link #FINGERPRINT_MODULUS}. Ein Aggregat ohne Join.
+     */
+    public long[] favouriteFingerprint() {
+        return jdbcTemplate.queryForObject(FINGERPRINT_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+    }
+
+    /**
+     * Liefert die IDs aus {@code characterIds}, die der Nutzer bereits favorisiert hat (ein Statement).
+     */
+    private Set<Long> findExistingFavourites(long userId, List<Long> characterIds) {
+        if (characterIds.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(characterIds.size(), "?"));
+        Object[] args = new Object[characterIds.size() + 1];
+        args[0] = userId;
+        for (int i = 0; i < characterIds.size(); i++) {
+            args[i + 1] = characterIds.get(i);
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING_SQL.formatted(placeholders), Long.class, args));
+    }
+
+    /**
+     * Die Vorab-Abfrage bestimmt die Aenderungen; eine bekannte Zeilenzahl von 0 bedeutet, dass
+     * ein anderer Schreiber zuvorgekommen ist. {@link Statement#SUCCESS_NO_INFO} widerspricht der
+     * Abfrage nicht.
+     */
+    private static List<Long> changed(List<Long> expected, int[] updateCounts) {
+        List<Long> changed = new ArrayList<>(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            if (updateCounts[i] != 0) {
+                changed.add(expected.get(i));
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,34 @@
+package com.wiss.dragonball.backend.repository;
+
+import com.wiss.dragonball.backend.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository fuer {@link RefreshToken}-Entitaeten. Die Rotation laeuft ueber ein bedingtes
+ * Update, damit ein Token auch bei parallelen Anfragen genau einmal eingeloest wird.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /** Markiert einen noch gueltigen Token als widerrufen; liefert 0, wenn er unbekannt oder bereits widerrufen ist. */
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true"
+            + " where r.tokenHash = :tokenHash and r.revoked = false and r.expiresAt > :now")
+    int revokeActive(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    /** Liefert die widerrufenen, aber noch nicht abgelaufenen Tokens fuer den Aufbau des Widerrufsfilters. */
+    @Query("select r from RefreshToken r where r.revoked = true and r.expiresAt > :now")
+    List<RefreshToken> findRevokedNotExpired(@Param("now") Instant now);
+
+    /** Entfernt abgelaufene Tokens. */
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
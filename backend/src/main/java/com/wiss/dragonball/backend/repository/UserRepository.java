@@ -1,8 +1,13 @@
 package com.wiss.dragonball.backend.repository;
 
 import com.wiss.dragonball.backend.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +23,60 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /** Liefert alle Nutzer, die den angegebenen Charakter als Favoriten gespeichert haben. */
     List<User> findAllByFavourites_Id(Long characterId);
+
+    /**
+     * Liefert eine Seite der Favoriten-IDs eines Nutzers in stabiler Reihenfolge (aufsteigende ID),
+     * beginnend nach {@code afterId}. Ein einziger Join ueber {@code user_favourite}, ohne Entities.
+     */
+    @Query("select c.id from User u join u.favourites c where u.username = :username and c.id > :afterId order by c.id")
+    List<Long> findFavouriteIds(@Param("username") String username, @Param("afterId") long afterId, Limit limit);
+
+    /** Liefert nur die ID eines Nutzers, ohne die Entity zu laden. */
+    @Query("select u.id from User u where u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /** Liefert nur die aktuelle Token-Generation eines Nutzers, ohne die Entity zu laden. */
+    @Query("select u.tokenGeneration from User u where u.username = :username")
+    Optional<Long> findTokenGenerationByUsername(@Param("username") String username);
+
+    /** Erhoeht die Token-Generation eines Nutzers und entwertet damit alle bisherigen Tokens. */
+    @Modifying
+    @Query("update User u set u.tokenGeneration = u.tokenGeneration + 1 where u.username = :username")
+    int incrementTokenGeneration(@Param("username") String username);
+
+    /**
+     * Fuegt einen Favoriten mit einem einzigen Statement direkt in {@code user_favourite} ein,
+     * ohne den Nutzer oder dessen Favoritenliste zu laden. Bestehende Eintraege bleiben
+     * unveraendert (idempotent); einen unbekannten Charakter meldet der Fremdschluessel.
+     *
+     * @return Anzahl eingefuegter Zeilen (0, wenn der Favorit bereits existiert)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into user_favourite (user_id, character_id)"
+            + " select u.id, :characterId from app_user u where u.username = :username"
+            + " and not exists (select 1 from user_favourite f"
+            + " where f.user_id = u.id and f.character_id = :characterId)", nativeQuery = true)
+    int insertFavourite(@Param("username") String username, @Param("characterId") Long characterId);
+
+    /**
+     * Entfernt einen Charakter aus den Favoriten aller Nutzer mit einem einzigen Statement,
+     * unabhaengig davon, wie viele Nutzer ihn gespeichert haben.
+     *
+     * @return Anzahl geloeschter Zeilen
+     */
+    @Modifying
+    @Query(value = "delete from user_favourite where character_id = :characterId", nativeQuery = true)
+    int deleteFavouritesByCharacterId(@Param("characterId") Long characterId);
+
+    /**
+     * Entfernt einen Favoriten mit einem einzigen Statement (idempotent).
+     *
+     * @return Anzahl geloeschter Zeilen (0, wenn der Favorit nicht existiert)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "delete from user_favourite where character_id = :characterId"
+            + " and user_id = (select u.id from app_user u where u.username = :username)", nativeQuery = true)
+    int deleteFavourite(@Param("username") String username, @Param("characterId") Long characterId);
 }
@@ -1,12 +1,15 @@
 package com.wiss.dragonball.backend.security;
 
 import com.wiss.dragonball.backend.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,21 +22,34 @@ import java.io.IOException;
  * JWT-Authentifizierungsfilter fuer die Dragonball-Anwendung.
  *
  * <p>Prueft bei jeder Anfrage das Bearer-Token im Authorization-Header,
- * validiert es ueber {@link JwtService} und laedt bei gueltigem Token den
- * Benutzer via {@link UserDetailsService}. Bei Erfolg wird der Nutzer im
+ * verifiziert es genau einmal ueber {@link JwtService#verifyToken(String)} und baut bei gueltigem Token
+ * den Benutzer samt Rollen direkt aus den Claims. Bei Erfolg wird der Nutzer im
  * {@link SecurityContextHolder} hinterlegt, damit Spring Security die Anfrage
  * als authentifiziert betrachtet.</p>
+ *
+ * <p>Widerruf und Rollenwechsel greifen ueber die Token-Generation im Claim {@code gen},
+ * die gegen die {@link TokenGenerationTable} geprueft wird. Mit
+ * {@code jwt.claims-auth.enabled=false} wird der Benutzer stattdessen wie frueher
+ * bei jeder Anfrage via {@link UserDetailsService} geladen.</p>
+ *
+ * <p>Refresh-Tokens (Claim {@code typ=refresh}) werden hier nie akzeptiert.</p>
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenGenerationTable tokenGenerations;
+    private final boolean claimsAuthentication;
 
     public JwtAuthenticationFilter(JwtService jwtService,
-                                   UserDetailsService userDetailsService) {
+                                   UserDetailsService userDetailsService,
+                                   TokenGenerationTable tokenGenerations,
+                                   @Value("${jwt.claims-auth.enabled:true}") boolean claimsAuthentication) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenGenerations = tokenGenerations;
+        this.claimsAuthentication = claimsAuthentication;
     }
 
     @Override
@@ -55,16 +71,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 3. JWT ohne Prefix extrahieren
         final String jwt = authHeader.substring(7);
 
-        // 4. Benutzername aus Token lesen
-        final String username = jwtService.extractUsername(jwt);
+        // 4. Token einmalig verifizieren (Signatur + Ablauf) und Benutzername aus den Claims lesen;
+        //    Refresh-Tokens gelten nur am Refresh-Endpunkt und nie als Bearer-Token
+        final Claims claims = jwtService.verifyToken(jwt);
+        final String username = claims != null && !JwtService.isRefreshToken(claims) ? claims.getSubject() : null;
 
-        // 5. Wenn Nutzer existiert und noch nicht authentifiziert ist
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // 6. UserDetails aus Datenbank laden
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // 5. Wenn Nutzer existiert, das Token nicht widerrufen ist und noch nicht authentifiziert wurde
+        if (username != null
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenGenerations.isCurrent(username, JwtService.extractGeneration(claims))) {
+            // 6. UserDetails direkt aus den Claims bauen oder (Fallback) aus der Datenbank laden
+            UserDetails userDetails = claimsAuthentication
+                    ? principalFromClaims(username, claims)
+                    : userDetailsService.loadUserByUsername(username);
 
-            // 7. Token validieren
-            if (jwtService.validateToken(jwt, userDetails)) {
+            // 7. Token gehoert zum Benutzer?
+            if (username.equals(userDetails.getUsername())) {
                 // 8. AuthenticationToken mit Authorities erzeugen
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
@@ -84,4 +106,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 11. Weiter zum naechsten Filter
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Baut den Principal ohne Datenbankzugriff aus den verifizierten Claims.
+     * Ein Passwort wird fuer JWT-Anfragen nicht benoetigt und bleibt leer.
+     */
+    private static UserDetails principalFromClaims(String username, Claims claims) {
+        return User.withUsername(username)
+                .password("")
+                .authorities(JwtService.extractAuthorities(claims))
+                .build();
+    }
 }
@@ -0,0 +1,68 @@
+package com.wiss.dragonball.backend.security;
+
+import com.wiss.dragonball.backend.exception.TooManyLoginAttemptsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drosselt Login- und Registrierungsversuche pro Benutzername und pro Client-IP.
+ *
+ * <p>Wird im {@link com.wiss.dragonball.backend.controller.AuthController} vor jeder
+ * BCrypt-Berechnung aufgerufen, damit Credential-Stuffing keine CPU verbrennt. Beide
+ * Schluessel haben einen eigenen Token-Bucket; ist einer leer, wird mit 429 abgewiesen.
+ * Die Grenzwerte stehen unter {@code security.login-rate-limit.*} in den
+ * application.properties.</p>
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byUsername;
+    private final TokenBucketLimiter byAddress;
+
+    public LoginRateLimiter(
+            @Value("${security.login-rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.login-rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${security.login-rate-limit.username.refill-per-minute:5}") double usernameRefillPerMinute,
+            @Value("${security.login-rate-limit.ip.capacity:20}") int addressCapacity,
+            @Value("${security.login-rate-limit.ip.refill-per-minute:20}") double addressRefillPerMinute,
+            @Value("${security.login-rate-limit.max-entries:100000}") int maxEntries,
+            @Value("${security.login-rate-limit.idle-timeout-seconds:900}") long idleTimeoutSeconds) {
+        this.enabled = enabled;
+        this.byUsername = limiter(usernameCapacity, usernameRefillPerMinute, maxEntries, idleTimeoutSeconds);
+        this.byAddress = limiter(addressCapacity, addressRefillPerMinute, maxEntries, idleTimeoutSeconds);
+    }
+
+    /**
+     * Verbraucht je einen Versuch fuer Benutzername und Client-Adresse.
+     *
+     * @param username      angegebener Benutzername (Gross-/Kleinschreibung egal)
+     * @param remoteAddress IP-Adresse des Clients
+     * @throws TooManyLoginAttemptsException wenn eines der Limits erschoepft ist
+     */
+    public void acquire(String username, String remoteAddress) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = Math.max(
+                byAddress.tryAcquire(remoteAddress == null ? "" : remoteAddress),
+                byUsername.tryAcquire(username == null ? "" : username.trim().toLowerCase(Locale.ROOT)));
+        if (waitNanos > 0) {
+            long seconds = waitNanos == Long.MAX_VALUE ? 60 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            throw new TooManyLoginAttemptsException(seconds);
+        }
+    }
+
+    private static TokenBucketLimiter limiter(int capacity, double refillPerMinute, int maxEntries, long idleTimeoutSeconds) {
+        // Ein Eintrag darf erst verworfen werden, wenn er ohnehin wieder voll waere;
+        // sonst koennte man das Limit durch Abwarten des Idle-Timeouts umgehen.
+        long refillNanos = refillPerMinute > 0
+                ? (long) Math.ceil(capacity / refillPerMinute * TimeUnit.MINUTES.toNanos(1))
+                : Long.MAX_VALUE;
+        long idleNanos = Math.max(TimeUnit.SECONDS.toNanos(idleTimeoutSeconds), refillNanos);
+        return new TokenBucketLimiter(capacity, refillPerMinute, maxEntries, idleNanos, System::nanoTime);
+    }
+}
@@ -0,0 +1,111 @@
+package com.wiss.dragonball.backend.security;
+
+import com.wiss.dragonball.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Prueft Benutzername und Passwort asynchron, ohne dass der {@link PasswordHashingExecutor}
+ * auf die Datenbank wartet.
+ *
+ * <p>Entspricht dem {@code DaoAuthenticationProvider}, aufgeteilt nach Ressource: Der Nutzer
+ * wird auf dem allgemeinen Task-Executor geladen, nur {@code matches} und ein allfaelliges
+ * Neu-Hashen mit aktuellen Kosten laufen auf dem Hash-Pool, das Speichern des neuen Hashes
+ * wieder auf dem Task-Executor. Fuer unbekannte Nutzer wird gegen einen Dummy-Hash geprueft,
+ * damit die Antwortzeit nicht verraet, ob es den Namen gibt.</p>
+ */
+@Component
+public class PasswordAuthenticator {
+
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashing;
+    private final Executor databaseWork;
+    private final AccountStatusUserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+    private volatile String userNotFoundHash;
+
+    public PasswordAuthenticator(UserService userService,
+                                 PasswordEncoder passwordEncoder,
+                                 PasswordHashingExecutor passwordHashing,
+                                 @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                 Executor databaseWork) {
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.databaseWork = databaseWork;
+    }
+
+    /**
+     * Prueft die Zugangsdaten.
+     *
+     * @return Future mit dem authentifizierten Nutzer; schlaegt mit {@link BadCredentialsException}
+     * fehl, wenn Name oder Passwort nicht stimmen, bzw. mit
+     * {@link com.wiss.dragonball.backend.exception.PasswordHashingBusyException}, wenn der Hash-Pool voll ist
+     */
+    public CompletableFuture<UserDetails> authenticate(String username, String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> loadUserOrNull(username), databaseWork)
+                .thenCompose(user -> passwordHashing.submit(() -> verify(user, rawPassword)))
+                .thenApplyAsync(this::complete, databaseWork);
+    }
+
+    private UserDetails loadUserOrNull(String username) {
+        try {
+            return userService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Laeuft auf dem Hash-Pool: reine CPU-Arbeit, kein Datenbankzugriff.
+     */
+    private Verification verify(UserDetails user, String rawPassword) {
+        if (user == null) {
+            passwordEncoder.matches(rawPassword == null ? "" : rawPassword, userNotFoundHash());
+            return new Verification(null, false, null);
+        }
+        String storedHash = user.getPassword();
+        if (rawPassword == null || !passwordEncoder.matches(rawPassword, storedHash)) {
+            return new Verification(user, false, null);
+        }
+        String upgradedHash = passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(rawPassword) : null;
+        return new Verification(user, true, upgradedHash);
+    }
+
+    private UserDetails complete(Verification verification) {
+        if (!verification.matches()) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        UserDetails user = verification.user();
+        accountStatusChecker.check(user);
+        if (verification.upgradedHash() != null) {
+            // Rehash-on-Login wie beim DaoAuthenticationProvider
+            user = userService.updatePassword(user, verification.upgradedHash());
+        }
+        return user;
+    }
+
+    private String userNotFoundHash() {
+        String hash = userNotFoundHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+            userNotFoundHash = hash;
+        }
+        return hash;
+    }
+
+    private record Verification(UserDetails user, boolean matches, String upgradedHash) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.wiss.dragonball.backend.security;
+
+import com.wiss.dragonball.backend.dto.PasswordHashingStatsDTO;
+import com.wiss.dragonball.backend.exception.PasswordHashingBusyException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Eigener, begrenzter Thread-Pool fuer BCrypt (Login und Registrierung).
+ *
+ * <p>Ein BCrypt-Hash mit Kosten 12 braucht rund 250 ms CPU. Damit ein Login-Ansturm nicht
+ * alle Tomcat-Threads und CPU-Kerne belegt, laufen Hashing und Passwortpruefung hier auf
+ * wenigen Threads mit begrenzter Warteschlange. Ist die Warteschlange voll, wird sofort
+ * eine {@link PasswordHashingBusyException} (HTTP 503) ausgeloest.</p>
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long retryAfterSeconds;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashingExecutor(
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        // 0 = halb so viele Threads wie Kerne, damit Lesezugriffe immer CPU uebrig haben
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queueCapacity = queueCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Fuehrt eine Aufgabe mit Passwort-Hashing auf dem Pool aus.
+     *
+     * @param task Aufgabe, z.B. {@code passwordEncoder.matches(..)}
+     * @return Future mit dem Ergebnis der Aufgabe
+     * @throws PasswordHashingBusyException wenn die Warteschlange voll ist
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - enqueuedAt);
+                try {
+                    return task.get();
+                } finally {
+                    long duration = System.nanoTime() - startedAt;
+                    hashNanos.add(duration);
+                    maxHashNanos.accumulate(duration);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Liefert Warteschlangenlaenge, Ablehnungen und Latenzen des Pools.
+     */
+    public PasswordHashingStatsDTO stats() {
+        long completed = executor.getCompletedTaskCount();
+        return new PasswordHashingStatsDTO(
+                executor.getCorePoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                completed,
+                rejected.sum(),
+                completed == 0 ? 0 : toMillis(hashNanos.sum()) / completed,
+                toMillis(maxHashNanos.get()),
+                completed == 0 ? 0 : toMillis(queueWaitNanos.sum()) / completed);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
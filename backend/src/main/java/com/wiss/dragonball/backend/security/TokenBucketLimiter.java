@@ -0,0 +1,137 @@
+package com.wiss.dragonball.backend.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-Bucket-Limiter pro Schluessel mit Lock-Striping und begrenztem Speicher.
+ *
+ * <p>Die Schluessel werden per Hash auf eine feste Anzahl Stripes verteilt; jeder Stripe hat
+ * sein eigenes Lock und eine LRU-Map. Parallele Anfragen fuer verschiedene Schluessel blockieren
+ * sich daher kaum. Pro Stripe gilt eine Obergrenze, darueber wird der am laengsten unbenutzte
+ * Eintrag verdraengt. Eintraege, die laenger als {@code idleTimeout} nicht benutzt wurden, sind
+ * ohnehin wieder voll aufgefuellt und werden beim naechsten Zugriff auf den Stripe entfernt.</p>
+ */
+final class TokenBucketLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param capacity          maximale Anzahl Versuche am Stueck (Burst)
+     * @param refillPerMinute   nachgefuellte Versuche pro Minute
+     * @param maxEntries        maximale Anzahl gemerkter Schluessel
+     * @param idleTimeoutNanos  Zeit ohne Zugriff, nach der ein Eintrag verworfen wird
+     * @param nanoClock         Zeitquelle (in Tests austauschbar)
+     */
+    TokenBucketLimiter(int capacity, double refillPerMinute, int maxEntries,
+                       long idleTimeoutNanos, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.nanoClock = nanoClock;
+        int perStripe = Math.max(1, maxEntries / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Versucht, einen Token fuer den Schluessel zu verbrauchen.
+     *
+     * @return {@code 0}, wenn der Versuch erlaubt ist, sonst die Wartezeit in Nanosekunden
+     *         bis zum naechsten verfuegbaren Token
+     */
+    long tryAcquire(String key) {
+        Stripe stripe = stripes[stripeIndex(key)];
+        long now = nanoClock.getAsLong();
+        stripe.lock.lock();
+        try {
+            stripe.evictIdle(now, idleTimeoutNanos);
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                double refilled = bucket.tokens + (now - bucket.updatedAt) * tokensPerNano;
+                bucket.tokens = Math.min(capacity, refilled);
+                bucket.updatedAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            if (tokensPerNano <= 0) {
+                return Long.MAX_VALUE;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static int stripeIndex(String key) {
+        // Hoehere Bits einmischen, damit aehnliche Schluessel (z.B. IPs) nicht im selben Stripe landen
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Anzahl aktuell gemerkter Schluessel (ueber alle Stripes).
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Bucket> buckets;
+
+        private Stripe(int maxEntries) {
+            // Zugriffsreihenfolge: der aelteste Eintrag ist der am laengsten unbenutzte
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private void evictIdle(long now, long idleTimeoutNanos) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().updatedAt < idleTimeoutNanos) {
+                    return;
+                }
+                iterator.remove();
+            }
+        }
+    }
+}
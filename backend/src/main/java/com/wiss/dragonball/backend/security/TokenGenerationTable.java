@@ -0,0 +1,85 @@
+package com.wiss.dragonball.backend.security;
+
+import com.wiss.dragonball.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-Memory-Tabelle der aktuellen Token-Generation pro Benutzer.
+ *
+ * <p>Ein JWT ist nur gueltig, solange sein {@code gen}-Claim der hier hinterlegten
+ * Generation entspricht. Eintraege werden beim ersten Zugriff einmalig aus der Datenbank
+ * gelesen und nach jeder Aenderung (Widerruf, Rollenwechsel) ueber {@link #refresh(String)}
+ * neu geladen. Der erste Zugriff laedt ausserhalb der Map und legt das Ergebnis nur per
+ * {@code putIfAbsent} ab, damit keine DB-Abfrage einen Bin-Lock haelt und ein paralleles
+ * Auffrischen nicht mit einem veralteten Wert ueberschrieben wird. Unbekannte Benutzer werden
+ * fuer {@code jwt.unknown-user-cache-ms} als Platzhalter gemerkt, damit Tokens geloeschter
+ * Benutzer nicht bei jeder Anfrage die Datenbank treffen.</p>
+ */
+@Component
+public class TokenGenerationTable {
+
+    /**
+     * Generation eines Benutzers; {@code value == null} steht fuer einen unbekannten Benutzer,
+     * der nur bis {@code expiresAtNanos} gemerkt wird.
+     */
+    private record Generation(Long value, long expiresAtNanos) {
+    }
+
+    private final UserRepository userRepository;
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+    private final long unknownUserTtlNanos;
+
+    public TokenGenerationTable(UserRepository userRepository,
+                                @Value("${jwt.unknown-user-cache-ms:30000}") long unknownUserTtlMs) {
+        this.userRepository = userRepository;
+        this.unknownUserTtlNanos = unknownUserTtlMs * 1_000_000L;
+    }
+
+    /**
+     * Prueft, ob die Token-Generation eines Tokens noch aktuell ist.
+     *
+     * @param username   Benutzername aus dem Token
+     * @param generation {@code gen}-Claim des Tokens
+     * @return {@code true}, wenn der Benutzer existiert und die Generation uebereinstimmt
+     */
+    public boolean isCurrent(String username, long generation) {
+        Long current = current(username);
+        return current != null && current == generation;
+    }
+
+    /**
+     * Liefert die aktuelle Generation oder {@code null}, falls der Benutzer nicht existiert.
+     */
+    public Long current(String username) {
+        long now = System.nanoTime();
+        Generation cached = generations.get(username);
+        if (cached != null && (cached.value() != null || cached.expiresAtNanos() - now > 0)) {
+            return cached.value();
+        }
+        Generation loaded = load(username, now);
+        if (cached == null) {
+            Generation raced = generations.putIfAbsent(username, loaded);
+            return raced != null ? raced.value() : loaded.value();
+        }
+        // Abgelaufener Platzhalter: nur ersetzen, wenn ihn nicht schon jemand aufgefrischt hat
+        return generations.replace(username, cached, loaded) ? loaded.value() : current(username);
+    }
+
+    /**
+     * Liest die Generation eines Benutzers nach einer Aenderung neu aus der Datenbank.
+     * Laeuft pro Benutzer atomar, damit sich zwei Auffrischungen nicht ueberholen.
+     */
+    public void refresh(String username) {
+        generations.compute(username, (key, previous) -> load(key, System.nanoTime()));
+    }
+
+    private Generation load(String username, long now) {
+        return userRepository.findTokenGenerationByUsername(username)
+                .map(value -> new Generation(value, Long.MAX_VALUE))
+                .orElseGet(() -> new Generation(null, now + unknownUserTtlNanos));
+    }
+}
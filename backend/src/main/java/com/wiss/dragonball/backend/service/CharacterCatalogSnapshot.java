@@ -0,0 +1,144 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.dto.CharacterDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unveraenderlicher, versionierter Stand des gesamten Charakter-Katalogs.
+ * <p>
+ * Wird vom {@link CharacterService} in einer {@code AtomicReference} gehalten und bei
+ * Schreiboperationen per Copy-on-Write ersetzt, damit Lesezugriffe weder die Datenbank
+ * noch einen Lock benoetigen. Ein Snapshot ist entweder geladen oder ein Platzhalter,
+ * der nur die aktuelle Version traegt, bis der Katalog das erste Mal gelesen wird.
+ * </p>
+ */
+final class CharacterCatalogSnapshot {
+
+    private final long version;
+    private final boolean loaded;
+    private final Map<Long, CharacterDTO> byId;
+    private final Map<String, CharacterDTO> byName;
+    private final List<CharacterDTO> characters;
+
+    /**
+     * Version pro Charakter: Katalogversion, in der der Charakter zuletzt geaendert wurde.
+     */
+    private final Map<Long, Long> characterVersions;
+
+    private CharacterCatalogSnapshot(long version, boolean loaded, List<CharacterDTO> characters,
+                                     Map<Long, Long> characterVersions) {
+        this.version = version;
+        this.loaded = loaded;
+        this.characters = Collections.unmodifiableList(characters);
+        this.characterVersions = characterVersions;
+        Map<Long, CharacterDTO> index = new HashMap<>();
+        Map<String, CharacterDTO> nameIndex = new HashMap<>();
+        for (CharacterDTO dto : characters) {
+            if (dto.getId() != null) {
+                index.put(dto.getId(), dto);
+            }
+            if (dto.getName() != null) {
+                nameIndex.putIfAbsent(dto.getName(), dto);
+            }
+        }
+        this.byId = index;
+        this.byName = nameIndex;
+    }
+
+    /**
+     * Platzhalter fuer einen noch nicht geladenen Katalog.
+     */
+    static CharacterCatalogSnapshot unloaded(long version) {
+        return new CharacterCatalogSnapshot(version, false, new ArrayList<>(), Collections.emptyMap());
+    }
+
+    /**
+     * Erstellt einen geladenen Snapshot aus den uebergebenen DTOs (Reihenfolge bleibt erhalten).
+     */
+    static CharacterCatalogSnapshot of(long version, List<CharacterDTO> dtos) {
+        List<CharacterDTO> frozen = new ArrayList<>(dtos.size());
+        Map<Long, Long> versions = new HashMap<>();
+        for (CharacterDTO dto : dtos) {
+            frozen.add(freeze(dto));
+            if (dto.getId() != null) {
+                versions.put(dto.getId(), version);
+            }
+        }
+        return new CharacterCatalogSnapshot(version, true, frozen, versions);
+    }
+
+    long getVersion() { return version; }
+
+    boolean isLoaded() { return loaded; }
+
+    List<CharacterDTO> getCharacters() { return characters; }
+
+    CharacterDTO get(Long id) { return byId.get(id); }
+
+    CharacterDTO getByName(String name) { return byName.get(name); }
+
+    /**
+     * Liefert die Version des Charakters oder {@code null}, wenn er nicht im Katalog ist.
+     */
+    Long getCharacterVersion(Long id) { return characterVersions.get(id); }
+
+    /**
+     * Liefert einen neuen Snapshot, in dem der Charakter eingefuegt oder ersetzt wurde.
+     * Die Operation ist idempotent, damit sie nach einem Commit gefahrlos wiederholt werden kann.
+     */
+    CharacterCatalogSnapshot withUpserted(CharacterDTO dto) {
+        if (!loaded) {
+            return unloaded(version + 1);
+        }
+        List<CharacterDTO> copy = new ArrayList<>(characters);
+        int index = indexOf(dto.getId());
+        if (index >= 0) {
+            copy.set(index, freeze(dto));
+        } else {
+            copy.add(freeze(dto));
+        }
+        Map<Long, Long> versions = new HashMap<>(characterVersions);
+        versions.put(dto.getId(), version + 1);
+        return new CharacterCatalogSnapshot(version + 1, true, copy, versions);
+    }
+
+    /**
+     * Liefert einen neuen Snapshot ohne den Charakter mit der angegebenen ID.
+     */
+    CharacterCatalogSnapshot withRemoved(Long id) {
+        if (!loaded) {
+            return unloaded(version + 1);
+        }
+        List<CharacterDTO> copy = new ArrayList<>(characters);
+        int index = indexOf(id);
+        if (index >= 0) {
+            copy.remove(index);
+        }
+        Map<Long, Long> versions = new HashMap<>(characterVersions);
+        versions.remove(id);
+        return new CharacterCatalogSnapshot(version + 1, true, copy, versions);
+    }
+
+    private int indexOf(Long id) {
+        CharacterDTO existing = id != null ? byId.get(id) : null;
+        return existing != null ? characters.indexOf(existing) : -1;
+    }
+
+    /**
+     * Kopiert das DTO und loest die Transformationen von der Hibernate-Collection,
+     * damit der Snapshot unabhaengig von der Session serialisiert werden kann.
+     */
+    private static CharacterDTO freeze(CharacterDTO dto) {
+        return new CharacterDTO(
+                dto.getId(), dto.getName(), dto.getKi(), dto.getMaxKi(), dto.getRace(),
+                dto.getGender(), dto.getDescription(), dto.getImage(), dto.getAffiliation(),
+                dto.getPowerLevel(), dto.getUniverse(), dto.isVillain(),
+                Collections.unmodifiableList(new ArrayList<>(dto.getTransformations())),
+                dto.getImageUrl());
+    }
+}
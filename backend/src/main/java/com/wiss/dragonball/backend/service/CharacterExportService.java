@@ -0,0 +1,104 @@
+package com.wiss.dragonball.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.mapper.CharacterMapper;
+import com.wiss.dragonball.backend.repository.CharacterRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service fuer den Export des gesamten Charakter-Katalogs als Datenstrom.
+ * <p>
+ * Liest die Tabelle ueber einen Vorwaerts-Cursor in Bloecken von {@value #CHUNK_SIZE} Zeilen,
+ * laedt die Transformationen pro Block gebuendelt nach, schreibt die Zeilen direkt in den
+ * Ausgabestrom und leert danach den Persistence Context. Der Speicherbedarf bleibt damit
+ * unabhaengig von der Anzahl Zeilen konstant.
+ * </p>
+ */
+@Service
+public class CharacterExportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    /**
+     * Unterstuetzte Exportformate.
+     */
+    public enum Format {
+        /** Ein JSON-Objekt pro Zeile (application/x-ndjson). */
+        NDJSON,
+        /** Ein JSON-Array, das stueckweise geschrieben wird. */
+        JSON
+    }
+
+    private final CharacterRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public CharacterExportService(CharacterRepository repository,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Schreibt alle Charaktere im gewuenschten Format in den Ausgabestrom.
+     *
+     * @param out    Ziel (z.B. der Response-Body); wird nicht geschlossen
+     * @param format NDJSON oder JSON-Array
+     * @return Anzahl exportierter Charaktere
+     */
+    @Transactional(readOnly = true)
+    public long exportAll(OutputStream out, Format format) throws IOException {
+        long count = 0;
+        try (Stream<Character> stream = repository.streamAllByOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+
+            Iterator<Character> iterator = stream.iterator();
+            List<Character> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    count += writeChunk(generator, chunk, format);
+                    chunk.clear();
+                    // Geschriebene Entitaeten freigeben, damit der Persistence Context nicht waechst
+                    entityManager.clear();
+                }
+            }
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        }
+        return count;
+    }
+
+    private int writeChunk(JsonGenerator generator, List<Character> chunk, Format format) throws IOException {
+        for (Character character : chunk) {
+            // Der erste Zugriff laedt die Transformationen des ganzen Blocks per @BatchSize
+            generator.writeObject(CharacterMapper.toDTO(character));
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+        }
+        generator.flush();
+        return chunk.size();
+    }
+}
@@ -0,0 +1,185 @@
+package com.wiss.dragonball.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiss.dragonball.backend.dto.CharacterDTO;
+import com.wiss.dragonball.backend.dto.CharacterImportErrorDTO;
+import com.wiss.dragonball.backend.dto.CharacterImportResultDTO;
+import com.wiss.dragonball.backend.exception.InvalidCharacterDataException;
+import com.wiss.dragonball.backend.mapper.CharacterMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service fuer den Massenimport von Charakteren aus einem Datenstrom.
+ * <p>
+ * Liest ein JSON-Array oder NDJSON Datensatz fuer Datensatz, prueft jeden mit denselben Regeln
+ * wie {@link CharacterService#createCharacter(CharacterDTO)} und speichert die gueltigen in
+ * Bloecken von {@value #CHUNK_SIZE} Charakteren mit je eigener Transaktion. Dank Sequenz-IDs
+ * sendet Hibernate die Inserts fuer {@code character} und {@code character_transformations}
+ * als JDBC-Batches; nach jedem Block wird der Persistence Context geleert, der Speicherbedarf
+ * bleibt also unabhaengig von der Groesse des Imports.
+ * </p>
+ * <p>
+ * Scheitert ein Block in der Datenbank, wird er zurueckgerollt und Charakter fuer Charakter
+ * wiederholt, damit nur die fehlerhaften Datensaetze im Bericht landen. Ein Syntaxfehler im
+ * Datenstrom beendet den Import; bereits gespeicherte Bloecke bleiben erhalten.
+ * </p>
+ */
+@Service
+public class CharacterImportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final CharacterService characterService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public CharacterImportService(CharacterService characterService,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.characterService = characterService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Jeder Block committet fuer sich, auch wenn der Aufrufer schon eine Transaktion hat
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Importiert alle Charaktere aus dem Datenstrom.
+     *
+     * @param in JSON-Array von {@link CharacterDTO} oder ein DTO pro Zeile (NDJSON); wird nicht geschlossen
+     * @return Anzahl gespeicherter Charaktere und ein Fehler pro abgelehntem Datensatz
+     */
+    public CharacterImportResultDTO importCharacters(InputStream in) throws IOException {
+        List<CharacterImportErrorDTO> errors = new ArrayList<>();
+        List<PendingRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        long imported = 0;
+        long record = 0;
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken token = nextToken(parser, record + 1, errors);
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = nextToken(parser, record + 1, errors);
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                record++;
+                JsonNode node;
+                try {
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    errors.add(new CharacterImportErrorDTO(record, null, "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                }
+                PendingRecord pending = toPendingRecord(record, node, errors);
+                if (pending != null) {
+                    chunk.add(pending);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        imported += store(chunk, errors);
+                        chunk.clear();
+                    }
+                }
+                token = nextToken(parser, record + 1, errors);
+            }
+            imported += store(chunk, errors);
+        } finally {
+            if (imported > 0) {
+                characterService.invalidateCatalog();
+            }
+        }
+        // Fehler aus wiederholten Bloecken kommen nach denen der Validierung; nach Position ordnen
+        errors.sort(Comparator.comparingLong(CharacterImportErrorDTO::getRecord));
+        return new CharacterImportResultDTO(imported, errors);
+    }
+
+    /**
+     * Liest das naechste Token; ein Syntaxfehler wird dem folgenden Datensatz zugeordnet und beendet den Import.
+     */
+    private static JsonToken nextToken(JsonParser parser, long record, List<CharacterImportErrorDTO> errors)
+            throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            errors.add(new CharacterImportErrorDTO(record, null, "Malformed JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Bindet und prueft einen Datensatz; ungueltige landen direkt im Fehlerbericht.
+     */
+    private PendingRecord toPendingRecord(long record, JsonNode node, List<CharacterImportErrorDTO> errors) {
+        JsonNode name = node.get("name");
+        String nameText = name != null && name.isTextual() ? name.asText() : null;
+        try {
+            CharacterDTO dto = objectMapper.treeToValue(node, CharacterDTO.class);
+            if (dto == null) {
+                throw new InvalidCharacterDataException("Record must be a JSON object");
+            }
+            CharacterService.validateCharacterData(dto);
+            return new PendingRecord(record, dto);
+        } catch (JsonProcessingException e) {
+            errors.add(new CharacterImportErrorDTO(record, nameText, "Invalid record: " + e.getOriginalMessage()));
+        } catch (InvalidCharacterDataException e) {
+            errors.add(new CharacterImportErrorDTO(record, nameText, e.getMessage()));
+        }
+        return null;
+    }
+
+    /**
+     * Speichert einen Block in einer Transaktion; schlaegt sie fehl, wird jeder Datensatz einzeln wiederholt.
+     *
+     * @return Anzahl gespeicherter Charaktere
+     */
+    private int store(List<PendingRecord> chunk, List<CharacterImportErrorDTO> errors) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            persist(chunk);
+            return chunk.size();
+        } catch (RuntimeException e) {
+            int stored = 0;
+            for (PendingRecord pending : chunk) {
+                try {
+                    persist(List.of(pending));
+                    stored++;
+                } catch (RuntimeException single) {
+                    errors.add(new CharacterImportErrorDTO(pending.record(), pending.dto().getName(),
+                            NestedExceptionUtils.getMostSpecificCause(single).getMessage()));
+                }
+            }
+            return stored;
+        }
+    }
+
+    private void persist(List<PendingRecord> records) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Immer frische Entitaeten, damit ein Wiederholungsversuch keine IDs des gescheiterten Blocks erbt
+            for (PendingRecord pending : records) {
+                entityManager.persist(CharacterMapper.toEntity(pending.dto()));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private record PendingRecord(long record, CharacterDTO dto) {}
+}
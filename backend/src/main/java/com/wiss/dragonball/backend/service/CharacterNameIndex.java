@@ -0,0 +1,171 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.dto.CharacterDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-Memory N-Gramm-Index ueber die Charakternamen fuer die Typeahead-Suche.
+ * <p>
+ * Jeder Name wird in Kleinbuchstaben zerlegt und unter allen Teilstrings der Laenge 1 bis 3
+ * abgelegt. Eine Suche holt die kleinste Trefferliste eines N-Gramms der Anfrage und prueft
+ * die Kandidaten anschliessend gegen den vollstaendigen Namen, sodass nur echte Substring-Treffer
+ * zurueckkommen. Aenderungen erfolgen inkrementell und ausschliesslich unter dem Schreib-Lock
+ * des {@link CharacterService}; Lesezugriffe sind lock-frei.
+ * </p>
+ */
+final class CharacterNameIndex {
+
+    private static final int MAX_GRAM = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Baut den Index aus dem uebergebenen Katalog komplett neu auf.
+     */
+    void rebuild(Collection<CharacterDTO> characters) {
+        postings.clear();
+        names.clear();
+        for (CharacterDTO dto : characters) {
+            put(dto);
+        }
+    }
+
+    /**
+     * Fuegt einen Charakter hinzu oder ersetzt dessen bisherigen Namen.
+     */
+    void put(CharacterDTO dto) {
+        if (dto.getId() == null) {
+            return;
+        }
+        remove(dto.getId());
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return;
+        }
+        String name = normalize(dto.getName());
+        names.put(dto.getId(), name);
+        for (String gram : grams(name)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(dto.getId());
+        }
+    }
+
+    /**
+     * Entfernt einen Charakter aus dem Index.
+     */
+    void remove(Long id) {
+        String previous = names.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Sucht Charaktere, deren Name den Suchbegriff enthaelt, und liefert deren IDs nach Relevanz:
+     * exakter Treffer, Namensanfang, Wortanfang, sonstiger Substring; danach frueheste Trefferposition
+     * und kuerzester Name.
+     *
+     * @param query Suchbegriff (Gross-/Kleinschreibung egal)
+     * @param limit maximale Anzahl Treffer
+     * @return IDs der besten Treffer in absteigender Relevanz
+     */
+    List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        Set<Long> candidates = smallestPosting(q);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Comparator<Match> byRelevance = Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::position)
+                .thenComparingInt(m -> m.name().length())
+                .thenComparing(Match::name)
+                .thenComparing(Match::id);
+        // Max-Heap der Groesse limit: das schlechteste Element steht oben und wird verdraengt
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, byRelevance.reversed());
+        for (Long id : candidates) {
+            String name = names.get(id);
+            int position = name != null ? name.indexOf(q) : -1;
+            if (position < 0) {
+                continue;
+            }
+            best.add(new Match(id, name, rank(name, q, position), position));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Match> ordered = new ArrayList<>(best);
+        ordered.sort(byRelevance);
+        List<Long> ids = new ArrayList<>(ordered.size());
+        for (Match match : ordered) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+
+    private Set<Long> smallestPosting(String q) {
+        if (q.length() <= MAX_GRAM) {
+            Set<Long> ids = postings.get(q);
+            return ids != null ? ids : Set.of();
+        }
+        Set<Long> smallest = null;
+        for (int i = 0; i + MAX_GRAM <= q.length(); i++) {
+            Set<Long> ids = postings.get(q.substring(i, i + MAX_GRAM));
+            if (ids == null) {
+                return Set.of();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return smallest;
+    }
+
+    private static int rank(String name, String q, int position) {
+        if (name.equals(q)) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        char before = name.charAt(position - 1);
+        return (before == ' ' || before == '-') ? 2 : 3;
+    }
+
+    private static Set<String> grams(String name) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int i = 0; i + length <= name.length(); i++) {
+                grams.add(name.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Match(Long id, String name, int rank, int position) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.exception.InvalidPageRequestException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kodiert und dekodiert die undurchsichtigen Cursor der Keyset-Pagination.
+ * <p>
+ * Ein Cursor enthaelt die Sortierung sowie die Sortierschluessel des letzten Elements
+ * der Vorseite ({@code (powerLevel, id)} bzw. {@code (name, id)}) und wird Base64-URL-kodiert
+ * an den Client gegeben.
+ * </p>
+ */
+final class CharacterPageCursor {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    /** Sortierschluessel fuer reine ID-Seiten. */
+    static final String ID_SORT = "id";
+    private static final String ID_TAG = "i";
+
+    /**
+     * Unterstuetzte Sortierungen. Die ID dient jeweils als eindeutiger Tiebreaker.
+     */
+    enum SortKey {
+        POWER_LEVEL("powerLevel", "p", Sort.by(Sort.Order.desc("powerLevel"), Sort.Order.desc("id"))),
+        NAME("name", "n", Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id")));
+
+        private final String parameter;
+        private final String tag;
+        private final Sort sort;
+
+        SortKey(String parameter, String tag, Sort sort) {
+            this.parameter = parameter;
+            this.tag = tag;
+            this.sort = sort;
+        }
+
+        String parameter() { return parameter; }
+
+        Sort sort() { return sort; }
+
+        static SortKey fromParameter(String value) {
+            if (value == null || value.isBlank()) {
+                return POWER_LEVEL;
+            }
+            for (SortKey key : values()) {
+                if (key.parameter.equalsIgnoreCase(value)) {
+                    return key;
+                }
+            }
+            throw new InvalidPageRequestException("Unsupported sort '" + value + "', use 'powerLevel' or 'name'");
+        }
+    }
+
+    private CharacterPageCursor() {
+    }
+
+    /**
+     * Prueft die Seitengroesse und setzt bei fehlender Angabe den Standardwert.
+     */
+    static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * Erstellt den Cursor, der auf das uebergebene letzte Element einer Seite zeigt.
+     */
+    static String encode(SortKey sortKey, Character last) {
+        String key = sortKey == SortKey.POWER_LEVEL
+                ? Long.toString(last.getPowerLevel())
+                : last.getName();
+        String raw = sortKey.tag + ":" + last.getId() + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Erstellt einen Cursor fuer Seiten, die nur nach ID sortiert sind (z.B. Favoriten).
+     */
+    static String encodeAfterId(long lastId) {
+        String raw = ID_TAG + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Liest die letzte ID der Vorseite aus einem Cursor von {@link #encodeAfterId(long)};
+     * ohne Cursor beginnt die erste Seite (0).
+     */
+    static long decodeAfterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2 || !parts[0].equals(ID_TAG)) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+            return Long.parseLong(parts[1]);
+        } catch (IllegalArgumentException e) {
+            // umfasst NumberFormatException und ungueltiges Base64
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Wandelt einen Cursor in eine Keyset-Position um; ohne Cursor beginnt die erste Seite.
+     */
+    static ScrollPosition decode(SortKey sortKey, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+        String[] parts = raw.split(":", 3);
+        if (parts.length != 3 || !parts[0].equals(sortKey.tag)) {
+            throw new InvalidPageRequestException("Cursor does not match sort '" + sortKey.parameter + "'");
+        }
+        try {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortKey.parameter, sortKey == SortKey.POWER_LEVEL ? Long.parseLong(parts[2]) : parts[2]);
+            keys.put("id", Long.parseLong(parts[1]));
+            return ScrollPosition.forward(keys);
+        } catch (NumberFormatException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.dto.CharacterDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sortierter In-Memory-Index ueber das Power Level fuer Ranglisten.
+ * <p>
+ * Haelt zwei parallele primitive Arrays, aufsteigend sortiert nach {@code (powerLevel, id)}.
+ * Top-K, Bereichsabfragen und Rang eines Charakters werden per Binaersuche in O(log n)
+ * (plus Anzahl gelieferter Treffer) beantwortet. Aenderungen erzeugen unter dem Schreib-Lock
+ * des {@link CharacterService} neue Arrays (Copy-on-Write), Leser sehen immer einen konsistenten Stand.
+ * </p>
+ */
+final class CharacterPowerIndex {
+
+    private record State(long[] powers, long[] ids, Map<Long, Long> powerById) {
+    }
+
+    private volatile State state = new State(new long[0], new long[0], Map.of());
+
+    /**
+     * Baut den Index aus dem uebergebenen Katalog neu auf.
+     */
+    void rebuild(Collection<CharacterDTO> characters) {
+        long[][] pairs = characters.stream()
+                .filter(dto -> dto.getId() != null)
+                .map(dto -> new long[]{dto.getPowerLevel(), dto.getId()})
+                .sorted(CharacterPowerIndex::compare)
+                .toArray(long[][]::new);
+        long[] powers = new long[pairs.length];
+        long[] ids = new long[pairs.length];
+        Map<Long, Long> powerById = new HashMap<>();
+        for (int i = 0; i < pairs.length; i++) {
+            powers[i] = pairs[i][0];
+            ids[i] = pairs[i][1];
+            powerById.put(ids[i], powers[i]);
+        }
+        state = new State(powers, ids, powerById);
+    }
+
+    /**
+     * Fuegt einen Charakter ein oder verschiebt ihn an die Position seines neuen Power Levels.
+     * Pro Aenderung werden Arrays und Map genau einmal kopiert.
+     */
+    void put(CharacterDTO dto) {
+        Long id = dto.getId();
+        if (id == null) {
+            return;
+        }
+        State current = state;
+        long power = dto.getPowerLevel();
+        Long previous = current.powerById().get(id);
+        if (previous != null && previous == power) {
+            return;
+        }
+        int n = current.powers().length;
+        int at = lowerBound(current, power, id);
+        long[] powers;
+        long[] ids;
+        if (previous == null) {
+            powers = new long[n + 1];
+            ids = new long[n + 1];
+            System.arraycopy(current.powers(), 0, powers, 0, at);
+            System.arraycopy(current.ids(), 0, ids, 0, at);
+            System.arraycopy(current.powers(), at, powers, at + 1, n - at);
+            System.arraycopy(current.ids(), at, ids, at + 1, n - at);
+        } else {
+            // Bestehenden Eintrag innerhalb der Kopie verschieben statt entfernen und neu einfuegen
+            int from = lowerBound(current, previous, id);
+            powers = current.powers().clone();
+            ids = current.ids().clone();
+            if (at > from) {
+                at--;
+                System.arraycopy(powers, from + 1, powers, from, at - from);
+                System.arraycopy(ids, from + 1, ids, from, at - from);
+            } else {
+                System.arraycopy(powers, at, powers, at + 1, from - at);
+                System.arraycopy(ids, at, ids, at + 1, from - at);
+            }
+        }
+        powers[at] = power;
+        ids[at] = id;
+        Map<Long, Long> powerById = new HashMap<>(current.powerById());
+        powerById.put(id, power);
+        state = new State(powers, ids, powerById);
+    }
+
+    /**
+     * Entfernt einen Charakter aus dem Index.
+     */
+    void remove(Long id) {
+        state = without(state, id);
+    }
+
+    /**
+     * IDs der staerksten Charaktere mit Power Level groesser als {@code minPowerExclusive}, absteigend.
+     */
+    List<Long> top(long minPowerExclusive, int limit) {
+        State current = state;
+        List<Long> result = new ArrayList<>(Math.min(limit, current.ids().length));
+        for (int i = current.ids().length - 1; i >= 0 && result.size() < limit; i--) {
+            if (current.powers()[i] <= minPowerExclusive) {
+                break;
+            }
+            result.add(current.ids()[i]);
+        }
+        return result;
+    }
+
+    /**
+     * IDs der Charaktere mit {@code min <= powerLevel <= max}, absteigend nach Power Level.
+     */
+    List<Long> range(long min, long max, int limit) {
+        State current = state;
+        int from = lowerBound(current, min, Long.MIN_VALUE);
+        int to = upperBound(current, max);
+        List<Long> result = new ArrayList<>(Math.max(0, Math.min(limit, to - from)));
+        for (int i = to - 1; i >= from && result.size() < limit; i--) {
+            result.add(current.ids()[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Rang (1 = staerkster) eines Charakters; Gleichstaende teilen sich den Rang.
+     *
+     * @return Rang oder {@code -1}, falls der Charakter nicht im Index ist
+     */
+    int rank(Long id) {
+        State current = state;
+        Long power = current.powerById().get(id);
+        if (power == null) {
+            return -1;
+        }
+        return current.powers().length - upperBound(current, power) + 1;
+    }
+
+    /**
+     * Anzahl indizierter Charaktere.
+     */
+    int size() {
+        return state.ids().length;
+    }
+
+    private static State without(State current, Long id) {
+        Long power = current.powerById().get(id);
+        if (power == null) {
+            return current;
+        }
+        int at = lowerBound(current, power, id);
+        int n = current.powers().length;
+        long[] powers = new long[n - 1];
+        long[] ids = new long[n - 1];
+        System.arraycopy(current.powers(), 0, powers, 0, at);
+        System.arraycopy(current.ids(), 0, ids, 0, at);
+        System.arraycopy(current.powers(), at + 1, powers, at, n - at - 1);
+        System.arraycopy(current.ids(), at + 1, ids, at, n - at - 1);
+        Map<Long, Long> powerById = new HashMap<>(current.powerById());
+        powerById.remove(id);
+        return new State(powers, ids, powerById);
+    }
+
+    /**
+     * Erste Position, deren {@code (power, id)} nicht kleiner als der Schluessel ist.
+     */
+    private static int lowerBound(State current, long power, long id) {
+        int low = 0;
+        int high = current.powers().length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(current.powers()[mid], current.ids()[mid], power, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Erste Position mit Power Level groesser als {@code power}.
+     */
+    private static int upperBound(State current, long power) {
+        int low = 0;
+        int high = current.powers().length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.powers()[mid] <= power) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long[] a, long[] b) {
+        return compare(a[0], a[1], b[0], b[1]);
+    }
+
+    private static int compare(long powerA, long idA, long powerB, long idB) {
+        int byPower = Long.compare(powerA, powerB);
+        return byPower != 0 ? byPower : Long.compare(idA, idB);
+    }
+}
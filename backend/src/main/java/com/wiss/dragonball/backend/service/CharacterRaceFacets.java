@@ -0,0 +1,134 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.dto.CharacterDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vorberechnete Rassen-Facetten: Anzahl und IDs der Charaktere pro Rasse.
+ * <p>
+ * Rassen werden case-insensitiv zu fortlaufenden IDs kodiert (Dictionary Encoding); pro ID gibt es
+ * einen {@link LongAdder} als Zaehler und ein Set der Charakter-IDs. Aenderungen erfolgen inkrementell
+ * unter dem Schreib-Lock des {@link CharacterService}, ein Neuaufbau ersetzt den Zustand atomar.
+ * Lesezugriffe sind lock-frei.
+ * </p>
+ */
+final class CharacterRaceFacets {
+
+    /**
+     * Zaehler und Mitglieder einer Rasse.
+     */
+    record Bucket(String race, LongAdder count, Set<Long> ids) {
+    }
+
+    private static final class State {
+        private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+        private final List<Bucket> buckets = new CopyOnWriteArrayList<>();
+        private final Map<Long, Integer> raceOfCharacter = new ConcurrentHashMap<>();
+    }
+
+    private volatile State state = new State();
+
+    /**
+     * Baut die Facetten aus dem uebergebenen Katalog neu auf.
+     */
+    void rebuild(Collection<CharacterDTO> characters) {
+        State fresh = new State();
+        for (CharacterDTO dto : characters) {
+            add(fresh, dto);
+        }
+        state = fresh;
+    }
+
+    /**
+     * Uebernimmt den neuen Stand eines Charakters (auch bei Rassenwechsel).
+     */
+    void put(CharacterDTO dto) {
+        if (dto.getId() == null) {
+            return;
+        }
+        State current = state;
+        remove(current, dto.getId());
+        add(current, dto);
+    }
+
+    /**
+     * Entfernt einen Charakter aus den Facetten.
+     */
+    void remove(Long id) {
+        remove(state, id);
+    }
+
+    /**
+     * Anzahl Charaktere der Rasse (Gross-/Kleinschreibung egal), ohne Datenbankzugriff.
+     */
+    long count(String race) {
+        Bucket bucket = bucket(race);
+        return bucket != null ? bucket.count().sum() : 0;
+    }
+
+    /**
+     * IDs der Charaktere einer Rasse (unveraenderliche Kopie).
+     */
+    Set<Long> ids(String race) {
+        Bucket bucket = bucket(race);
+        return bucket != null ? Set.copyOf(bucket.ids()) : Set.of();
+    }
+
+    /**
+     * Alle Rassen mit mindestens einem Charakter.
+     */
+    List<Bucket> buckets() {
+        List<Bucket> result = new ArrayList<>();
+        for (Bucket bucket : state.buckets) {
+            if (bucket.count().sum() > 0) {
+                result.add(bucket);
+            }
+        }
+        return result;
+    }
+
+    private Bucket bucket(String race) {
+        State current = state;
+        Integer raceId = race != null ? current.dictionary.get(normalize(race)) : null;
+        return raceId != null ? current.buckets.get(raceId) : null;
+    }
+
+    private static void add(State target, CharacterDTO dto) {
+        if (dto.getId() == null || dto.getRace() == null || dto.getRace().isBlank()) {
+            return;
+        }
+        int raceId = target.dictionary.computeIfAbsent(normalize(dto.getRace()), key -> {
+            target.buckets.add(new Bucket(dto.getRace(), new LongAdder(), ConcurrentHashMap.newKeySet()));
+            return target.buckets.size() - 1;
+        });
+        Bucket bucket = target.buckets.get(raceId);
+        if (bucket.ids().add(dto.getId())) {
+            bucket.count().increment();
+        }
+        target.raceOfCharacter.put(dto.getId(), raceId);
+    }
+
+    private static void remove(State target, Long id) {
+        Integer raceId = target.raceOfCharacter.remove(id);
+        if (raceId == null) {
+            return;
+        }
+        Bucket bucket = target.buckets.get(raceId);
+        if (bucket.ids().remove(id)) {
+            bucket.count().decrement();
+        }
+    }
+
+    private static String normalize(String race) {
+        return race.trim().toLowerCase(Locale.ROOT);
+    }
+}
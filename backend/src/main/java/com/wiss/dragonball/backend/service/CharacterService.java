@@ -1,30 +1,113 @@
 package com.wiss.dragonball.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.wiss.dragonball.backend.dto.CharacterDTO;
+import com.wiss.dragonball.backend.dto.CharacterPageDTO;
+import com.wiss.dragonball.backend.dto.FavouriteRankDTO;
+import com.wiss.dragonball.backend.dto.PowerRankDTO;
+import com.wiss.dragonball.backend.dto.RaceFacetDTO;
+import com.wiss.dragonball.backend.dto.RelatedCharacterDTO;
+import com.wiss.dragonball.backend.dto.TransformationOperationDTO;
 import com.wiss.dragonball.backend.entity.Character;
-import com.wiss.dragonball.backend.entity.User;
 import com.wiss.dragonball.backend.exception.*;
 import com.wiss.dragonball.backend.mapper.CharacterMapper;
+import com.wiss.dragonball.backend.mapper.KiValueParser;
 import com.wiss.dragonball.backend.repository.CharacterRepository;
 import com.wiss.dragonball.backend.repository.UserRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service fuer alle Businessregeln rund um Dragonball-Charaktere.
  * Validiert Eingaben, ruft die Repository-Schicht auf und mappt Entitaeten zu DTOs.
  */
 @Service
-public class CharacterService {
+public class CharacterService implements SmartInitializingSingleton {
+
+    private static final Set<String> VALID_RACES = Set.of(
+            "saiyan", "namekian", "android", "human", "god", "frieza", "majin"
+    );
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int DEFAULT_RANKING_LIMIT = 10;
+    private static final int MAX_RANKING_LIMIT = 100;
+    /**
+     * Felder mit primitivem Typ; ein Merge Patch darf sie aendern, aber nicht entfernen.
+     */
+    private static final List<String> NON_REMOVABLE_FIELDS = List.of("powerLevel", "universe", "villain");
+    private static final BigDecimal MAX_KI_VALUE = BigDecimal.TEN.pow(KiValueParser.PRECISION).subtract(BigDecimal.ONE);
 
     private final CharacterRepository repository;
     private final UserRepository userRepository;
+    private final FavouriteCounters favouriteCounters;
+    private final FavouriteCoOccurrence coOccurrence;
+    private final FavouriteBitmapCache favouriteBitmaps;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Unveraenderlicher Katalog-Snapshot fuer {@link #getAllCharacters()}; wird bei
+     * Schreiboperationen nach dem Commit atomar ersetzt (Copy-on-Write).
+     */
+    private final AtomicReference<CharacterCatalogSnapshot> catalog =
+            new AtomicReference<>(CharacterCatalogSnapshot.unloaded(0));
+
+    /**
+     * Serialisiert alle Aenderungen an Snapshot und Indizes; Lesezugriffe brauchen ihn nicht.
+     */
+    private final Object catalogWriteLock = new Object();
+
+    /**
+     * Sorgt dafuer, dass ein ungeladener Katalog nur von einem Leser aus der DB geladen wird.
+     */
+    private final Object catalogLoadLock = new Object();
+
+    /**
+     * N-Gramm-Index ueber die Namen fuer {@link #searchByName(String, Integer)}.
+     */
+    private final CharacterNameIndex nameIndex = new CharacterNameIndex();
 
-    public CharacterService(CharacterRepository repository, UserRepository userRepository) {
+    /**
+     * Vorberechnete Anzahl und IDs pro Rasse fuer Facetten und Zaehlabfragen.
+     */
+    private final CharacterRaceFacets raceFacets = new CharacterRaceFacets();
+
+    /**
+     * Sortierter Power-Level-Index fuer Top-K-, Bereichs- und Rangabfragen.
+     */
+    private final CharacterPowerIndex powerIndex = new CharacterPowerIndex();
+
+    /**
+     * Start-Epoche als ETag-Praefix, damit Versionen nach einem Neustart nicht mit
+     * alten ETags der Clients kollidieren.
+     */
+    private final String etagEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public CharacterService(CharacterRepository repository, UserRepository userRepository,
+                            FavouriteCounters favouriteCounters, FavouriteCoOccurrence coOccurrence,
+                            FavouriteBitmapCache favouriteBitmaps, ObjectMapper objectMapper) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.favouriteCounters = favouriteCounters;
+        this.coOccurrence = coOccurrence;
+        this.favouriteBitmaps = favouriteBitmaps;
+        this.objectMapper = objectMapper;
     }
 
     public CharacterDTO getCharacterByName(String name) {
@@ -51,13 +134,87 @@ public class CharacterService {
         return CharacterMapper.toDTOList(characters);
     }
 
+    /**
+     * Liefert die Charaktere einer Rasse (Gross-/Kleinschreibung egal) aus Facette und Snapshot,
+     * sortiert nach ID, ohne Datenbankzugriff.
+     */
     public List<CharacterDTO> getCharactersByRaceIgnoreCase(String race) {
         validateRace(race);
-        List<Character> characters = repository.findByRaceIgnoreCase(race);
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        List<CharacterDTO> characters = raceFacets.ids(race)
+                .stream()
+                .sorted()
+                .map(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
         if (characters.isEmpty()) {
             throw new RaceNotFoundException(race);
         }
-        return CharacterMapper.toDTOList(characters);
+        return characters;
+    }
+
+    /**
+     * Liefert eine Seite aller Charaktere per Keyset-Pagination.
+     *
+     * @param sort   {@code powerLevel} (absteigend, Standard) oder {@code name} (aufsteigend)
+     * @param cursor Cursor der Vorseite oder {@code null} fuer die erste Seite
+     * @param limit  Seitengroesse (Standard 20, maximal 100)
+     */
+    public CharacterPageDTO getCharacterPage(String sort, String cursor, Integer limit) {
+        CharacterPageCursor.SortKey sortKey = CharacterPageCursor.SortKey.fromParameter(sort);
+        int pageSize = CharacterPageCursor.resolveLimit(limit);
+        Window<Character> window = repository.findAllBy(
+                CharacterPageCursor.decode(sortKey, cursor), sortKey.sort(), Limit.of(pageSize));
+        return toPage(window, sortKey, pageSize);
+    }
+
+    /**
+     * Liefert eine Seite der Charaktere einer Rasse per Keyset-Pagination.
+     */
+    public CharacterPageDTO getCharacterPageByRace(String race, String sort, String cursor, Integer limit) {
+        validateRace(race);
+        CharacterPageCursor.SortKey sortKey = CharacterPageCursor.SortKey.fromParameter(sort);
+        int pageSize = CharacterPageCursor.resolveLimit(limit);
+        Window<Character> window = repository.findByRace(
+                race, CharacterPageCursor.decode(sortKey, cursor), sortKey.sort(), Limit.of(pageSize));
+        if (window.isEmpty() && cursor == null) {
+            throw new RaceNotFoundException(race);
+        }
+        return toPage(window, sortKey, pageSize);
+    }
+
+    /**
+     * Liefert eine Seite der Charaktere einer Rasse (Gross-/Kleinschreibung ignoriert) per Keyset-Pagination.
+     */
+    public CharacterPageDTO getCharacterPageByRaceIgnoreCase(String race, String sort, String cursor, Integer limit) {
+        validateRace(race);
+        CharacterPageCursor.SortKey sortKey = CharacterPageCursor.SortKey.fromParameter(sort);
+        int pageSize = CharacterPageCursor.resolveLimit(limit);
+        Window<Character> window = repository.findByRaceIgnoreCase(
+                race, CharacterPageCursor.decode(sortKey, cursor), sortKey.sort(), Limit.of(pageSize));
+        if (window.isEmpty() && cursor == null) {
+            throw new RaceNotFoundException(race);
+        }
+        return toPage(window, sortKey, pageSize);
+    }
+
+    /**
+     * Liefert eine Seite der Favoriten eines Nutzers als DTOs, stabil nach ID sortiert.
+     * <p>
+     * Eine einzige Abfrage liest nur die IDs der Seite ueber {@code user_favourite}; die DTOs
+     * samt Transformationen kommen aus dem In-Memory-Snapshot, sodass weder Entities noch
+     * Lazy-Collections geladen werden.
+     * </p>
+     */
+    public CharacterPageDTO getFavouritePage(String username, String cursor, Integer limit) {
+        int pageSize = CharacterPageCursor.resolveLimit(limit);
+        long afterId = CharacterPageCursor.decodeAfterId(cursor);
+        // Ein Element mehr lesen, um zu wissen, ob es eine naechste Seite gibt
+        List<Long> ids = userRepository.findFavouriteIds(username, afterId, Limit.of(pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        String nextCursor = hasNext ? CharacterPageCursor.encodeAfterId(pageIds.getLast()) : null;
+        return new CharacterPageDTO(toDTOs(currentCatalog(), pageIds), nextCursor, pageSize, CharacterPageCursor.ID_SORT);
     }
 
     public List<CharacterDTO> getCharactersByPowerLevel(long powerLevel) {
@@ -72,27 +229,178 @@ public class CharacterService {
     }
 
     public List<CharacterDTO> searchByName(String nameFragment) {
+        return searchByName(nameFragment, null);
+    }
+
+    /**
+     * Typeahead-Suche ueber den N-Gramm-Index: findet Namen, die den Suchbegriff enthalten,
+     * sortiert nach Relevanz (exakt, Namensanfang, Wortanfang, Substring). Greift nicht auf die DB zu.
+     *
+     * @param nameFragment Suchbegriff
+     * @param limit        maximale Anzahl Treffer (Standard 10, maximal 50)
+     */
+    public List<CharacterDTO> searchByName(String nameFragment, Integer limit) {
         if (nameFragment == null || nameFragment.isBlank()) {
             throw new IllegalArgumentException("Search term must not be empty");
         }
-        List<Character> result = repository.findByNameContainingIgnoreCase(nameFragment);
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        List<CharacterDTO> result = toDTOs(snapshot,
+                nameIndex.search(nameFragment, clampLimit(limit, DEFAULT_SEARCH_LIMIT, MAX_SEARCH_LIMIT)));
         if (result.isEmpty()) {
             throw new CharacterNotFoundException("No character found for: " + nameFragment);
         }
-        return CharacterMapper.toDTOList(result);
+        return result;
     }
 
+    /**
+     * Zaehlt die Charaktere einer Rasse (Gross-/Kleinschreibung egal) aus den vorberechneten Facetten.
+     */
     public long countCharactersByRace(String race) {
         validateRace(race);
-        return repository.countByRace(race);
+        currentCatalog();
+        return raceFacets.count(race);
+    }
+
+    /**
+     * Liefert alle Rassen mit ihrer Anzahl Charaktere, absteigend nach Anzahl.
+     */
+    public List<RaceFacetDTO> getRaceFacets() {
+        currentCatalog();
+        return raceFacets.buckets()
+                .stream()
+                .map(bucket -> new RaceFacetDTO(bucket.race(), bucket.count().sum()))
+                .sorted(Comparator.comparingLong(RaceFacetDTO::getCount).reversed()
+                        .thenComparing(RaceFacetDTO::getRace))
+                .toList();
     }
 
-    public List<CharacterDTO> getTop5ByPowerGreaterThan(int minPower) {
+    public List<CharacterDTO> getTop5ByPowerGreaterThan(long minPower) {
+        return getTopByPowerGreaterThan(minPower, 5);
+    }
+
+    /**
+     * Liefert die staerksten Charaktere mit Power Level groesser als {@code minPower},
+     * absteigend sortiert, aus dem Power-Level-Index.
+     *
+     * @param minPower Untergrenze (exklusiv)
+     * @param limit    Anzahl Treffer (Standard 10, maximal 100)
+     */
+    public List<CharacterDTO> getTopByPowerGreaterThan(long minPower, Integer limit) {
         if (minPower < 0) {
             throw new IllegalArgumentException("Minimum power level must be positive");
         }
-        List<Character> top5 = repository.findTop5ByPowerLevelGreaterThanOrderByPowerLevelDesc(minPower);
-        return CharacterMapper.toDTOList(top5);
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        return toDTOs(snapshot, powerIndex.top(minPower, clampLimit(limit, DEFAULT_RANKING_LIMIT, MAX_RANKING_LIMIT)));
+    }
+
+    /**
+     * Liefert die Charaktere mit {@code min <= powerLevel <= max}, absteigend sortiert.
+     */
+    public List<CharacterDTO> getCharactersByPowerRange(long min, long max, Integer limit) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Power range must satisfy 0 <= min <= max");
+        }
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        return toDTOs(snapshot, powerIndex.range(min, max, clampLimit(limit, DEFAULT_RANKING_LIMIT, MAX_RANKING_LIMIT)));
+    }
+
+    /**
+     * Liefert den Rang eines Charakters in der Power-Level-Rangliste.
+     */
+    public PowerRankDTO getPowerRank(Long id) {
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        CharacterDTO character = snapshot.get(id);
+        int rank = powerIndex.rank(id);
+        if (character == null || rank < 0) {
+            throw new CharacterNotFoundException(id);
+        }
+        return new PowerRankDTO(id, character.getName(), character.getPowerLevel(), rank, powerIndex.size());
+    }
+
+    /**
+     * Liefert die meistfavorisierten Charaktere aus den In-Memory-Zaehlern, ohne Datenbankzugriff.
+     * Charaktere mit gleich vielen Favoriten teilen sich den Rang.
+     */
+    public List<FavouriteRankDTO> getMostFavourited(Integer limit) {
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        List<FavouriteRankDTO> ranking = new ArrayList<>();
+        int rank = 0;
+        long previousCount = -1;
+        for (FavouriteCounters.FavouriteCount entry
+                : favouriteCounters.top(clampLimit(limit, DEFAULT_RANKING_LIMIT, MAX_RANKING_LIMIT))) {
+            CharacterDTO character = snapshot.get(entry.characterId());
+            if (character == null) {
+                continue;
+            }
+            if (entry.count() != previousCount) {
+                rank = ranking.size() + 1;
+                previousCount = entry.count();
+            }
+            ranking.add(new FavouriteRankDTO(character.getId(), character.getName(), character.getImage(),
+                    entry.count(), rank));
+        }
+        return ranking;
+    }
+
+    /**
+     * Liefert die Charaktere, die am haeufigsten zusammen mit dem angegebenen Charakter favorisiert
+     * wurden, aus der In-Memory-Co-Favoriten-Matrix, ohne Datenbankzugriff.
+     */
+    public List<RelatedCharacterDTO> getRelatedCharacters(Long id, Integer limit) {
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        if (snapshot.get(id) == null) {
+            throw new CharacterNotFoundException(id);
+        }
+        List<RelatedCharacterDTO> related = new ArrayList<>();
+        for (FavouriteCounters.FavouriteCount entry
+                : coOccurrence.related(id, clampLimit(limit, DEFAULT_RANKING_LIMIT, MAX_RANKING_LIMIT))) {
+            CharacterDTO character = snapshot.get(entry.characterId());
+            if (character != null) {
+                related.add(new RelatedCharacterDTO(character.getId(), character.getName(), character.getImage(),
+                        entry.count()));
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Liefert Charaktere nach ihrem numerischen Ki- bzw. Max-Ki-Wert.
+     * <p>
+     * Die Grenzen duerfen im Anzeigeformat angegeben werden (z.B. {@code "1 Billion"}); Charaktere
+     * ohne interpretierbaren Ki-Wert fallen heraus.
+     * </p>
+     *
+     * @param field     {@code ki} oder {@code maxKi}
+     * @param min       Untergrenze (inklusiv) oder {@code null}
+     * @param max       Obergrenze (inklusiv) oder {@code null}
+     * @param direction {@code desc} (Standard) oder {@code asc}
+     * @param limit     maximale Anzahl Treffer
+     */
+    public List<CharacterDTO> getCharactersByKi(String field, String min, String max, String direction, Integer limit) {
+        boolean maxKi = "maxKi".equalsIgnoreCase(field);
+        if (!maxKi && field != null && !field.isBlank() && !"ki".equalsIgnoreCase(field)) {
+            throw new InvalidPageRequestException("Unsupported field '" + field + "', use 'ki' or 'maxKi'");
+        }
+        Sort.Direction order;
+        if (direction == null || direction.isBlank()) {
+            order = Sort.Direction.DESC;
+        } else {
+            order = Sort.Direction.fromOptionalString(direction)
+                    .orElseThrow(() -> new InvalidPageRequestException("Unsupported direction '" + direction + "', use 'asc' or 'desc'"));
+        }
+        BigDecimal lower = parseKiBound(min, BigDecimal.ZERO);
+        BigDecimal upper = parseKiBound(max, MAX_KI_VALUE);
+        if (upper.compareTo(lower) < 0) {
+            throw new InvalidPageRequestException("Ki range must satisfy min <= max");
+        }
+
+        String property = maxKi ? "maxKiValue" : "kiValue";
+        Sort sort = Sort.by(new Sort.Order(order, property), new Sort.Order(order, "id"));
+        Limit pageLimit = Limit.of(clampLimit(limit, DEFAULT_RANKING_LIMIT, MAX_RANKING_LIMIT));
+        List<Long> ids = maxKi
+                ? repository.findIdsByMaxKiValueBetween(lower, upper, sort, pageLimit)
+                : repository.findIdsByKiValueBetween(lower, upper, sort, pageLimit);
+        return toDTOs(currentCatalog(), ids);
     }
 
     public boolean existsByNameAndRace(String name, String race) {
@@ -107,7 +415,9 @@ public class CharacterService {
         validateCharacterData(dto);
         Character entity = CharacterMapper.toEntity(dto);
         Character saved = repository.save(entity);
-        return CharacterMapper.toDTO(saved);
+        CharacterDTO created = CharacterMapper.toDTO(saved);
+        publishAfterCommit(created.getId(), created);
+        return created;
     }
 
     @Transactional
@@ -143,31 +453,304 @@ public class CharacterService {
         }
 
         Character updated = repository.save(existing);
-        return CharacterMapper.toDTO(updated);
+        CharacterDTO result = CharacterMapper.toDTO(updated);
+        publishAfterCommit(id, result);
+        return result;
     }
 
+    /**
+     * Aendert einzelne Felder eines Charakters per JSON Merge Patch (RFC 7396).
+     * <p>
+     * Der Patch wird auf die DTO-Darstellung des Charakters angewendet und das Ergebnis wie beim
+     * Anlegen geprueft. Dank {@code @DynamicUpdate} enthaelt das UPDATE nur die geaenderten Spalten. Aendert der Patch nichts,
+     * wird weder geschrieben noch der Katalog-Snapshot ersetzt.
+     * </p>
+     *
+     * @param patch JSON-Objekt; {@code null} entfernt ein Feld
+     * @throws InvalidCharacterDataException wenn der Patch kein Objekt ist, die ID aendert,
+     *                                       ein Pflichtfeld entfernt oder ungueltige Werte enthaelt
+     */
     @Transactional
-    public void deleteCharacter(Long id) {
-        Character character = repository.findById(id)
+    public CharacterDTO patchCharacter(Long id, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidCharacterDataException("Merge patch must be a JSON object");
+        }
+        Character existing = repository.findById(id)
                 .orElseThrow(() -> new CharacterNotFoundException(id));
-        List<User> usersWithFavourite = userRepository.findAllByFavourites_Id(id);
-        for (User user : usersWithFavourite) {
-            user.removeFavourite(character);
+        CharacterDTO current = CharacterMapper.toDTO(existing);
+        JsonNode original = objectMapper.valueToTree(current);
+        ObjectNode patched = (ObjectNode) JsonMergePatch.apply(original, patch);
+        // read-only Flag der Listen-Endpunkte, gehoert nicht zum Charakter
+        patched.remove("favourite");
+        if (patched.equals(original)) {
+            return current;
         }
-        if (!usersWithFavourite.isEmpty()) {
-            userRepository.saveAll(usersWithFavourite);
+
+        JsonNode patchedId = patched.get("id");
+        if (patchedId == null || !patchedId.canConvertToLong() || patchedId.asLong() != id) {
+            throw new InvalidCharacterDataException("The id of a character cannot be changed");
+        }
+        for (String field : NON_REMOVABLE_FIELDS) {
+            if (!patched.hasNonNull(field)) {
+                throw new InvalidCharacterDataException("Field '" + field + "' cannot be removed");
+            }
         }
-        repository.delete(character);
+        CharacterDTO dto;
+        try {
+            dto = objectMapper.treeToValue(patched, CharacterDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidCharacterDataException("Invalid value in merge patch: " + e.getOriginalMessage());
+        }
+        validateCharacterData(dto);
+
+        applyFields(existing, dto);
+        Character updated = repository.save(existing);
+        CharacterDTO result = CharacterMapper.toDTO(updated);
+        publishAfterCommit(id, result);
+        return result;
     }
 
+    /**
+     * Fuegt Transformationen geordnet ein, entfernt oder verschiebt sie.
+     * <p>
+     * Die Operationen werden nacheinander auf eine Kopie angewendet und erst danach Position fuer
+     * Position in die Entity uebernommen. Hibernate schreibt damit nur die Zeilen, deren Wert sich
+     * an ihrer Position geaendert hat: Anhaengen ist ein INSERT, Entfernen am Ende ein DELETE,
+     * ein Tausch zwei UPDATEs. Eine ungueltige Operation bricht ab, ohne etwas zu aendern.
+     * </p>
+     *
+     * @throws InvalidCharacterDataException bei leerer Liste oder ungueltiger Operation
+     */
+    @Transactional
+    public CharacterDTO editTransformations(Long id, List<TransformationOperationDTO> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new InvalidCharacterDataException("At least one transformation operation is required");
+        }
+        Character existing = repository.findById(id)
+                .orElseThrow(() -> new CharacterNotFoundException(id));
+        List<String> current = existing.getTransformations() != null ? existing.getTransformations() : List.of();
+        List<String> edited = applyTransformationOperations(current, operations);
+        if (edited.equals(current)) {
+            return CharacterMapper.toDTO(existing);
+        }
+        syncTransformations(existing, edited);
+        Character updated = repository.save(existing);
+        CharacterDTO result = CharacterMapper.toDTO(updated);
+        publishAfterCommit(id, result);
+        return result;
+    }
+
+    /**
+     * Loescht einen Charakter mit drei Bulk-Statements (Favoriten, Transformationen, Charakter),
+     * egal wie viele Nutzer ihn favorisiert haben. Weder Charakter noch Nutzer werden geladen;
+     * ist die ID unbekannt, wird die Transaktion samt Bereinigung zurueckgerollt. Nach dem Commit
+     * verschwindet die ID zuerst aus den gecachten Favoriten-Bitmaps, dann aus der Co-Favoriten-Matrix;
+     * so raeumt die Matrix auch Paare weg, die eine gleichzeitig laufende Aenderung noch anlegt.
+     */
+    @Transactional
+    public void deleteCharacter(Long id) {
+        int favourites = userRepository.deleteFavouritesByCharacterId(id);
+        // entfernt auch die Zeilen in character_transformations
+        if (repository.deleteCharacterById(id) == 0) {
+            throw new CharacterNotFoundException(id);
+        }
+        publishAfterCommit(id, null);
+        afterCommit(() -> {
+            favouriteCounters.remove(id);
+            favouriteBitmaps.removeCharacter(id);
+            coOccurrence.removeCharacter(id, favourites);
+        });
+    }
+
+    /**
+     * Verwirft den Katalog-Snapshot nach einem Massenimport oder nach Schreibzugriffen am Service
+     * vorbei (z.B. Seed-Daten); der naechste Lesezugriff laedt ihn samt Indizes einmal neu,
+     * statt jeden Charakter einzeln zu veroeffentlichen.
+     */
+    public void invalidateCatalog() {
+        synchronized (catalogWriteLock) {
+            catalog.set(CharacterCatalogSnapshot.unloaded(catalog.get().getVersion() + 1));
+        }
+    }
+
+    /**
+     * Laedt den Katalog samt Indizes beim Start, noch bevor der Webserver Anfragen annimmt,
+     * damit die ersten Anfragen nicht die DB treffen.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        currentCatalog();
+    }
+
+    /**
+     * Liefert alle Charaktere aus dem In-Memory-Snapshot. Nur der erste Aufruf
+     * (bzw. der erste nach einem Schreibzugriff auf einen ungeladenen Katalog) liest
+     * die Datenbank; danach erfolgen Lesezugriffe ohne DB und ohne Lock.
+     */
     public List<CharacterDTO> getAllCharacters() {
-        return repository.findAll()
-                .stream()
-                .map(CharacterMapper::toDTO)
+        return currentCatalog().getCharacters();
+    }
+
+    /**
+     * Starker ETag fuer Listen-Endpunkte; aendert sich bei jedem Create, Update oder Delete.
+     */
+    public String getCatalogETag() {
+        return "\"" + etagEpoch + "-" + currentCatalog().getVersion() + "\"";
+    }
+
+    /**
+     * Starker ETag fuer einen einzelnen Charakter oder {@code null}, falls er nicht im Katalog ist.
+     */
+    public String getCharacterETag(Long id) {
+        return id != null ? characterETag(currentCatalog(), id) : null;
+    }
+
+    /**
+     * Starker ETag fuer einen Charakter anhand des exakten Namens oder {@code null}.
+     */
+    public String getCharacterETagByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        CharacterCatalogSnapshot snapshot = currentCatalog();
+        CharacterDTO dto = snapshot.getByName(name);
+        return dto != null ? characterETag(snapshot, dto.getId()) : null;
+    }
+
+    private String characterETag(CharacterCatalogSnapshot snapshot, Long id) {
+        Long version = snapshot.getCharacterVersion(id);
+        return version != null ? "\"" + etagEpoch + "-c" + id + "-" + version + "\"" : null;
+    }
+
+    /**
+     * Liefert den geladenen Katalog-Snapshot und laedt ihn bei Bedarf aus der Datenbank.
+     * Der geladene Stand wird nur veroeffentlicht (und die In-Memory-Indizes daraus aufgebaut),
+     * wenn in der Zwischenzeit kein Schreibzugriff den Platzhalter ersetzt hat.
+     * Gleichzeitige Leser eines ungeladenen Katalogs warten auf {@code catalogLoadLock},
+     * sodass nur einer von ihnen die Datenbank liest.
+     */
+    private CharacterCatalogSnapshot currentCatalog() {
+        CharacterCatalogSnapshot current = catalog.get();
+        if (current.isLoaded()) {
+            return current;
+        }
+        synchronized (catalogLoadLock) {
+            current = catalog.get();
+            if (current.isLoaded()) {
+                return current;
+            }
+            List<CharacterDTO> dtos = repository.findAll()
+                    .stream()
+                    .map(CharacterMapper::toDTO)
+                    .toList();
+            CharacterCatalogSnapshot loaded = CharacterCatalogSnapshot.of(current.getVersion() + 1, dtos);
+            synchronized (catalogWriteLock) {
+                if (catalog.get() == current) {
+                    catalog.set(loaded);
+                    rebuildIndexes(loaded);
+                }
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Uebernimmt eine Aenderung in Katalog und Indizes, sobald die laufende Transaktion committed ist
+     * (ohne aktive Transaktion sofort), damit ein Rollback den Snapshot nicht verfaelscht.
+     *
+     * @param id      ID des geaenderten Charakters
+     * @param updated neuer Stand oder {@code null}, falls der Charakter geloescht wurde
+     */
+    private void publishAfterCommit(Long id, CharacterDTO updated) {
+        afterCommit(() -> publish(id, updated));
+    }
+
+    /**
+     * Fuehrt die Aktion nach dem Commit der laufenden Transaktion aus, ohne Transaktion sofort.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Ersetzt den Snapshot und pflegt die Indizes inkrementell. Alle Schreiber serialisieren sich
+     * ueber {@code catalogWriteLock}; Leser greifen ohne Lock auf den jeweils aktuellen Stand zu.
+     */
+    private void publish(Long id, CharacterDTO updated) {
+        synchronized (catalogWriteLock) {
+            CharacterCatalogSnapshot before = catalog.get();
+            CharacterCatalogSnapshot after = updated != null ? before.withUpserted(updated) : before.withRemoved(id);
+            catalog.set(after);
+            if (!after.isLoaded()) {
+                return;
+            }
+            CharacterDTO current = after.get(id);
+            if (current != null) {
+                nameIndex.put(current);
+                raceFacets.put(current);
+                powerIndex.put(current);
+            } else {
+                nameIndex.remove(id);
+                raceFacets.remove(id);
+                powerIndex.remove(id);
+            }
+        }
+    }
+
+    private void rebuildIndexes(CharacterCatalogSnapshot snapshot) {
+        nameIndex.rebuild(snapshot.getCharacters());
+        raceFacets.rebuild(snapshot.getCharacters());
+        powerIndex.rebuild(snapshot.getCharacters());
+    }
+
+    /**
+     * Loest IDs aus einem Index ueber den Snapshot auf; zwischenzeitlich geloeschte IDs fallen weg.
+     */
+    private static List<CharacterDTO> toDTOs(CharacterCatalogSnapshot snapshot, List<Long> ids) {
+        return ids.stream()
+                .map(snapshot::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
-    private void validateCharacterData(CharacterDTO dto) {
+    private static int clampLimit(Integer limit, int defaultLimit, int maxLimit) {
+        return limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+    }
+
+    private static BigDecimal parseKiBound(String value, BigDecimal fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        BigDecimal parsed = KiValueParser.parse(value);
+        if (parsed == null) {
+            throw new InvalidPageRequestException("Invalid ki value '" + value + "'");
+        }
+        return parsed;
+    }
+
+    private CharacterPageDTO toPage(Window<Character> window, CharacterPageCursor.SortKey sortKey, int pageSize) {
+        List<Character> content = window.getContent();
+        String nextCursor = window.hasNext() && !content.isEmpty()
+                ? CharacterPageCursor.encode(sortKey, content.getLast())
+                : null;
+        return new CharacterPageDTO(CharacterMapper.toDTOList(content), nextCursor, pageSize, sortKey.parameter());
+    }
+
+    /**
+     * Prueft die Pflichtfelder eines Charakters; wird auch vom {@link CharacterImportService} genutzt.
+     *
+     * @throws InvalidCharacterDataException wenn ein Feld fehlt oder ungueltig ist
+     */
+    static void validateCharacterData(CharacterDTO dto) {
         if (dto.getName() == null || dto.getName().isBlank()) {
             throw new InvalidCharacterDataException("Name is required");
         }
@@ -179,14 +762,96 @@ public class CharacterService {
         }
     }
 
+    /**
+     * Uebernimmt alle Felder des DTOs in die Entity. Beim Flush vergleicht Hibernate mit dem
+     * geladenen Stand, unveraenderte Spalten landen daher nicht im UPDATE.
+     */
+    private static void applyFields(Character entity, CharacterDTO dto) {
+        entity.setName(dto.getName());
+        entity.setRace(dto.getRace());
+        entity.setKi(dto.getKi());
+        entity.setMaxKi(dto.getMaxKi());
+        entity.setPowerLevel(dto.getPowerLevel());
+        entity.setUniverse(dto.getUniverse());
+        entity.setVillain(dto.isVillain());
+        entity.setGender(dto.getGender());
+        entity.setDescription(dto.getDescription());
+        entity.setImage(dto.getImage());
+        entity.setAffiliation(dto.getAffiliation());
+        entity.setImageUrl(dto.getImageUrl());
+        syncTransformations(entity, dto.getTransformations() != null ? dto.getTransformations() : List.of());
+    }
+
+    /**
+     * Gleicht die Transformationen der Entity Position fuer Position an {@code desired} an:
+     * abweichende Positionen werden ersetzt, zusaetzliche angehaengt, ueberzaehlige am Ende entfernt.
+     * Die Collection-Instanz bleibt erhalten, damit Hibernate als indizierte Liste nur diese
+     * Zeilen schreibt statt die Collection neu anzulegen.
+     */
+    private static void syncTransformations(Character entity, List<String> desired) {
+        List<String> current = entity.getTransformations();
+        if (current == null) {
+            entity.setTransformations(new ArrayList<>(desired));
+            return;
+        }
+        int common = Math.min(current.size(), desired.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(current.get(i), desired.get(i))) {
+                current.set(i, desired.get(i));
+            }
+        }
+        for (int i = common; i < desired.size(); i++) {
+            current.add(desired.get(i));
+        }
+        while (current.size() > desired.size()) {
+            current.remove(current.size() - 1);
+        }
+    }
+
+    /**
+     * Wendet Einfuege-, Entfern- und Verschiebe-Operationen auf eine Kopie der Liste an.
+     *
+     * @throws InvalidCharacterDataException bei unbekannter Operation, fehlendem Wert oder ungueltiger Position
+     */
+    private static List<String> applyTransformationOperations(List<String> transformations,
+                                                              List<TransformationOperationDTO> operations) {
+        List<String> result = new ArrayList<>(transformations);
+        for (TransformationOperationDTO operation : operations) {
+            if (operation == null || operation.getOp() == null) {
+                throw new InvalidCharacterDataException("Transformation operation is required");
+            }
+            switch (operation.getOp().toLowerCase()) {
+                case "insert" -> {
+                    if (operation.getValue() == null || operation.getValue().isBlank()) {
+                        throw new InvalidCharacterDataException("Transformation to insert must not be empty");
+                    }
+                    int index = operation.getIndex() != null ? operation.getIndex() : result.size();
+                    result.add(checkTransformationIndex(index, result.size() + 1), operation.getValue());
+                }
+                case "remove" -> result.remove(checkTransformationIndex(operation.getIndex(), result.size()));
+                case "move" -> {
+                    String moved = result.remove(checkTransformationIndex(operation.getIndex(), result.size()));
+                    result.add(checkTransformationIndex(operation.getTo(), result.size() + 1), moved);
+                }
+                default -> throw new InvalidCharacterDataException(
+                        "Unsupported transformation operation '" + operation.getOp() + "', use 'insert', 'remove' or 'move'");
+            }
+        }
+        return result;
+    }
+
+    private static int checkTransformationIndex(Integer index, int bound) {
+        if (index == null || index < 0 || index >= bound) {
+            throw new InvalidCharacterDataException("Transformation index " + index + " is out of range");
+        }
+        return index;
+    }
+
     private void validateRace(String race) {
-        List<String> validRaces = List.of(
-                "saiyan", "namekian", "android", "human", "god", "frieza", "majin"
-        );
         if (race == null || race.isBlank()) {
             throw new IllegalArgumentException("Race must not be empty");
         }
-        if (!validRaces.contains(race.toLowerCase())) {
+        if (!VALID_RACES.contains(race.toLowerCase())) {
             throw new RaceNotFoundException(race);
         }
     }
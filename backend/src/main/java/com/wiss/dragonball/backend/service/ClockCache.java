@@ -0,0 +1,180 @@
+package com.wiss.dragonball.backend.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Groessenbegrenzte Map mit angenaeherter LRU-Verdraengung nach dem CLOCK-Verfahren.
+ * <p>
+ * Lesezugriffe gehen ohne Sperre direkt auf eine {@link ConcurrentHashMap} und setzen nur das
+ * Referenz-Bit des Eintrags. Jeder Eintrag belegt einen Platz in einem Ring; ist kein Platz frei,
+ * laeuft ein Zeiger ueber den Ring, gibt gelesenen Eintraegen eine zweite Chance (Bit loeschen)
+ * und verdraengt den ersten seither nicht gelesenen. Einfuegen und Entfernen teilen sich eine
+ * Sperre, bleiben aber amortisiert O(1).
+ * </p>
+ *
+ * @param <K> Schluesseltyp
+ * @param <V> Werttyp
+ */
+final class ClockCache<K, V> {
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int slot;
+        volatile boolean referenced;
+
+        Node(K key, V value, int slot) {
+            this.key = key;
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+
+    private final Map<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder evictions = new LongAdder();
+    private final Node<K, V>[] ring;
+    private final int[] freeSlots;
+    private int freeCount;
+    private int hand;
+
+    @SuppressWarnings("unchecked")
+    ClockCache(int maxEntries) {
+        int capacity = Math.max(0, maxEntries);
+        this.ring = (Node<K, V>[]) new Node[capacity];
+        this.freeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+    }
+
+    /**
+     * Liefert den Wert zu einem Schluessel oder {@code null}, ohne Sperre.
+     */
+    V get(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    /**
+     * Legt einen Wert ab und verdraengt bei vollem Cache einen seit dem letzten Umlauf nicht
+     * gelesenen Eintrag.
+     */
+    void put(K key, V value) {
+        putIf(key, value, () -> true);
+    }
+
+    /**
+     * Legt einen Wert nur ab, wenn {@code condition} unter der Schreibsperre noch gilt. Wer die
+     * Bedingung ungueltig macht und danach {@link #remove(Object)} aufruft, kann so nicht von
+     * einem gleichzeitig laufenden Einfuegen ueberholt werden.
+     *
+     * @return {@code true}, wenn der Wert abgelegt wurde
+     */
+    boolean putIf(K key, V value, BooleanSupplier condition) {
+        if (ring.length == 0) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (!condition.getAsBoolean()) {
+                return false;
+            }
+            Node<K, V> existing = entries.get(key);
+            int slot = existing != null ? existing.slot : claimSlot();
+            Node<K, V> node = new Node<>(key, value, slot);
+            ring[slot] = node;
+            entries.put(key, node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entfernt den Eintrag eines Schluessels.
+     */
+    void remove(K key) {
+        lock.lock();
+        try {
+            Node<K, V> node = entries.remove(key);
+            if (node != null) {
+                release(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entfernt den Eintrag nur, wenn er noch den angegebenen Wert hat (z.B. nach Ablauf).
+     *
+     * @return {@code true}, wenn der Eintrag entfernt wurde
+     */
+    boolean remove(K key, V value) {
+        lock.lock();
+        try {
+            Node<K, V> node = entries.get(key);
+            if (node == null || node.value != value) {
+                return false;
+            }
+            entries.remove(key);
+            release(node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Durchlaeuft alle Eintraege ohne Sperre, schwach konsistent wie die {@link ConcurrentHashMap}.
+     */
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        entries.forEach((key, node) -> action.accept(key, node.value));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Anzahl wegen Platzmangels verdraengter Eintraege.
+     */
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private int claimSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        while (true) {
+            Node<K, V> candidate = ring[hand];
+            hand = (hand + 1) % ring.length;
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                continue;
+            }
+            entries.remove(candidate.key, candidate);
+            evictions.increment();
+            return candidate.slot;
+        }
+    }
+
+    private void release(Node<K, V> node) {
+        ring[node.slot] = null;
+        freeSlots[freeCount++] = node.slot;
+    }
+}
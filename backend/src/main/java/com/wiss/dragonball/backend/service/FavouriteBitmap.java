@@ -0,0 +1,171 @@
+package com.wiss.dragonball.backend.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Unveraenderliche, komprimierte Menge der favorisierten Charakter-IDs eines Nutzers.
+ * <p>
+ * Aufbau wie bei Roaring-Bitmaps: Die IDs werden nach ihren oberen Bits ({@code id >>> 16})
+ * in Bloecke zu je 65 536 IDs aufgeteilt. Ein Block mit hoechstens {@value #ARRAY_CONTAINER_MAX}
+ * Eintraegen speichert die unteren 16 Bits als sortiertes {@code char[]} (2 Byte pro ID), ein
+ * dichterer Block als Bitmap aus 1024 {@code long} (8 KiB). Bei den ueblichen IDs gibt es genau
+ * einen Block, sodass {@link #contains(long)} praktisch in konstanter Zeit antwortet.
+ * </p>
+ * <p>
+ * Jede Instanz traegt eine Version, die sich bei jeder Aenderung aendert und in den ETag der
+ * Listen-Endpunkte eingeht.
+ * </p>
+ */
+public final class FavouriteBitmap {
+
+    /** Maximale Anzahl Eintraege eines Array-Blocks; darueber ist die Bitmap kleiner. */
+    static final int ARRAY_CONTAINER_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 65536 / 64;
+
+    private final long version;
+    private final long[] keys;
+    private final Object[] containers;
+    private final int cardinality;
+
+    private FavouriteBitmap(long version, long[] keys, Object[] containers, int cardinality) {
+        this.version = version;
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Baut die Bitmap aus aufsteigend sortierten IDs; Duplikate und negative IDs werden ignoriert.
+     */
+    public static FavouriteBitmap of(long version, long[] sortedIds) {
+        long[] keys = new long[8];
+        Object[] containers = new Object[8];
+        int blocks = 0;
+        int cardinality = 0;
+        int start = 0;
+        while (start < sortedIds.length && sortedIds[start] < 0) {
+            start++;
+        }
+        while (start < sortedIds.length) {
+            long key = sortedIds[start] >>> 16;
+            int end = start;
+            while (end < sortedIds.length && sortedIds[end] >>> 16 == key) {
+                end++;
+            }
+            char[] lows = new char[end - start];
+            int size = 0;
+            for (int i = start; i < end; i++) {
+                char low = (char) sortedIds[i];
+                if (size == 0 || lows[size - 1] != low) {
+                    lows[size++] = low;
+                }
+            }
+            if (blocks == keys.length) {
+                keys = Arrays.copyOf(keys, blocks * 2);
+                containers = Arrays.copyOf(containers, blocks * 2);
+            }
+            keys[blocks] = key;
+            containers[blocks] = size <= ARRAY_CONTAINER_MAX ? Arrays.copyOf(lows, size) : toBitmap(lows, size);
+            blocks++;
+            cardinality += size;
+            start = end;
+        }
+        return new FavouriteBitmap(version, Arrays.copyOf(keys, blocks), Arrays.copyOf(containers, blocks), cardinality);
+    }
+
+    /**
+     * Prueft, ob die ID enthalten ist.
+     */
+    public boolean contains(long id) {
+        if (id < 0) {
+            return false;
+        }
+        int block = keys.length == 1
+                ? (keys[0] == id >>> 16 ? 0 : -1)
+                : Arrays.binarySearch(keys, id >>> 16);
+        if (block < 0) {
+            return false;
+        }
+        char low = (char) id;
+        Object container = containers[block];
+        if (container instanceof long[] words) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, low) >= 0;
+    }
+
+    /**
+     * Liefert eine neue Bitmap mit den angegebenen Aenderungen. Die sortierten IDs werden in einem
+     * Durchlauf mit den (sortierten) hinzugefuegten zusammengefuehrt, entfernte dabei uebersprungen.
+     */
+    public FavouriteBitmap withChanges(long newVersion, Collection<Long> added, Collection<Long> removed) {
+        long[] current = toArray();
+        long[] adds = sorted(added);
+        long[] removes = sorted(removed);
+        long[] merged = new long[current.length + adds.length];
+        int i = 0;
+        int a = 0;
+        int r = 0;
+        int size = 0;
+        while (i < current.length || a < adds.length) {
+            long next = a == adds.length || (i < current.length && current[i] <= adds[a])
+                    ? current[i++]
+                    : adds[a++];
+            if (size > 0 && merged[size - 1] == next) {
+                continue;
+            }
+            while (r < removes.length && removes[r] < next) {
+                r++;
+            }
+            if (r < removes.length && removes[r] == next) {
+                continue;
+            }
+            merged[size++] = next;
+        }
+        return of(newVersion, Arrays.copyOf(merged, size));
+    }
+
+    /**
+     * Liefert alle IDs aufsteigend sortiert.
+     */
+    public long[] toArray() {
+        long[] ids = new long[cardinality];
+        int size = 0;
+        for (int block = 0; block < keys.length; block++) {
+            long high = keys[block] << 16;
+            Object container = containers[block];
+            if (container instanceof long[] words) {
+                for (int word = 0; word < words.length; word++) {
+                    long bits = words[word];
+                    while (bits != 0) {
+                        ids[size++] = high | ((long) word << 6) | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                for (char low : (char[]) container) {
+                    ids[size++] = high | low;
+                }
+            }
+        }
+        return ids;
+    }
+
+    public long getVersion() { return version; }
+
+    public int size() { return cardinality; }
+
+    private static long[] sorted(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static long[] toBitmap(char[] lows, int size) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int i = 0; i < size; i++) {
+            words[lows[i] >>> 6] |= 1L << lows[i];
+        }
+        return words;
+    }
+}
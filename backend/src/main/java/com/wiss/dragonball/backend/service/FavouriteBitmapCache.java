@@ -0,0 +1,173 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Groessenbegrenzter Cache der {@link FavouriteBitmap} pro Benutzername.
+ * <p>
+ * Ein Fehlzugriff laedt alle Favoriten-IDs des Nutzers mit einer Abfrage. Aenderungen an den
+ * Favoriten werden nach dem Commit direkt in die gecachte Bitmap uebernommen (Kopie mit neuer
+ * Version), statt den Eintrag zu verwerfen. Treffer lesen ohne Sperre aus einem {@link ClockCache}.
+ * </p>
+ * <p>
+ * Schreibzugriffe auf die Favoriten eines Nutzers laufen von {@link #beginChange(String)} bis
+ * {@link #endChange(String)} unter einer gestreiften Sperre pro Nutzer. Jeder Streifen zaehlt seine
+ * Aenderungen; ein Ladevorgang legt sein Ergebnis nur unter der Sperre des Streifens ab und nur,
+ * wenn der Zaehler seit Beginn des Ladens gleich geblieben ist. So schreibt kein Ladevorgang einen
+ * veralteten Stand zurueck, und {@link #apply} sieht immer genau den Stand vor der eigenen
+ * Aenderung, was die Co-Favoriten-Matrix fuer ihre inkrementellen Updates braucht.
+ * </p>
+ */
+@Component
+public class FavouriteBitmapCache {
+
+    private static final int STRIPES = 64;
+
+    private final UserRepository userRepository;
+    private final AtomicLong versions = new AtomicLong();
+    private final ClockCache<String, FavouriteBitmap> entries;
+    private final ReentrantLock[] userLocks = new ReentrantLock[STRIPES];
+    private final AtomicLongArray stripeChanges = new AtomicLongArray(STRIPES);
+
+    public FavouriteBitmapCache(UserRepository userRepository,
+                                @Value("${favourites.bitmap-cache.max-size:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        for (int i = 0; i < userLocks.length; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+        this.entries = new ClockCache<>(maxEntries);
+    }
+
+    /**
+     * Liefert die Favoriten-Bitmap des Nutzers und laedt sie bei Bedarf aus der Datenbank.
+     */
+    public FavouriteBitmap get(String username) {
+        FavouriteBitmap cached = entries.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripeOf(username);
+        long changesBefore = stripeChanges.get(stripe);
+        FavouriteBitmap loaded = load(username);
+        ReentrantLock lock = userLocks[stripe];
+        // Laeuft gerade eine Aenderung im Streifen, wird nur geliefert, nicht abgelegt
+        if (!lock.isHeldByCurrentThread() && lock.tryLock()) {
+            try {
+                if (stripeChanges.get(stripe) == changesBefore) {
+                    entries.put(username, loaded);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Beginnt eine Aenderung an den Favoriten des Nutzers: sperrt parallele Schreiber desselben
+     * Nutzers und verhindert, dass ein Ladevorgang einen Zwischenstand ablegt.
+     * Muss immer mit {@link #endChange(String)} abgeschlossen werden.
+     */
+    public void beginChange(String username) {
+        int stripe = stripeOf(username);
+        userLocks[stripe].lock();
+        stripeChanges.incrementAndGet(stripe);
+    }
+
+    /**
+     * Schliesst eine mit {@link #beginChange(String)} begonnene Aenderung ab.
+     */
+    public void endChange(String username) {
+        userLocks[stripeOf(username)].unlock();
+    }
+
+    /**
+     * Uebernimmt committete Aenderungen in die Bitmap des Nutzers. Muss zwischen
+     * {@link #beginChange(String)} und {@link #endChange(String)} laufen und darf nur tatsaechlich
+     * eingefuegte bzw. geloeschte IDs erhalten.
+     *
+     * @return Stand vor der Aenderung
+     */
+    public FavouriteBitmap apply(String username, Collection<Long> added, Collection<Long> removed) {
+        FavouriteBitmap before = entries.get(username);
+        if (before == null) {
+            // Die Aenderung ist schon committed: Vorher-Stand aus dem geladenen Stand zurueckrechnen
+            FavouriteBitmap after = load(username);
+            before = after.withChanges(after.getVersion(), removed, added);
+        }
+        entries.put(username, before.withChanges(versions.incrementAndGet(), added, removed));
+        return before;
+    }
+
+    /**
+     * Entfernt einen geloeschten Charakter aus allen gecachten Bitmaps. Wird nach dem Commit der
+     * Loeschung aufgerufen; ohne das wuerde {@link #apply} den Charakter weiter im Vorher-Stand
+     * liefern und die Co-Favoriten-Matrix Paare mit ihm neu anlegen.
+     * <p>
+     * Zuerst wird der Zaehler jedes Streifens unter dessen Sperre erhoeht, damit Ladevorgaenge, die
+     * vor dem Commit gelesen haben, nichts mehr ablegen. Betroffene Nutzer werden danach unter
+     * ihrer Sperre angepasst, laufende Aenderungen also erst abgewartet.
+     * </p>
+     */
+    public void removeCharacter(long characterId) {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            userLocks[stripe].lock();
+            try {
+                stripeChanges.incrementAndGet(stripe);
+            } finally {
+                userLocks[stripe].unlock();
+            }
+        }
+        List<String> affected = new ArrayList<>();
+        entries.forEach((username, bitmap) -> {
+            if (bitmap.contains(characterId)) {
+                affected.add(username);
+            }
+        });
+        List<Long> removed = List.of(characterId);
+        for (String username : affected) {
+            ReentrantLock lock = userLocks[stripeOf(username)];
+            lock.lock();
+            try {
+                FavouriteBitmap cached = entries.get(username);
+                if (cached != null && cached.contains(characterId)) {
+                    entries.put(username, cached.withChanges(versions.incrementAndGet(), List.of(), removed));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Streifen eines Nutzers (mehrere Nutzer teilen sich Sperre und Aenderungszaehler).
+     */
+    private static int stripeOf(String username) {
+        return Math.floorMod(username.hashCode(), STRIPES);
+    }
+
+    private FavouriteBitmap load(String username) {
+        long[] ids = userRepository.findFavouriteIds(username, 0L, Limit.unlimited())
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        return FavouriteBitmap.of(versions.incrementAndGet(), ids);
+    }
+
+    /**
+     * Anzahl gecachter Nutzer.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
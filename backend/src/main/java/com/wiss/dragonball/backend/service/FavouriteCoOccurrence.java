@@ -0,0 +1,370 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.repository.FavouriteBatchRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Duenn besetzte Co-Favoriten-Matrix: wie viele Nutzer zwei Charaktere gemeinsam favorisiert haben.
+ * <p>
+ * Die Matrix liegt symmetrisch im Speicher (Zeile pro Charakter, nur Paare mit mindestens einem
+ * gemeinsamen Nutzer) und wird bei jedem Hinzufuegen oder Entfernen eines Favoriten inkrementell
+ * angepasst: ein neuer Favorit zaehlt ein Paar mit jedem bisherigen Favoriten des Nutzers. Dafuer
+ * braucht es den Stand vor der Aenderung, den {@link FavouriteBitmapCache#apply} liefert.
+ * </p>
+ * <p>
+ * Periodisch und beim Herunterfahren wird ein Checkpoint auf die Platte geschrieben. Er enthaelt
+ * einen Fingerabdruck von {@code user_favourite} (Zeilen, ID-Summe, Quadratsumme); passt dieser
+ * beim Start zur Datenbank, wird der Checkpoint geladen, sonst die Matrix in einem Durchlauf
+ * ueber {@code user_favourite} neu aufgebaut.
+ * </p>
+ */
+@Component
+public class FavouriteCoOccurrence implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(FavouriteCoOccurrence.class);
+
+    private static final int CHECKPOINT_MAGIC = 0x44424346;
+    private static final int CHECKPOINT_FORMAT = 1;
+
+    private static final Comparator<FavouriteCounters.FavouriteCount> BY_COUNT =
+            Comparator.comparingLong(FavouriteCounters.FavouriteCount::count).reversed()
+                    .thenComparing(FavouriteCounters.FavouriteCount::characterId);
+
+    private final FavouriteBatchRepository favouriteBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path checkpointPath;
+    private final ScheduledExecutorService checkpointer;
+    private final long checkpointIntervalMs;
+
+    private final Map<Long, Map<Long, Long>> rows = new ConcurrentHashMap<>();
+
+    /**
+     * Updates laufen parallel unter der Lese-Sperre; Checkpoint und Neuaufbau brauchen die
+     * Schreib-Sperre, damit Matrix und Fingerabdruck zueinander passen.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long fingerprintRows;
+    private long fingerprintIdSum;
+    private long fingerprintIdSquareSum;
+    private boolean loaded;
+
+    public FavouriteCoOccurrence(FavouriteBatchRepository favouriteBatchRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${favourites.co-occurrence.checkpoint-path:}") String checkpointPath,
+                                 @Value("${favourites.co-occurrence.checkpoint-interval-ms:300000}") long checkpointIntervalMs) {
+        this.favouriteBatchRepository = favouriteBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.checkpointPath = checkpointPath == null || checkpointPath.isBlank() ? null : Path.of(checkpointPath);
+        this.checkpointIntervalMs = Math.max(1000, checkpointIntervalMs);
+        if (this.checkpointPath == null) {
+            this.checkpointer = null;
+            return;
+        }
+        // Der Thread startet erst mit der ersten geplanten Aufgabe, siehe afterSingletonsInstantiated()
+        this.checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "favourite-co-occurrence-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Laedt die Matrix, bevor der Webserver Anfragen annimmt, und startet erst danach die
+     * periodischen Checkpoints. Sonst gingen Paare aus Favoriten-Aenderungen zwischen Serverstart
+     * und Neuaufbau verloren, und ein frueher Checkpoint koennte den gueltigen mit einer leeren
+     * Matrix ueberschreiben.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+        if (checkpointer != null) {
+            checkpointer.scheduleWithFixedDelay(this::checkpointQuietly, checkpointIntervalMs, checkpointIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Uebernimmt die Aenderungen eines Nutzers. Zuerst werden die Entfernungen, dann die
+     * Hinzufuegungen nacheinander auf den Vorher-Stand angewendet.
+     *
+     * @param before  Favoriten des Nutzers vor der Aenderung
+     * @param added   tatsaechlich hinzugefuegte Charakter-IDs
+     * @param removed tatsaechlich entfernte Charakter-IDs
+     */
+    public void record(FavouriteBitmap before, Collection<Long> added, Collection<Long> removed) {
+        TreeSet<Long> favourites = new TreeSet<>();
+        for (long id : before.toArray()) {
+            favourites.add(id);
+        }
+        lock.readLock().lock();
+        try {
+            for (Long id : removed) {
+                if (favourites.remove(id)) {
+                    favourites.forEach(other -> addPair(id, other, -1));
+                    addToFingerprint(id, -1);
+                }
+            }
+            for (Long id : added) {
+                if (!favourites.contains(id)) {
+                    favourites.forEach(other -> addPair(id, other, 1));
+                    favourites.add(id);
+                    addToFingerprint(id, 1);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Liefert die Charaktere, die am haeufigsten zusammen mit {@code characterId} favorisiert
+     * wurden, absteigend nach Anzahl gemeinsamer Nutzer und bei Gleichstand nach ID.
+     */
+    public List<FavouriteCounters.FavouriteCount> related(Long characterId, int limit) {
+        Map<Long, Long> row = rows.get(characterId);
+        if (row == null || limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<FavouriteCounters.FavouriteCount> heap = new PriorityQueue<>(limit + 1, BY_COUNT.reversed());
+        row.forEach((other, count) -> {
+            FavouriteCounters.FavouriteCount candidate = new FavouriteCounters.FavouriteCount(other, count);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (BY_COUNT.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+        List<FavouriteCounters.FavouriteCount> result = new ArrayList<>(heap);
+        result.sort(BY_COUNT);
+        return result;
+    }
+
+    /**
+     * Entfernt einen geloeschten Charakter samt seiner Favoriten-Zeilen aus Matrix und Fingerabdruck.
+     *
+     * @param deletedFavourites Anzahl geloeschter Zeilen in {@code user_favourite}
+     */
+    public void removeCharacter(Long characterId, int deletedFavourites) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> row = rows.remove(characterId);
+            if (row != null) {
+                row.keySet().forEach(other -> {
+                    Map<Long, Long> otherRow = rows.get(other);
+                    if (otherRow != null) {
+                        otherRow.remove(characterId);
+                    }
+                });
+            }
+            addToFingerprint(characterId, -deletedFavourites);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Laedt beim Start den Checkpoint, wenn er zum aktuellen Stand von {@code user_favourite}
+     * passt, und baut die Matrix sonst aus der Datenbank neu auf. Der Fingerabdruck wird unter
+     * der Schreib-Sperre gelesen, damit kein {@link #record} zwischen Lesen und Laden faellt.
+     */
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            long[] fingerprint = favouriteBatchRepository.favouriteFingerprint();
+            if (!restoreCheckpoint(fingerprint)) {
+                rebuild();
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Schreibt die Matrix mit Fingerabdruck in eine temporaere Datei und ersetzt den alten
+     * Checkpoint atomar. Ohne konfigurierten Pfad oder vor dem Laden passiert nichts.
+     *
+     * @return Anzahl geschriebener Paare
+     */
+    public int checkpoint() throws IOException {
+        if (checkpointPath == null) {
+            return 0;
+        }
+        List<long[]> pairs = new ArrayList<>();
+        long[] fingerprint;
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return 0;
+            }
+            rows.forEach((id, row) -> row.forEach((other, count) -> {
+                if (id < other) {
+                    pairs.add(new long[]{id, other, count});
+                }
+            }));
+            fingerprint = new long[]{fingerprintRows, fingerprintIdSum, fingerprintIdSquareSum};
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Path directory = checkpointPath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, checkpointPath.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(CHECKPOINT_FORMAT);
+                for (long value : fingerprint) {
+                    out.writeLong(value);
+                }
+                out.writeInt(pairs.size());
+                for (long[] pair : pairs) {
+                    out.writeLong(pair[0]);
+                    out.writeLong(pair[1]);
+                    out.writeLong(pair[2]);
+                }
+            }
+            Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return pairs.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            checkpointQuietly();
+        }
+    }
+
+    private boolean restoreCheckpoint(long[] fingerprint) {
+        if (checkpointPath == null || !Files.isReadable(checkpointPath)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_FORMAT) {
+                return false;
+            }
+            long[] stored = {in.readLong(), in.readLong(), in.readLong()};
+            if (stored[0] != fingerprint[0] || stored[1] != fingerprint[1] || stored[2] != fingerprint[2]) {
+                return false;
+            }
+            rows.clear();
+            int pairs = in.readInt();
+            for (int i = 0; i < pairs; i++) {
+                long id = in.readLong();
+                long other = in.readLong();
+                long count = in.readLong();
+                addPair(id, other, count);
+            }
+            setFingerprint(stored);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read favourite co-occurrence checkpoint {}, rebuilding", checkpointPath, e);
+            return false;
+        }
+    }
+
+    /**
+     * Baut Matrix und Fingerabdruck in einem Durchlauf ueber {@code user_favourite} neu auf
+     * (nach Nutzer sortiert, Paare pro Nutzer).
+     */
+    private void rebuild() {
+        rows.clear();
+        long[] fingerprint = new long[3];
+        List<Long> userFavourites = new ArrayList<>();
+        long[] currentUser = {Long.MIN_VALUE};
+        transactionTemplate.executeWithoutResult(status -> favouriteBatchRepository.forEachFavouriteByUser(
+                (userId, characterId) -> {
+                    if (userId != currentUser[0]) {
+                        addAllPairs(userFavourites);
+                        userFavourites.clear();
+                        currentUser[0] = userId;
+                    }
+                    userFavourites.add(characterId);
+                    fingerprint[0]++;
+                    fingerprint[1] += characterId;
+                    fingerprint[2] += squareMod(characterId);
+                }));
+        addAllPairs(userFavourites);
+        setFingerprint(fingerprint);
+    }
+
+    private void addAllPairs(List<Long> favourites) {
+        for (int i = 0; i < favourites.size(); i++) {
+            for (int j = i + 1; j < favourites.size(); j++) {
+                addPair(favourites.get(i), favourites.get(j), 1);
+            }
+        }
+    }
+
+    private void addPair(Long id, Long other, long delta) {
+        if (id.equals(other)) {
+            return;
+        }
+        addDirected(id, other, delta);
+        addDirected(other, id, delta);
+    }
+
+    private void addDirected(Long id, Long other, long delta) {
+        rows.computeIfAbsent(id, key -> new ConcurrentHashMap<>())
+                .merge(other, delta, (current, change) -> current + change > 0 ? current + change : null);
+    }
+
+    private synchronized void addToFingerprint(long characterId, long rowDelta) {
+        fingerprintRows += rowDelta;
+        fingerprintIdSum += rowDelta * characterId;
+        fingerprintIdSquareSum += rowDelta * squareMod(characterId);
+    }
+
+    private synchronized void setFingerprint(long[] fingerprint) {
+        fingerprintRows = fingerprint[0];
+        fingerprintIdSum = fingerprint[1];
+        fingerprintIdSquareSum = fingerprint[2];
+    }
+
+    private static long squareMod(long characterId) {
+        return Math.floorMod(characterId * characterId, FavouriteBatchRepository.FINGERPRINT_MODULUS);
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Writing favourite co-occurrence checkpoint {} failed", checkpointPath, e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.repository.FavouriteBatchRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Favoriten-Zaehler pro Charakter fuer die Beliebtheits-Rangliste.
+ * <p>
+ * Jeder Charakter hat einen {@link AtomicLong} mit der aktuellen Anzahl und den zuletzt in
+ * {@code character.favourite_count} geschriebenen Stand; die offene Differenz ist ihr Unterschied.
+ * Hinzufuegen und Entfernen von Favoriten zaehlen damit ohne Lock und ohne Datenbankzugriff, und
+ * ein Flush aendert nur den gespeicherten Stand, sodass Leser ihn nie halb sehen. Ein
+ * Hintergrund-Thread schreibt die aufgelaufenen Differenzen periodisch als ein JDBC-Batch weg.
+ * </p>
+ * <p>
+ * Beim Start, bevor der Webserver Anfragen annimmt, werden die Zaehler aus {@code user_favourite}
+ * neu berechnet. Damit korrigieren sich auch Differenzen, die bei einem Absturz vor dem naechsten
+ * Flush verloren gegangen sind. Erst danach beginnt das periodische Flushen.
+ * </p>
+ */
+@Component
+public class FavouriteCounters implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(FavouriteCounters.class);
+
+    /**
+     * Charakter-ID und aktuelle Anzahl Favoriten.
+     */
+    public record FavouriteCount(Long characterId, long count) {
+    }
+
+    private static final Comparator<FavouriteCount> BY_POPULARITY =
+            Comparator.comparingLong(FavouriteCount::count).reversed()
+                    .thenComparing(FavouriteCount::characterId);
+
+    private final FavouriteBatchRepository favouriteBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService flusher;
+    private final long flushIntervalMs;
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public FavouriteCounters(FavouriteBatchRepository favouriteBatchRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${favourites.counter.flush-interval-ms:5000}") long flushIntervalMs) {
+        this.favouriteBatchRepository = favouriteBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushIntervalMs = Math.max(100, flushIntervalMs);
+        // Der Thread startet erst mit der ersten geplanten Aufgabe, siehe afterSingletonsInstantiated()
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "favourite-counter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gleicht die Zaehler ab, bevor der Webserver Anfragen annimmt, und startet danach das Flushen.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Zaehlt einen neu hinzugefuegten Favoriten.
+     */
+    public void increment(Long characterId) {
+        counter(characterId).current.incrementAndGet();
+    }
+
+    /**
+     * Zaehlt einen entfernten Favoriten.
+     */
+    public void decrement(Long characterId) {
+        counter(characterId).current.decrementAndGet();
+    }
+
+    /**
+     * Vergisst den Zaehler eines geloeschten Charakters samt ungespeicherter Differenz. Ein
+     * gleichzeitiger Flush schreibt hoechstens auf die geloeschte Zeile (ohne Wirkung) und
+     * aktualisiert den nicht mehr erreichbaren Zaehler.
+     */
+    public void remove(Long characterId) {
+        counters.remove(characterId);
+    }
+
+    /**
+     * Aktuelle Anzahl Favoriten eines Charakters (gespeicherter Stand plus offene Differenz).
+     */
+    public long count(Long characterId) {
+        Counter counter = counters.get(characterId);
+        return counter != null ? counter.current.get() : 0;
+    }
+
+    /**
+     * Liefert die {@code limit} meistfavorisierten Charaktere, absteigend nach Anzahl und bei
+     * Gleichstand nach ID. Ein Min-Heap der Groesse {@code limit} haelt den Aufwand bei O(n log k).
+     */
+    public List<FavouriteCount> top(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<FavouriteCount> heap = new PriorityQueue<>(limit + 1, BY_POPULARITY.reversed());
+        counters.forEach((id, counter) -> {
+            long count = counter.current.get();
+            if (count <= 0) {
+                return;
+            }
+            FavouriteCount candidate = new FavouriteCount(id, count);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (BY_POPULARITY.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+        List<FavouriteCount> result = new ArrayList<>(heap);
+        result.sort(BY_POPULARITY);
+        return result;
+    }
+
+    /**
+     * Schreibt alle offenen Differenzen in einer Transaktion nach {@code favourite_count}.
+     * Schlaegt das fehl, bleiben die Differenzen stehen und werden beim naechsten Lauf erneut versucht.
+     *
+     * @return Anzahl aktualisierter Charaktere
+     */
+    public synchronized int flush() {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        Map<Long, Counter> flushed = new LinkedHashMap<>();
+        counters.forEach((id, counter) -> {
+            long delta = counter.current.get() - counter.persisted;
+            if (delta != 0) {
+                deltas.put(id, delta);
+                flushed.put(id, counter);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> favouriteBatchRepository.addToFavouriteCounts(deltas));
+        // Nur den geschriebenen Anteil uebernehmen; parallele Aenderungen bleiben fuer den naechsten Lauf offen.
+        // Die aktuelle Anzahl bleibt unberuehrt, Leser sehen den Flush also gar nicht.
+        flushed.forEach((id, counter) -> counter.persisted += deltas.get(id));
+        return deltas.size();
+    }
+
+    /**
+     * Berechnet {@code favourite_count} aus {@code user_favourite} neu und uebernimmt die Werte.
+     * <p>
+     * Aenderungen, die vor der Neuberechnung gezaehlt wurden, stecken bereits in ihr (gezaehlt wird
+     * nach dem Commit) und werden verworfen; waehrenddessen gezaehlte bleiben als offene Differenz
+     * erhalten. Laeuft beim Start, bevor Anfragen Favoriten aendern koennen; spaeter aufgerufen kann
+     * ein Favorit, der waehrend der Neuberechnung committet, doppelt zaehlen.
+     * </p>
+     */
+    public synchronized void reconcile() {
+        Map<Counter, Long> countedBefore = new HashMap<>();
+        counters.values().forEach(counter -> countedBefore.put(counter, counter.current.get()));
+        Map<Long, Long> counts = transactionTemplate.execute(status -> {
+            favouriteBatchRepository.reconcileFavouriteCounts();
+            return favouriteBatchRepository.findFavouriteCounts();
+        });
+        counters.forEach((id, counter) -> {
+            long recomputed = counts.getOrDefault(id, 0L);
+            counter.current.addAndGet(recomputed - countedBefore.getOrDefault(counter, 0L));
+            counter.persisted = recomputed;
+        });
+        counts.forEach((id, count) -> {
+            if (!counters.containsKey(id)) {
+                Counter counter = counter(id);
+                counter.current.addAndGet(count);
+                counter.persisted = count;
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flushing favourite counters failed, retrying on the next run", e);
+        }
+    }
+
+    private Counter counter(Long characterId) {
+        return counters.computeIfAbsent(characterId, id -> new Counter());
+    }
+
+    private static final class Counter {
+        /** Aktuelle Anzahl inklusive noch nicht geschriebener Aenderungen. */
+        private final AtomicLong current = new AtomicLong();
+        /** Zuletzt geschriebener Stand; nur unter dem Monitor von flush/reconcile geaendert. */
+        private long persisted;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wiss.dragonball.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Map;
+
+/**
+ * JSON Merge Patch nach RFC 7396.
+ * <p>
+ * Felder des Patches ersetzen die gleichnamigen Felder des Ziels, {@code null} entfernt ein Feld,
+ * verschachtelte Objekte werden rekursiv gemischt. Arrays und alle anderen Werte werden als Ganzes
+ * ersetzt.
+ * </p>
+ */
+final class JsonMergePatch {
+
+    private JsonMergePatch() {}
+
+    /**
+     * Wendet den Patch auf eine Kopie des Ziels an; das Ziel selbst bleibt unveraendert.
+     */
+    static JsonNode apply(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            return patch == null ? null : patch.deepCopy();
+        }
+        ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        for (Map.Entry<String, JsonNode> field : patch.properties()) {
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), apply(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+}
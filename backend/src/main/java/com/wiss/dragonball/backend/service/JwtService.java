@@ -1,39 +1,104 @@
 package com.wiss.dragonball.backend.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service stellt Methoden bereit, um JWTs zu erzeugen und zu validieren.
  * Das Secret muss mindestens 32 Zeichen lang sein und wird aus der
- * Umgebungsvariable {@code JWT_SECRET} geladen. Die Ablaufzeit des Tokens
- * wird über {@code jwt.expiration-ms} (Default: 86400000 ms = 24 h) gesteuert.
+ * Umgebungsvariable {@code JWT_SECRET} geladen. Access-Tokens sind kurzlebig
+ * ({@code jwt.expiration-ms}, Default: 600000 ms = 10 min) und werden ueber
+ * Refresh-Tokens ({@code jwt.refresh-expiration-ms}, Default: 14 Tage) erneuert.
  * Zusätzlich werden die Rollen des Benutzers als Claim "roles" gespeichert.
+ * <p>
+ * Der Parser wird einmalig erstellt und wiederverwendet. Bereits verifizierte Tokens landen
+ * in einem begrenzten Cache ({@code jwt.verified-cache-size}, Default 10000), sodass
+ * wiederholte Anfragen mit demselben Token Signatur und JSON nicht erneut pruefen muessen.
+ * </p>
  */
 @Service
 public class JwtService {
+    /** Claim mit den kommaseparierten Rollen des Benutzers. */
+    public static final String ROLES_CLAIM = "roles";
+    /** Claim mit der Token-Generation des Benutzers zum Ausstellungszeitpunkt. */
+    public static final String GENERATION_CLAIM = "gen";
+    /** Claim mit dem Token-Typ; nur Refresh-Tokens tragen ihn ({@value #REFRESH_TOKEN_TYPE}). */
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+    /** Claim mit der Benutzer-ID (nur in Refresh-Tokens, damit die Rotation ohne app_user auskommt). */
+    public static final String USER_ID_CLAIM = "uid";
+
     private final Key signingKey;
     private final long jwtExpirationMs;
+    private final long refreshExpirationMs;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
     public JwtService(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration-ms:86400000}") long jwtExpirationMs) {
+            @Value("${jwt.expiration-ms:600000}") long jwtExpirationMs,
+            @Value("${jwt.refresh-expiration-ms:1209600000}") long refreshExpirationMs,
+            @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
         if (secret == null || secret.length() < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 32 characters long");
         }
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.jwtExpirationMs = jwtExpirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
+    }
+
+    /**
+     * Verifiziert ein Token genau einmal und liefert dessen Claims.
+     * <p>
+     * Signatur und Ablaufdatum werden nur beim ersten Auftreten eines Tokens geprueft; danach
+     * kommen die Claims bis zum {@code exp}-Zeitpunkt aus dem Cache.
+     * </p>
+     *
+     * @param token kompaktes JWT ohne "Bearer "-Prefix
+     * @return Claims oder {@code null}, wenn das Token ungueltig oder abgelaufen ist
+     */
+    public Claims verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Claims cached = verifiedTokens.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verifiedTokens.put(token, claims, expiration.getTime(), now);
+        }
+        return claims;
     }
 
     /** Extrahiert den Benutzernamen (Subject) aus dem Token. */
@@ -47,37 +112,93 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    /** Erzeugt ein signiertes JWT für einen Benutzer und speichert die Rollen als Claim "roles". */
-    public String generateToken(UserDetails userDetails) {
-        // Rollen sammeln und als kommaseparierte Liste ablegen
-        String roles = userDetails.getAuthorities().stream()
-                .map(authority -> authority.getAuthority())
-                .collect(Collectors.joining(","));
+    /**
+     * Erzeugt ein signiertes JWT für einen Benutzer und speichert die Rollen als Claim "roles"
+     * sowie die aktuelle Token-Generation als Claim "gen".
+     */
+    public String generateToken(UserDetails userDetails, long tokenGeneration) {
+        return generateToken(userDetails.getUsername(), joinRoles(userDetails), tokenGeneration);
+    }
+
+    /**
+     * Erzeugt ein kurzlebiges Access-Token aus bereits bekannten Angaben (z.B. aus einem Refresh-Token).
+     *
+     * @param username        Benutzername (Subject)
+     * @param roles           kommaseparierte Rollen, z.B. {@code ROLE_PLAYER}
+     * @param tokenGeneration aktuelle Token-Generation des Benutzers
+     */
+    public String generateToken(String username, String roles, long tokenGeneration) {
         return Jwts.builder()
-                .claim("roles", roles)
-                .setSubject(userDetails.getUsername())
+                .claim(ROLES_CLAIM, roles)
+                .claim(GENERATION_CLAIM, tokenGeneration)
+                .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    /** Prüft, ob das Token zum Benutzer gehört und nicht abgelaufen ist. */
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Erzeugt einen langlebigen Refresh-Token. Er enthaelt eine zufaellige ID ({@code jti}),
+     * damit jeder Token eindeutig ist, und wird nur am Refresh-Endpunkt akzeptiert.
+     */
+    public String generateRefreshToken(String username, String roles, long tokenGeneration, Long userId) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
+                .claim(ROLES_CLAIM, roles)
+                .claim(GENERATION_CLAIM, tokenGeneration)
+                .claim(USER_ID_CLAIM, userId)
+                .setSubject(username)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + refreshExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /** Lebensdauer neu ausgestellter Refresh-Tokens in Millisekunden. */
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
+    }
+
+    /** Sammelt die Rollen eines Benutzers als kommaseparierte Liste. */
+    public static String joinRoles(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(authority -> authority.getAuthority())
+                .collect(Collectors.joining(","));
+    }
+
+    /** Prueft, ob verifizierte Claims zu einem Refresh-Token gehoeren. */
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM));
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = extractClaim(token, Claims::getExpiration);
-        return expiration.before(new Date());
+    /** Liest die Token-Generation aus verifizierten Claims; aeltere Tokens ohne Claim gelten als Generation 0. */
+    public static long extractGeneration(Claims claims) {
+        Object generation = claims.get(GENERATION_CLAIM);
+        return generation instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /** Baut die Authorities aus dem Claim "roles" verifizierter Claims. */
+    public static List<GrantedAuthority> extractAuthorities(Claims claims) {
+        String roles = claims.get(ROLES_CLAIM, String.class);
+        if (roles == null || roles.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    /** Prüft, ob das Token zum Benutzer gehört und nicht abgelaufen ist. */
+    public boolean validateToken(String token, UserDetails userDetails) {
+        final Claims claims = verifyToken(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,163 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.entity.RefreshToken;
+import com.wiss.dragonball.backend.exception.InvalidRefreshTokenException;
+import com.wiss.dragonball.backend.repository.RefreshTokenRepository;
+import com.wiss.dragonball.backend.security.TokenGenerationTable;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Service fuer Ausstellung, Rotation und Widerruf von Refresh-Tokens.
+ * <p>
+ * In der Datenbank steht nur der SHA-256-Hash jedes Tokens. Beim Einloesen wird der Token
+ * per bedingtem Update genau einmal als widerrufen markiert und durch ein neues Paar aus
+ * Access- und Refresh-Token ersetzt. Der Refresh kommt dabei ohne Passwort-Hashing und ohne
+ * Zugriff auf {@code app_user} aus: Signatur (HMAC), Widerrufsliste und Token-Generation
+ * werden im Speicher geprueft, Rollen und Benutzer-ID stammen aus den Claims.
+ * </p>
+ * <p>
+ * Widerrufene Tokens landen im {@link RevokedTokenFilter}, der beim Start aus der Datenbank
+ * aufgebaut wird. Wird ein bereits eingeloester Token erneut vorgelegt, gilt er als gestohlen
+ * und alle Tokens des Benutzers werden ueber die Token-Generation widerrufen.
+ * </p>
+ */
+@Service
+public class RefreshTokenService {
+
+    /**
+     * Neu ausgestelltes Token-Paar samt den Angaben aus den Claims.
+     */
+    public record IssuedTokens(String accessToken, String refreshToken, String username, String roles, Long userId) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TokenGenerationTable tokenGenerations;
+    private final UserService userService;
+    private final RevokedTokenFilter revokedTokens;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtService jwtService,
+                               TokenGenerationTable tokenGenerations,
+                               UserService userService,
+                               @Value("${jwt.revocation.expected-entries:100000}") int expectedRevocations) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.tokenGenerations = tokenGenerations;
+        this.userService = userService;
+        this.revokedTokens = new RevokedTokenFilter(expectedRevocations);
+    }
+
+    /**
+     * Stellt einen neuen Refresh-Token aus und speichert dessen Hash.
+     *
+     * @param username        Benutzername (Subject)
+     * @param roles           kommaseparierte Rollen, z.B. {@code ROLE_PLAYER}
+     * @param tokenGeneration aktuelle Token-Generation des Benutzers
+     * @param userId          ID des Benutzers
+     * @return kompakter Refresh-Token
+     */
+    @Transactional
+    public String issue(String username, String roles, long tokenGeneration, Long userId) {
+        String token = jwtService.generateRefreshToken(username, roles, tokenGeneration, userId);
+        Instant expiresAt = Instant.now().plusMillis(jwtService.getRefreshExpirationMs());
+        refreshTokenRepository.save(new RefreshToken(sha256Hex(token), username, expiresAt));
+        return token;
+    }
+
+    /**
+     * Loest einen Refresh-Token ein und liefert ein neues Token-Paar.
+     *
+     * @throws InvalidRefreshTokenException wenn der Token ungueltig, abgelaufen, widerrufen
+     *                                      oder bereits eingeloest ist
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public IssuedTokens rotate(String refreshToken) {
+        Claims claims = verifyRefreshToken(refreshToken);
+        if (claims == null) {
+            throw new InvalidRefreshTokenException("Refresh token is invalid or expired");
+        }
+        String username = claims.getSubject();
+        String tokenHash = sha256Hex(refreshToken);
+        long now = System.currentTimeMillis();
+
+        if (revokedTokens.isRevoked(tokenHash, now)) {
+            // Wiederverwendung eines rotierten Tokens: vermutlich gestohlen, daher alles widerrufen
+            userService.revokeTokens(username);
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        long generation = JwtService.extractGeneration(claims);
+        if (!tokenGenerations.isCurrent(username, generation)) {
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+        if (refreshTokenRepository.revokeActive(tokenHash, Instant.ofEpochMilli(now)) != 1) {
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        // Sofort eintragen: laeuft eine parallele Anfrage mit demselben Token, wird sie abgelehnt
+        revokedTokens.add(tokenHash, claims.getExpiration().getTime(), now);
+
+        String roles = claims.get(JwtService.ROLES_CLAIM, String.class);
+        Long userId = claims.get(JwtService.USER_ID_CLAIM, Long.class);
+        String accessToken = jwtService.generateToken(username, roles, generation);
+        String newRefreshToken = issue(username, roles, generation, userId);
+        return new IssuedTokens(accessToken, newRefreshToken, username, roles, userId);
+    }
+
+    /**
+     * Widerruft einen Refresh-Token (Logout). Unbekannte oder ungueltige Tokens werden ignoriert.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        Claims claims = verifyRefreshToken(refreshToken);
+        if (claims == null) {
+            return;
+        }
+        String tokenHash = sha256Hex(refreshToken);
+        long now = System.currentTimeMillis();
+        if (refreshTokenRepository.revokeActive(tokenHash, Instant.ofEpochMilli(now)) == 1) {
+            revokedTokens.add(tokenHash, claims.getExpiration().getTime(), now);
+        }
+    }
+
+    /**
+     * Entfernt beim Start abgelaufene Tokens und baut die Widerrufsliste aus der Datenbank auf.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadRevokedTokens() {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpired(now);
+        Map<String, Long> revoked = new HashMap<>();
+        for (RefreshToken token : refreshTokenRepository.findRevokedNotExpired(now)) {
+            revoked.put(token.getTokenHash(), token.getExpiresAt().toEpochMilli());
+        }
+        revokedTokens.rebuild(revoked, now.toEpochMilli());
+    }
+
+    private Claims verifyRefreshToken(String refreshToken) {
+        Claims claims = jwtService.verifyToken(refreshToken);
+        return claims != null && JwtService.isRefreshToken(claims) ? claims : null;
+    }
+
+    static String sha256Hex(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
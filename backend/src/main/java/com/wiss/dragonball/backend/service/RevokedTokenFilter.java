@@ -0,0 +1,139 @@
+package com.wiss.dragonball.backend.service;
+
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-Memory-Widerrufsliste fuer Refresh-Tokens: Bloom-Filter plus exakte Menge.
+ * <p>
+ * Schluessel ist der hexadezimale SHA-256-Hash des Tokens, wie er auch in der Tabelle
+ * {@code refresh_token} steht. Der Bloom-Filter beantwortet den Normalfall ("nicht widerrufen")
+ * ohne Map-Zugriff; nur bei einem Treffer wird die exakte Menge gefragt, sodass Fehlalarme
+ * (ca. 1 %) nie zu einer falschen Ablehnung fuehren. Die exakte Menge merkt sich den Ablauf
+ * jedes Tokens. Waechst sie ueber die erwartete Groesse, werden abgelaufene Eintraege entfernt
+ * und der Bloom-Filter neu aufgebaut, da sich aus ihm nichts loeschen laesst.
+ * </p>
+ * <p>
+ * Lesezugriffe sind lock-frei; Schreibzugriffe und Neuaufbau sind synchronisiert. Beim Start
+ * wird die Liste ueber {@link #rebuild(Map, long)} aus der Datenbank befuellt.
+ * </p>
+ */
+final class RevokedTokenFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final int expectedEntries;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom;
+
+    RevokedTokenFilter(int expectedEntries) {
+        this.expectedEntries = Math.max(1, expectedEntries);
+        this.bloom = new BloomFilter(this.expectedEntries);
+    }
+
+    /**
+     * Prueft, ob der Token-Hash widerrufen und noch nicht abgelaufen ist.
+     */
+    boolean isRevoked(String tokenHash, long nowMillis) {
+        if (!bloom.mightContain(tokenHash)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenHash);
+        return expiresAt != null && expiresAt > nowMillis;
+    }
+
+    /**
+     * Nimmt einen widerrufenen Token bis zu seinem Ablauf in die Liste auf.
+     */
+    synchronized void add(String tokenHash, long expiresAtMillis, long nowMillis) {
+        if (expiresAtMillis <= nowMillis) {
+            return;
+        }
+        // Erst die exakte Menge, dann der Bloom-Filter: wer das Bit sieht, findet auch den Eintrag
+        revoked.put(tokenHash, expiresAtMillis);
+        if (revoked.size() > bloom.capacity) {
+            rebuildBloom(nowMillis);
+        } else {
+            bloom.put(tokenHash);
+        }
+    }
+
+    /**
+     * Ersetzt den gesamten Inhalt, z.B. beim Start aus der Datenbank.
+     *
+     * @param entries Token-Hash auf Ablaufzeitpunkt in Millisekunden
+     */
+    synchronized void rebuild(Map<String, Long> entries, long nowMillis) {
+        revoked.clear();
+        revoked.putAll(entries);
+        rebuildBloom(nowMillis);
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    private void rebuildBloom(long nowMillis) {
+        revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        // Immer noch voll: Filter mit Reserve vergroessern statt bei jedem add neu aufzubauen
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::put);
+        bloom = rebuilt;
+    }
+
+    /**
+     * Bloom-Filter auf einem {@link AtomicLongArray} mit Double Hashing.
+     * Die beiden Basis-Hashes stammen direkt aus dem SHA-256-Hash des Tokens.
+     */
+    private static final class BloomFilter {
+        private final int capacity;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+
+        private BloomFilter(int capacity) {
+            this.capacity = capacity;
+            double ln2 = Math.log(2);
+            this.bitCount = Math.max(64, (long) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (ln2 * ln2)));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+            this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        private void put(String tokenHash) {
+            long h1 = firstHash(tokenHash);
+            long h2 = secondHash(tokenHash);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+            }
+        }
+
+        private boolean mightContain(String tokenHash) {
+            long h1 = firstHash(tokenHash);
+            long h2 = secondHash(tokenHash);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long firstHash(String tokenHash) {
+            return HexFormat.fromHexDigitsToLong(tokenHash, 0, 16);
+        }
+
+        private static long secondHash(String tokenHash) {
+            // Ungerade, damit die Folge h1 + i*h2 nicht auf wenige Bits zusammenfaellt
+            return HexFormat.fromHexDigitsToLong(tokenHash, 16, 32) | 1L;
+        }
+    }
+}
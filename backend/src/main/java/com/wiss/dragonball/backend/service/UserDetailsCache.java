@@ -0,0 +1,134 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.dto.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Groessen- und TTL-begrenzter Cache fuer {@link UserDetails} nach Benutzername.
+ * <p>
+ * Abgelegt werden unveraenderliche Kopien (ohne {@code CredentialsContainer}), damit Spring
+ * Security beim Loeschen der Credentials nach dem Login nicht den gecachten Eintrag veraendert.
+ * Jede Invalidierung erhoeht einen Zaehler; ein Ladevorgang, der waehrenddessen lief, legt sein
+ * Ergebnis nicht mehr ab und kann so keinen veralteten Stand zurueckschreiben. Der Zaehler wird
+ * dazu unter der Schreibsperre des {@link ClockCache} geprueft. Ist der Cache voll, verdraengt
+ * ein neuer Eintrag einen laenger nicht gelesenen (angenaehert LRU).
+ * </p>
+ */
+@Component
+public class UserDetailsCache {
+
+    private record Entry(UserDetails details, long expiresAtNanos) {
+    }
+
+    private final ClockCache<String, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final long ttlNanos;
+
+    public UserDetailsCache(@Value("${user-details-cache.max-size:10000}") int maxEntries,
+                            @Value("${user-details-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.entries = new ClockCache<>(maxEntries);
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Liefert die gecachten UserDetails oder laedt sie ueber den Loader nach.
+     * Ausnahmen des Loaders (z.B. {@code UsernameNotFoundException}) werden durchgereicht
+     * und nicht gecacht.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null) {
+            if (entry.expiresAtNanos() - now > 0) {
+                hits.increment();
+                return entry.details();
+            }
+            if (entries.remove(username, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+
+        long invalidationsBefore = invalidations.get();
+        UserDetails details = ImmutableUserDetails.copyOf(loader.apply(username));
+        entries.putIf(username, new Entry(details, now + ttlNanos),
+                () -> invalidations.get() == invalidationsBefore);
+        return details;
+    }
+
+    /**
+     * Entfernt den Eintrag eines Benutzers, z.B. nach Passwort- oder Rollenwechsel.
+     */
+    public void invalidate(String username) {
+        invalidations.incrementAndGet();
+        entries.remove(username);
+    }
+
+    /**
+     * Liefert Treffer-, Fehl- und Verdraengungszaehler.
+     */
+    public CacheStatsDTO stats() {
+        return new CacheStatsDTO("userDetails", hits.sum(), misses.sum(),
+                expirations.sum() + entries.evictions(), entries.size());
+    }
+
+    /**
+     * Unveraenderliche UserDetails-Kopie fuer den Cache.
+     */
+    private record ImmutableUserDetails(String username,
+                                        String password,
+                                        List<GrantedAuthority> authorities,
+                                        boolean accountNonExpired,
+                                        boolean accountNonLocked,
+                                        boolean credentialsNonExpired,
+                                        boolean enabled) implements UserDetails {
+
+        static UserDetails copyOf(UserDetails details) {
+            if (details instanceof ImmutableUserDetails) {
+                return details;
+            }
+            return new ImmutableUserDetails(details.getUsername(), details.getPassword(),
+                    List.copyOf(details.getAuthorities()), details.isAccountNonExpired(),
+                    details.isAccountNonLocked(), details.isCredentialsNonExpired(), details.isEnabled());
+        }
+
+        @Override
+        public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
+
+        @Override
+        public String getPassword() { return password; }
+
+        @Override
+        public String getUsername() { return username; }
+
+        @Override
+        public boolean isAccountNonExpired() { return accountNonExpired; }
+
+        @Override
+        public boolean isAccountNonLocked() { return accountNonLocked; }
+
+        @Override
+        public boolean isCredentialsNonExpired() { return credentialsNonExpired; }
+
+        @Override
+        public boolean isEnabled() { return enabled; }
+
+        @Override
+        public String toString() {
+            // Passwort-Hash nicht in Logs ausgeben
+            return "ImmutableUserDetails[username=" + username + ", authorities=" + authorities + "]";
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package com.wiss.dragonball.backend.service;
 
-import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.dto.CacheStatsDTO;
+import com.wiss.dragonball.backend.dto.FavouriteBatchRequestDTO;
+import com.wiss.dragonball.backend.dto.FavouriteBatchResultDTO;
 import com.wiss.dragonball.backend.entity.Role;
 import com.wiss.dragonball.backend.entity.User;
+import com.wiss.dragonball.backend.exception.CharacterNotFoundException;
+import com.wiss.dragonball.backend.exception.InvalidFavouriteBatchException;
 import com.wiss.dragonball.backend.repository.CharacterRepository;
+import com.wiss.dragonball.backend.repository.FavouriteBatchRepository;
 import com.wiss.dragonball.backend.repository.UserRepository;
+import com.wiss.dragonball.backend.security.TokenGenerationTable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Service für Benutzerverwaltung, Favoritenlisten
@@ -24,23 +40,45 @@ import java.util.Optional;
  * aus der Datenbank zu laden (wie im PDF des Lehrers).
  */
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final CharacterRepository characterRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenGenerationTable tokenGenerations;
+    private final UserDetailsCache userDetailsCache;
+    private final FavouriteBatchRepository favouriteBatchRepository;
+    private final FavouriteCounters favouriteCounters;
+    private final FavouriteBitmapCache favouriteBitmaps;
+    private final FavouriteCoOccurrence coOccurrence;
+
+    /** Maximale Anzahl IDs (hinzufuegen + entfernen) pro Favoriten-Batch. */
+    static final int MAX_FAVOURITE_BATCH_SIZE = 1000;
 
     public UserService(UserRepository userRepository,
                        CharacterRepository characterRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       TokenGenerationTable tokenGenerations,
+                       UserDetailsCache userDetailsCache,
+                       FavouriteBatchRepository favouriteBatchRepository,
+                       FavouriteCounters favouriteCounters,
+                       FavouriteBitmapCache favouriteBitmaps,
+                       FavouriteCoOccurrence coOccurrence) {
         this.userRepository = userRepository;
         this.characterRepository = characterRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenGenerations = tokenGenerations;
+        this.userDetailsCache = userDetailsCache;
+        this.favouriteBatchRepository = favouriteBatchRepository;
+        this.favouriteCounters = favouriteCounters;
+        this.favouriteBitmaps = favouriteBitmaps;
+        this.coOccurrence = coOccurrence;
     }
 
     /**
      * Wird von Spring Security verwendet, um einen User anhand des
-     * Usernames aus der Datenbank zu laden.
+     * Usernames aus der Datenbank zu laden. Ergebnisse werden im
+     * {@link UserDetailsCache} gehalten und bei Aenderungen gezielt verworfen.
      *
      * @param username Username (z.B. "admin", "player1")
      * @return UserDetails-Objekt (wird vom Security-Kontext verwendet)
@@ -48,6 +86,10 @@ public class UserService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadUserDetailsFromDatabase);
+    }
+
+    private UserDetails loadUserDetailsFromDatabase(String username) {
         User user = userRepository
                 .findByUsername(username)
                 .orElseThrow(() ->
@@ -67,8 +109,95 @@ public class UserService implements UserDetailsService {
      */
     @Transactional
     public User createUser(String username, String rawPassword, Role role) {
-        User user = new User(username, passwordEncoder.encode(rawPassword), role);
-        return userRepository.save(user);
+        return createUserWithEncodedPassword(username, encodePassword(rawPassword), role);
+    }
+
+    /**
+     * Berechnet den Hash eines Passworts ohne Datenbankzugriff, damit der
+     * {@link com.wiss.dragonball.backend.security.PasswordHashingExecutor} nur hasht.
+     */
+    public String encodePassword(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    /**
+     * Legt einen neuen Benutzer mit bereits gehashtem Passwort an.
+     */
+    @Transactional
+    public User createUserWithEncodedPassword(String username, String encodedPassword, Role role) {
+        User saved = userRepository.save(new User(username, encodedPassword, role));
+        evictCachedUser(username);
+        return saved;
+    }
+
+    /**
+     * Setzt ein neues Passwort (wird gehasht gespeichert) und verwirft den gecachten Nutzer.
+     */
+    @Transactional
+    public void changePassword(String username, String rawPassword) {
+        User user = loadUserOrThrow(username);
+        user.setPassword(passwordEncoder.encode(rawPassword));
+        evictCachedUser(username);
+    }
+
+    /**
+     * Wird von Spring Security nach einem erfolgreichen Login aufgerufen, wenn der
+     * gespeicherte Hash mit geringeren BCrypt-Kosten erstellt wurde als aktuell konfiguriert.
+     *
+     * @param user               authentifizierter Nutzer
+     * @param newEncodedPassword neu berechneter Hash des Passworts
+     * @return UserDetails mit dem neuen Hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newEncodedPassword) {
+        User entity = loadUserOrThrow(user.getUsername());
+        entity.setPassword(newEncodedPassword);
+        evictCachedUser(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newEncodedPassword)
+                .build();
+    }
+
+    /**
+     * Weist dem Nutzer eine neue Rolle zu. Bisherige Tokens werden dadurch ungueltig
+     * (siehe {@link User#setRole(Role)}) und der gecachte Nutzer wird verworfen.
+     */
+    @Transactional
+    public void changeRole(String username, Role role) {
+        User user = loadUserOrThrow(username);
+        user.setRole(role);
+        evictCachedUser(username);
+    }
+
+    /**
+     * Verwirft alle zwischengespeicherten Daten eines Nutzers (UserDetails und Token-Generation).
+     * Innerhalb einer Transaktion erst nach dem Commit, damit kein veralteter Stand nachgeladen wird.
+     */
+    public void evictCachedUser(String username) {
+        afterCommit(() -> {
+            userDetailsCache.invalidate(username);
+            tokenGenerations.refresh(username);
+        });
+    }
+
+    /**
+     * Liefert die Kennzahlen des UserDetails-Caches.
+     */
+    public CacheStatsDTO getUserDetailsCacheStats() {
+        return userDetailsCache.stats();
+    }
+
+    /**
+     * Widerruft alle bisher ausgestellten Tokens eines Nutzers, indem seine Token-Generation
+     * erhoeht wird. Die In-Memory-Tabelle wird nach dem Commit aufgefrischt.
+     */
+    @Transactional
+    public void revokeTokens(String username) {
+        if (userRepository.incrementTokenGeneration(username) == 0) {
+            throw new NoSuchElementException("User not found: " + username);
+        }
+        afterCommit(() -> tokenGenerations.refresh(username));
     }
 
     /**
@@ -80,44 +209,162 @@ public class UserService implements UserDetailsService {
 
     /**
      * Fügt den Charakter mit der angegebenen ID zu den Favoriten des Nutzers hinzu.
+     * <p>
+     * Ein einziges, idempotentes INSERT auf {@code user_favourite}; weder Nutzer noch
+     * Favoritenliste werden geladen. Ob der Charakter existiert, prueft der Fremdschluessel.
+     * Fuegt das INSERT keine Zeile ein, gibt es den Favoriten schon oder den Nutzer nicht; nur in
+     * diesem Fall wird der Nutzer nachgeschlagen. Bewusst ohne eigene Transaktion, damit ein verletzter Constraint keine umgebende
+     * Transaktion als rollback-only markiert. Nur ein tatsaechlich eingefuegter Favorit
+     * erhoeht den Beliebtheits-Zaehler.
+     * </p>
+     *
+     * @throws CharacterNotFoundException wenn es keinen Charakter mit dieser ID gibt
+     * @throws NoSuchElementException     wenn es keinen Nutzer mit diesem Namen gibt
      */
-    @Transactional
     public void addFavourite(String username, Long characterId) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new NoSuchElementException("User not found"));
-        Character character = characterRepository.findById(characterId)
-                .orElseThrow(() -> new NoSuchElementException("Character not found"));
-
-        user.addFavourite(character);
-        userRepository.save(user);
+        changingFavourites(username, () -> {
+            try {
+                if (userRepository.insertFavourite(username, characterId) == 1) {
+                    afterCommit(() -> favouritesChanged(username, List.of(characterId), List.of()));
+                } else if (userRepository.findIdByUsername(username).isEmpty()) {
+                    // Das INSERT ... SELECT findet keinen Nutzer und erreicht den Fremdschluessel nie
+                    throw new NoSuchElementException("User not found: " + username);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Fremdschluessel verletzt -> Charakter fehlt; sonst paralleler Doppelklick (Primaerschluessel)
+                if (!characterRepository.existsById(characterId)) {
+                    throw new CharacterNotFoundException(characterId);
+                }
+            }
+        });
     }
 
     /**
      * Entfernt den Charakter aus den Favoriten des Nutzers.
+     * Ein einziges, idempotentes DELETE auf {@code user_favourite}.
      */
-    @Transactional
     public void removeFavourite(String username, Long characterId) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new NoSuchElementException("User not found"));
-        Character character = characterRepository.findById(characterId)
-                .orElseThrow(() -> new NoSuchElementException("Character not found"));
+        changingFavourites(username, () -> {
+            if (userRepository.deleteFavourite(username, characterId) == 1) {
+                afterCommit(() -> favouritesChanged(username, List.of(), List.of(characterId)));
+            }
+        });
+    }
+
+    /**
+     * Fügt mehrere Favoriten hinzu und entfernt andere, alles in einer Transaktion.
+     * <p>
+     * Der Nutzer wird nur per ID aufgeloest, die Charaktere per einer einzigen IN-Abfrage
+     * geprueft; Einfuegen und Loeschen laufen jeweils als ein JDBC-Batch. Bereits vorhandene
+     * bzw. fehlende Favoriten werden ignoriert, unbekannte Charaktere im Ergebnis gemeldet.
+     * </p>
+     *
+     * @return tatsaechlich hinzugefuegte und entfernte sowie unbekannte IDs
+     * @throws InvalidFavouriteBatchException bei zu vielen IDs oder einer ID in beiden Listen
+     */
+    @Transactional
+    public FavouriteBatchResultDTO applyFavouriteBatch(String username, FavouriteBatchRequestDTO request) {
+        List<Long> add = distinctIds(request.getAdd());
+        List<Long> remove = distinctIds(request.getRemove());
+        if (add.size() + remove.size() > MAX_FAVOURITE_BATCH_SIZE) {
+            throw new InvalidFavouriteBatchException(
+                    "A batch may contain at most " + MAX_FAVOURITE_BATCH_SIZE + " character ids");
+        }
+        if (!Collections.disjoint(add, remove)) {
+            throw new InvalidFavouriteBatchException("A character id must not be added and removed in the same batch");
+        }
+        long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new NoSuchElementException("User not found: " + username));
 
-        user.removeFavourite(character);
-        userRepository.save(user);
+        List<Long> unknown = List.of();
+        if (!add.isEmpty()) {
+            Set<Long> existing = new HashSet<>(characterRepository.findExistingIds(add));
+            unknown = add.stream().filter(id -> !existing.contains(id)).toList();
+            add = add.stream().filter(existing::contains).toList();
+        }
+        List<Long> toAdd = add;
+        List<Long> unknownIds = unknown;
+        return changingFavourites(username, () -> {
+            List<Long> added = toAdd.isEmpty() ? List.of() : insertFavourites(userId, toAdd);
+            List<Long> removed = remove.isEmpty() ? List.of() : favouriteBatchRepository.deleteAll(userId, remove);
+            if (!added.isEmpty() || !removed.isEmpty()) {
+                afterCommit(() -> favouritesChanged(username, added, removed));
+            }
+            return new FavouriteBatchResultDTO(added, removed, unknownIds);
+        });
     }
 
     /**
-     * Gibt die Favoriten-Liste des Nutzers zurück.
-     * Transactional, damit die Lazy-Relationen fuer die JSON-Serialisierung
-     * initialisiert sind.
+     * Fuegt die Favoriten-Batch ein. Wurde ein Charakter zwischen Existenzpruefung und Insert
+     * geloescht, verletzt das den Fremdschluessel; das wird wie bei {@link #addFavourite} als
+     * unbekannter Charakter gemeldet statt als Serverfehler. Die Transaktion ist dann ohnehin
+     * abgebrochen, daher laesst sich der geloeschte Charakter nur bei einer einzelnen ID benennen.
      */
-    @Transactional(readOnly = true)
-    public List<Character> getFavourites(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new NoSuchElementException("User not found"));
-        return List.copyOf(user.getFavourites());
+    private List<Long> insertFavourites(long userId, List<Long> characterIds) {
+        try {
+            return favouriteBatchRepository.insertAll(userId, characterIds);
+        } catch (DuplicateKeyException e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw characterIds.size() == 1
+                    ? new CharacterNotFoundException(characterIds.getFirst())
+                    : new CharacterNotFoundException();
+        }
     }
 
+    /**
+     * Fuehrt eine Aenderung an den Favoriten des Nutzers aus, waehrend parallele Aenderungen
+     * desselben Nutzers warten. Die Sperre haelt bis zum Ende der umgebenden Transaktion, damit
+     * Bitmap und Co-Favoriten-Matrix die Aenderungen in Commit-Reihenfolge sehen.
+     */
+    private <T> T changingFavourites(String username, Supplier<T> change) {
+        favouriteBitmaps.beginChange(username);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return change.get();
+            } finally {
+                favouriteBitmaps.endChange(username);
+            }
+        }
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    favouriteBitmaps.endChange(username);
+                }
+            });
+        } catch (RuntimeException e) {
+            favouriteBitmaps.endChange(username);
+            throw e;
+        }
+        return change.get();
+    }
+
+    private void changingFavourites(String username, Runnable change) {
+        changingFavourites(username, () -> {
+            change.run();
+            return null;
+        });
+    }
+
+    /**
+     * Uebernimmt committete Favoriten-Aenderungen in Zaehler, Bitmap-Cache und Co-Favoriten-Matrix.
+     */
+    private void favouritesChanged(String username, List<Long> added, List<Long> removed) {
+        added.forEach(favouriteCounters::increment);
+        removed.forEach(favouriteCounters::decrement);
+        FavouriteBitmap before = favouriteBitmaps.apply(username, added, removed);
+        coOccurrence.record(before, added, removed);
+    }
+
+    private static List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+
 
     /**
      * Liefert alle Nutzer (z.B. für ADMIN-Endpunkte).
@@ -133,4 +380,17 @@ public class UserService implements UserDetailsService {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new NoSuchElementException("User not found: " + username));
     }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package com.wiss.dragonball.backend.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Begrenzter Cache fuer bereits verifizierte JWTs.
+ * <p>
+ * Schluessel ist der SHA-256-Hash des Tokens, damit keine Klartext-Tokens im Speicher
+ * gehalten werden. Ein Eintrag gilt nur bis zum {@code exp}-Claim des Tokens; abgelaufene
+ * Eintraege werden erst beim Lesen verworfen. Die Eintraege liegen in einem {@link ClockCache}:
+ * Treffer lesen ohne Sperre, authentifizierte Anfragen werden also nicht serialisiert. Ist der
+ * Cache voll, verdraengt ein neuer Eintrag einen laenger nicht gelesenen, haeufig genutzte
+ * Tokens bleiben erhalten.
+ * </p>
+ */
+final class VerifiedTokenCache {
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+
+    private final ClockCache<String, Entry> entries;
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ClockCache<>(maxEntries);
+    }
+
+    /**
+     * Liefert die Claims eines bereits verifizierten, noch gueltigen Tokens oder {@code null}.
+     */
+    Claims get(String token, long nowMillis) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= nowMillis) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    /**
+     * Merkt sich die Claims eines soeben verifizierten Tokens bis zu dessen Ablauf.
+     */
+    void put(String token, Claims claims, long expiresAtMillis, long nowMillis) {
+        if (maxEntries <= 0 || expiresAtMillis <= nowMillis) {
+            return;
+        }
+        entries.put(digest(token), new Entry(claims, expiresAtMillis));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
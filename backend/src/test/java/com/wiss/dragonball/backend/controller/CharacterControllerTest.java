@@ -3,12 +3,15 @@ package com.wiss.dragonball.backend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wiss.dragonball.backend.dto.CharacterDTO;
 import com.wiss.dragonball.backend.service.CharacterService;
+import com.wiss.dragonball.backend.service.FavouriteBitmap;
+import com.wiss.dragonball.backend.service.FavouriteBitmapCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.context.ActiveProfiles;
@@ -17,8 +20,13 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -51,6 +59,12 @@ public class CharacterControllerTest {
     @MockBean
     private UserDetailsService userDetailsService;
 
+    @MockBean
+    private FavouriteBitmapCache favouriteBitmapCache;
+
+    @MockBean
+    private com.wiss.dragonball.backend.security.TokenGenerationTable tokenGenerationTable;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -78,6 +92,47 @@ public class CharacterControllerTest {
                 .andExpect(jsonPath("$[1].name", is("Vegeta")));
     }
 
+    /**
+     * Testet den Endpunkt {@code GET /api/characters} mit passendem {@code If-None-Match}.
+     * <p>
+     * Erwartet 304 ohne Body, ohne dass die Charakterliste geladen wird.
+     * </p>
+     *
+     * @throws Exception bei Fehler im MockMvc-Aufruf
+     */
+    @Test
+    public void whenGetAllCharactersWithMatchingETag_thenReturnNotModified() throws Exception {
+        when(characterService.getCatalogETag()).thenReturn("\"abc-7\"");
+
+        mockMvc.perform(get("/api/characters")
+                        .header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc-7\""))
+                .andExpect(content().string(""));
+
+        verify(characterService, never()).getAllCharacters();
+    }
+
+    /**
+     * Testet den Endpunkt {@code GET /api/characters} mit veraltetem {@code If-None-Match}.
+     * <p>
+     * Erwartet 200 mit aktuellem ETag und Body.
+     * </p>
+     *
+     * @throws Exception bei Fehler im MockMvc-Aufruf
+     */
+    @Test
+    public void whenGetAllCharactersWithStaleETag_thenReturnBodyAndNewETag() throws Exception {
+        when(characterService.getCatalogETag()).thenReturn("\"abc-8\"");
+        when(characterService.getAllCharacters()).thenReturn(List.of(createCharacterDTO(1L, "Goku", "Saiyan")));
+
+        mockMvc.perform(get("/api/characters")
+                        .header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-8\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     /**
      * Testet den Endpunkt {@code GET /api/characters/race/{race}}.
      * <p>
@@ -108,6 +163,50 @@ public class CharacterControllerTest {
      * @param race Rasse des Charakters
      * @return Ein vorbereitetes {@link CharacterDTO}-Testobjekt
      */
+    /**
+     * Testet den Endpunkt {@code GET /api/characters} mit angemeldetem Nutzer.
+     * <p>
+     * Erwartet das Favoriten-Flag aus der Bitmap und die Bitmap-Version im ETag.
+     * </p>
+     *
+     * @throws Exception bei Fehler im MockMvc-Aufruf
+     */
+    @Test
+    @WithMockUser(username = "player")
+    public void whenGetAllCharactersAsUser_thenFlagFavouritesAndVaryETag() throws Exception {
+        when(characterService.getCatalogETag()).thenReturn("\"abc-8\"");
+        when(characterService.getAllCharacters()).thenReturn(List.of(
+                createCharacterDTO(1L, "Goku", "Saiyan"), createCharacterDTO(2L, "Vegeta", "Saiyan")));
+        when(favouriteBitmapCache.get("player")).thenReturn(FavouriteBitmap.of(3, new long[]{2L}));
+
+        mockMvc.perform(get("/api/characters"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-8-f3\""))
+                .andExpect(jsonPath("$[0].favourite", is(false)))
+                .andExpect(jsonPath("$[1].favourite", is(true)));
+    }
+
+    /**
+     * Testet {@code PATCH /api/characters/{id}} mit {@code application/merge-patch+json}.
+     * <p>Erwartet, dass der Patch unveraendert (inklusive {@code null} zum Entfernen) an den Service geht.</p>
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void whenPatchCharacter_thenPassMergePatchToService() throws Exception {
+        CharacterDTO goku = createCharacterDTO(1L, "Goku", "Saiyan");
+        goku.setDescription("Saiyan raised on Earth");
+        when(characterService.patchCharacter(eq(1L), any())).thenReturn(goku);
+
+        mockMvc.perform(patch("/api/characters/1")
+                        .contentType(CharacterController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"description\":\"Saiyan raised on Earth\",\"ki\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description", is("Saiyan raised on Earth")));
+
+        verify(characterService).patchCharacter(1L,
+                objectMapper.readTree("{\"description\":\"Saiyan raised on Earth\",\"ki\":null}"));
+    }
+
     private CharacterDTO createCharacterDTO(Long id, String name, String race) {
         CharacterDTO dto = new CharacterDTO();
         dto.setId(id);
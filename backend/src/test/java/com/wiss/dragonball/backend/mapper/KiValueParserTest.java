@@ -0,0 +1,52 @@
+package com.wiss.dragonball.backend.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit-Test fuer den {@link KiValueParser}.
+ */
+class KiValueParserTest {
+
+    /**
+     * Tausender-Trennzeichen werden ignoriert.
+     */
+    @Test
+    void whenParsingGroupedDigits_thenSeparatorsAreIgnored() {
+        assertThat(KiValueParser.parse("60,000,000")).isEqualByComparingTo("60000000");
+        assertThat(KiValueParser.parse("3'000")).isEqualByComparingTo("3000");
+    }
+
+    /**
+     * Benannte Groessenordnungen werden unabhaengig von der Schreibweise aufgeloest.
+     */
+    @Test
+    void whenParsingNamedMagnitudes_thenValueIsScaled() {
+        assertThat(KiValueParser.parse("90 Septillion")).isEqualByComparingTo(new BigDecimal("90e24"));
+        assertThat(KiValueParser.parse("1.5 billion")).isEqualByComparingTo("1500000000");
+        assertThat(KiValueParser.parse("  2 GOOGOL ")).isEqualByComparingTo(BigDecimal.TEN.pow(100).multiply(BigDecimal.TWO));
+    }
+
+    /**
+     * Groessere Werte muessen auch numerisch groesser sein.
+     */
+    @Test
+    void whenComparingParsedValues_thenOrderMatchesMagnitude() {
+        assertThat(KiValueParser.parse("999 Trillion"))
+                .isLessThan(KiValueParser.parse("1 Quadrillion"));
+    }
+
+    /**
+     * Unbekannte Texte ergeben {@code null}.
+     */
+    @Test
+    void whenParsingUnknownText_thenNull() {
+        assertThat(KiValueParser.parse(null)).isNull();
+        assertThat(KiValueParser.parse("Unknown")).isNull();
+        assertThat(KiValueParser.parse("5 Gazillion")).isNull();
+        assertThat(KiValueParser.parse("")).isNull();
+    }
+}
@@ -0,0 +1,209 @@
+package com.wiss.dragonball.backend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiss.dragonball.backend.dto.CharacterDTO;
+import com.wiss.dragonball.backend.dto.TransformationOperationDTO;
+import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.entity.Role;
+import com.wiss.dragonball.backend.entity.User;
+import com.wiss.dragonball.backend.exception.CharacterNotFoundException;
+import com.wiss.dragonball.backend.mapper.CharacterMapper;
+import com.wiss.dragonball.backend.service.CharacterService;
+import com.wiss.dragonball.backend.service.FavouriteBitmapCache;
+import com.wiss.dragonball.backend.service.FavouriteCoOccurrence;
+import com.wiss.dragonball.backend.service.FavouriteCounters;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Prüft mit den Hibernate-Statistiken, dass Listen-Abfragen die Transformationen
+ * nicht pro Charakter nachladen (kein N+1).
+ * <p>
+ * Jeder Test lädt eine Liste, mappt sie wie die Endpunkte über den {@link CharacterMapper}
+ * und greift auf alle Transformationen zu. Gezählt werden die vorbereiteten SQL-Statements.
+ * Zusätzlich wird geprüft, dass das Löschen eines Charakters unabhängig von der Anzahl
+ * Favoriten immer gleich viele Statements braucht.
+ * </p>
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CharacterService.class, FavouriteCounters.class, FavouriteCoOccurrence.class, FavouriteBitmapCache.class,
+        FavouriteBatchRepository.class})
+public class CharacterRepositoryStatementCountTest {
+
+    private static final int CHARACTER_COUNT = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CharacterService characterService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < CHARACTER_COUNT; i++) {
+            Character character = new Character();
+            character.setName("Saiyan " + i);
+            character.setRace("Saiyan");
+            character.setPowerLevel(1000L + i);
+            character.setTransformations(List.of("Super Saiyan", "Super Saiyan " + i));
+            entityManager.persist(character);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_loadsTransformationsInOneStatement() {
+        assertStatementCount(() -> characterRepository.findAll(), 1);
+    }
+
+    @Test
+    void findByRace_loadsTransformationsInOneStatement() {
+        assertStatementCount(() -> characterRepository.findByRace("Saiyan"), 1);
+    }
+
+    @Test
+    void findByRaceIgnoreCase_loadsTransformationsInOneStatement() {
+        assertStatementCount(() -> characterRepository.findByRaceIgnoreCase("saiyan"), 1);
+    }
+
+    @Test
+    void findByNameContainingIgnoreCase_loadsTransformationsInOneStatement() {
+        assertStatementCount(() -> characterRepository.findByNameContainingIgnoreCase("saiyan"), 1);
+    }
+
+    @Test
+    void keysetPage_loadsTransformationsInBatch() {
+        assertStatementCount(() -> characterRepository.findAllBy(
+                ScrollPosition.keyset(),
+                Sort.by(Sort.Order.desc("powerLevel"), Sort.Order.desc("id")),
+                Limit.of(CHARACTER_COUNT)).getContent(), 2);
+    }
+
+    @Test
+    void deleteCharacter_usesThreeStatementsRegardlessOfFavourites() {
+        List<Character> characters = characterRepository.findAll();
+        Character unpopular = characters.get(0);
+        Character popular = characters.get(1);
+        for (int i = 0; i < 40; i++) {
+            User user = new User("fan" + i, "secret", Role.PLAYER);
+            user.addFavourite(popular);
+            user.addFavourite(characters.get(2));
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        characterService.deleteCharacter(unpopular.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        statistics.clear();
+        characterService.deleteCharacter(popular.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        assertThat(countRows("select count(*) from user_favourite")).isEqualTo(40);
+        assertThat(countRows("select count(*) from character_transformations where character_id = "
+                + popular.getId())).isZero();
+        assertThat(characterRepository.existsById(popular.getId())).isFalse();
+        assertThatThrownBy(() -> characterService.deleteCharacter(popular.getId()))
+                .isInstanceOf(CharacterNotFoundException.class);
+    }
+
+    @Test
+    void patchCharacter_writesOnlyWhenSomethingChanged() throws Exception {
+        Long id = characterRepository.findAll().get(0).getId();
+        entityManager.clear();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        statistics.clear();
+        characterService.patchCharacter(id, objectMapper.readTree("{\"race\":\"Saiyan\"}"));
+        entityManager.flush();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getCollectionUpdateCount()).isZero();
+
+        entityManager.clear();
+        statistics.clear();
+        characterService.patchCharacter(id, objectMapper.readTree("{\"description\":\"Patched\"}"));
+        entityManager.flush();
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionUpdateCount()).isZero();
+        entityManager.clear();
+        assertThat(characterRepository.findById(id).orElseThrow().getDescription()).isEqualTo("Patched");
+    }
+
+    @Test
+    void editTransformations_writesOnlyChangedPositions() {
+        Long id = characterRepository.findAll().get(0).getId();
+        entityManager.clear();
+        // Charakter samt Transformationen vorab laden, damit nur die Schreib-Statements gezaehlt werden
+        characterRepository.findById(id).orElseThrow().getTransformations().size();
+
+        statistics.clear();
+        characterService.editTransformations(id, List.of(TransformationOperationDTO.insert(null, "Super Saiyan Blue")));
+        entityManager.flush();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        characterService.editTransformations(id, List.of(TransformationOperationDTO.move(2, 0)));
+        entityManager.flush();
+        // drei Positionen verschieben sich, keine Zeile wird geloescht oder neu angelegt
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(countRows("select count(*) from character_transformations where character_id = " + id))
+                .isEqualTo(3);
+
+        statistics.clear();
+        characterService.editTransformations(id, List.of(TransformationOperationDTO.remove(2)));
+        entityManager.flush();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(characterRepository.findById(id).orElseThrow().getTransformations())
+                .containsExactly("Super Saiyan Blue", "Super Saiyan");
+    }
+
+    private long countRows(String sql) {
+        return ((Number) entityManager.getEntityManager().createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    private void assertStatementCount(Supplier<List<Character>> query, long expectedStatements) {
+        List<CharacterDTO> dtos = CharacterMapper.toDTOList(query.get());
+        int transformations = dtos.stream().mapToInt(dto -> dto.getTransformations().size()).sum();
+
+        assertThat(transformations).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+    }
+}
@@ -5,9 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -57,4 +67,96 @@ public class CharacterRepositoryTest {
         assertThat(result.getFirst().getName()).isEqualTo("Goku");
         assertThat(result.getFirst().getRace()).isEqualTo("Saiyan");
     }
+
+    /**
+     * Testet {@link CharacterRepository#findAllBy(ScrollPosition, Sort, Limit)}.
+     * <p>
+     * Erwartet, dass das Blaettern per Keyset ueber (powerLevel, id) alle Charaktere
+     * genau einmal und absteigend nach Power Level liefert, auch bei gleichen Power Levels.
+     * </p>
+     */
+    @Test
+    void whenScrollingByPowerLevel_thenEveryCharacterAppearsOnceInOrder() {
+        entityManager.persist(createCharacter("Goku", 900L));
+        entityManager.persist(createCharacter("Vegeta", 800L));
+        entityManager.persist(createCharacter("Gohan", 800L));
+        entityManager.persist(createCharacter("Krillin", 100L));
+        entityManager.persist(createCharacter("Yamcha", 50L));
+        entityManager.flush();
+
+        Sort sort = Sort.by(Sort.Order.desc("powerLevel"), Sort.Order.desc("id"));
+        List<String> names = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Character> window;
+        do {
+            window = characterRepository.findAllBy(position, sort, Limit.of(2));
+            window.forEach(c -> names.add(c.getName()));
+            Character last = window.getContent().getLast();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("powerLevel", last.getPowerLevel());
+            keys.put("id", last.getId());
+            position = ScrollPosition.forward(keys);
+        } while (window.hasNext());
+
+        assertThat(names).containsExactly("Goku", "Gohan", "Vegeta", "Krillin", "Yamcha");
+    }
+
+    /**
+     * Testet {@link CharacterRepository#findIdsByKiValueBetween(BigDecimal, BigDecimal, Sort, Limit)}.
+     * <p>
+     * Erwartet, dass die Ki-Schattenwerte beim Speichern aus den Anzeigewerten berechnet werden
+     * und numerisch (nicht lexikographisch) sortiert werden.
+     * </p>
+     */
+    @Test
+    void whenSortingByKiValue_thenOrderIsNumeric() {
+        Long goku = entityManager.persist(createCharacter("Goku", 900L, "90 Septillion")).getId();
+        Long krillin = entityManager.persist(createCharacter("Krillin", 100L, "75,000")).getId();
+        Long vegeta = entityManager.persist(createCharacter("Vegeta", 800L, "1.5 Billion")).getId();
+        entityManager.persist(createCharacter("Mystery", 1L, "Unknown"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Sort sort = Sort.by(Sort.Order.desc("kiValue"), Sort.Order.desc("id"));
+        List<Long> result = characterRepository.findIdsByKiValueBetween(
+                BigDecimal.ZERO, new BigDecimal("1e30"), sort, Limit.of(10));
+
+        assertThat(result).containsExactly(goku, vegeta, krillin);
+        assertThat(entityManager.find(Character.class, krillin).getKiValue()).isEqualByComparingTo("75000");
+
+        List<Long> range = characterRepository.findIdsByKiValueBetween(
+                new BigDecimal("100000"), new BigDecimal("1e12"), sort, Limit.of(10));
+        assertThat(range).containsExactly(vegeta);
+    }
+
+    /**
+     * Testet {@link CharacterRepository#findKiBackfillBatch(long, Pageable)}.
+     * <p>
+     * Erwartet, dass gespeicherte Zeilen als berechnet gelten, auch wenn ihr Ki-Wert nicht
+     * interpretierbar ist, und der Backfill sie daher nicht erneut liefert.
+     * </p>
+     */
+    @Test
+    void whenKiValuesWereSynced_thenBackfillSkipsRow() {
+        entityManager.persist(createCharacter("Mystery", 1L, "Unknown"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(characterRepository.findKiBackfillBatch(0, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private Character createCharacter(String name, long powerLevel, String ki) {
+        Character character = createCharacter(name, powerLevel);
+        character.setKi(ki);
+        character.setMaxKi(ki);
+        return character;
+    }
+
+    private Character createCharacter(String name, long powerLevel) {
+        Character character = new Character();
+        character.setName(name);
+        character.setRace("Saiyan");
+        character.setPowerLevel(powerLevel);
+        return character;
+    }
 }
@@ -7,12 +7,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Integrationstests für das UserRepository.
@@ -21,6 +27,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @DataJpaTest
 @ActiveProfiles("test")
+@Import(FavouriteBatchRepository.class)
 public class UserRepositoryTest {
 
     @Autowired
@@ -32,6 +39,9 @@ public class UserRepositoryTest {
     @Autowired
     private CharacterRepository characterRepository;
 
+    @Autowired
+    private FavouriteBatchRepository favouriteBatchRepository;
+
     /**
      * UR‑01: Prüft, ob findByUsername einen gespeicherten Benutzer findet.
      */
@@ -70,4 +80,157 @@ public class UserRepositoryTest {
         assertThat(usersWithGoku.getFirst().getFavourites())
                 .anyMatch(character -> character.getName().equals("Goku"));
     }
+
+    /**
+     * UR-03: Prueft, dass ein Widerruf und ein Rollenwechsel die Token-Generation erhoehen.
+     */
+    @Test
+    void whenTokenGenerationIncremented_thenNewGenerationIsReturned() {
+        User user = new User("player", "secret", Role.PLAYER);
+        entityManager.persistAndFlush(user);
+        assertThat(userRepository.findTokenGenerationByUsername("player")).contains(0L);
+
+        int updated = userRepository.incrementTokenGeneration("player");
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findTokenGenerationByUsername("player")).contains(1L);
+        assertThat(userRepository.findTokenGenerationByUsername("unknown")).isEmpty();
+
+        User reloaded = userRepository.findByUsername("player").orElseThrow();
+        reloaded.setRole(Role.ADMIN);
+        userRepository.saveAndFlush(reloaded);
+        assertThat(userRepository.findTokenGenerationByUsername("player")).contains(2L);
+    }
+
+    /**
+     * UR-04: Prueft, dass Favoriten per Einzel-Statement idempotent eingefuegt und geloescht
+     * werden und ein unbekannter Charakter am Fremdschluessel scheitert.
+     */
+    @Test
+    void whenFavouriteInsertedAndDeleted_thenJoinTableIsUpdatedIdempotently() {
+        Character goku = new Character();
+        goku.setName("Goku");
+        goku.setRace("Saiyan");
+        goku.setPowerLevel(9000000000L);
+        characterRepository.saveAndFlush(goku);
+        entityManager.persistAndFlush(new User("player", "secret", Role.PLAYER));
+
+        assertThat(userRepository.insertFavourite("player", goku.getId())).isEqualTo(1);
+        assertThat(userRepository.insertFavourite("player", goku.getId())).isZero();
+        entityManager.clear();
+        assertThat(userRepository.findAllByFavourites_Id(goku.getId())).hasSize(1);
+
+        assertThat(userRepository.deleteFavourite("player", goku.getId())).isEqualTo(1);
+        assertThat(userRepository.deleteFavourite("player", goku.getId())).isZero();
+        entityManager.clear();
+        assertThat(userRepository.findAllByFavourites_Id(goku.getId())).isEmpty();
+
+        assertThatThrownBy(() -> userRepository.insertFavourite("player", goku.getId() + 1000))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    /**
+     * UR-05: Prueft, dass Batch-Einfuegen und -Loeschen nur tatsaechlich geaenderte IDs melden.
+     */
+    @Test
+    void whenFavouritesBatched_thenOnlyChangedIdsAreReturned() {
+        List<Long> ids = new ArrayList<>();
+        for (String name : List.of("Goku", "Vegeta", "Gohan")) {
+            Character character = new Character();
+            character.setName(name);
+            character.setRace("Saiyan");
+            character.setPowerLevel(9000L);
+            ids.add(characterRepository.saveAndFlush(character).getId());
+        }
+        User user = entityManager.persistAndFlush(new User("player", "secret", Role.PLAYER));
+        userRepository.insertFavourite("player", ids.get(0));
+
+        assertThat(favouriteBatchRepository.insertAll(user.getId(), ids)).containsExactly(ids.get(1), ids.get(2));
+        assertThat(favouriteBatchRepository.deleteAll(user.getId(), List.of(ids.get(0), 424242L)))
+                .containsExactly(ids.get(0));
+        assertThat(characterRepository.findExistingIds(List.of(ids.get(0), 424242L))).containsExactly(ids.get(0));
+    }
+
+    /**
+     * UR-06: Prueft, dass die Favoriten-IDs nach ID sortiert und ab einer ID seitenweise geliefert werden.
+     */
+    @Test
+    void whenFindFavouriteIds_thenReturnStableKeysetPages() {
+        List<Long> ids = new ArrayList<>();
+        for (String name : List.of("Goku", "Vegeta", "Gohan")) {
+            Character character = new Character();
+            character.setName(name);
+            character.setRace("Saiyan");
+            character.setPowerLevel(9000L);
+            ids.add(characterRepository.saveAndFlush(character).getId());
+        }
+        entityManager.persistAndFlush(new User("player", "secret", Role.PLAYER));
+        entityManager.persistAndFlush(new User("other", "secret", Role.PLAYER));
+        for (Long id : ids.reversed()) {
+            userRepository.insertFavourite("player", id);
+        }
+        userRepository.insertFavourite("other", ids.get(0));
+
+        assertThat(userRepository.findFavouriteIds("player", 0L, Limit.of(2))).containsExactly(ids.get(0), ids.get(1));
+        assertThat(userRepository.findFavouriteIds("player", ids.get(1), Limit.of(2))).containsExactly(ids.get(2));
+        assertThat(userRepository.findFavouriteIds("unknown", 0L, Limit.of(2))).isEmpty();
+    }
+
+    /**
+     * UR-07: Prueft, dass favourite_count per Batch addiert und beim Abgleich aus user_favourite
+     * neu berechnet wird.
+     */
+    @Test
+    void whenFavouriteCountsReconciled_thenTheyMatchJoinTable() {
+        List<Long> ids = new ArrayList<>();
+        for (String name : List.of("Goku", "Vegeta")) {
+            Character character = new Character();
+            character.setName(name);
+            character.setRace("Saiyan");
+            character.setPowerLevel(9000L);
+            ids.add(characterRepository.saveAndFlush(character).getId());
+        }
+        entityManager.persistAndFlush(new User("player", "secret", Role.PLAYER));
+        entityManager.persistAndFlush(new User("other", "secret", Role.PLAYER));
+        userRepository.insertFavourite("player", ids.get(0));
+        userRepository.insertFavourite("other", ids.get(0));
+
+        favouriteBatchRepository.addToFavouriteCounts(Map.of(ids.get(1), 5L));
+        assertThat(favouriteBatchRepository.findFavouriteCounts()).isEqualTo(Map.of(ids.get(1), 5L));
+
+        favouriteBatchRepository.reconcileFavouriteCounts();
+        assertThat(favouriteBatchRepository.findFavouriteCounts()).isEqualTo(Map.of(ids.get(0), 2L));
+    }
+
+    /**
+     * UR-08: Prueft, dass die Favoriten nach Nutzer sortiert gestreamt werden und der
+     * Fingerabdruck zu den gestreamten Zeilen passt.
+     */
+    @Test
+    void whenFavouritesStreamedByUser_thenFingerprintMatches() {
+        List<Long> ids = new ArrayList<>();
+        for (String name : List.of("Goku", "Vegeta")) {
+            Character character = new Character();
+            character.setName(name);
+            character.setRace("Saiyan");
+            character.setPowerLevel(9000L);
+            ids.add(characterRepository.saveAndFlush(character).getId());
+        }
+        entityManager.persistAndFlush(new User("player", "secret", Role.PLAYER));
+        entityManager.persistAndFlush(new User("other", "secret", Role.PLAYER));
+        userRepository.insertFavourite("player", ids.get(1));
+        userRepository.insertFavourite("other", ids.get(0));
+        userRepository.insertFavourite("player", ids.get(0));
+
+        List<long[]> rows = new ArrayList<>();
+        favouriteBatchRepository.forEachFavouriteByUser((userId, characterId) -> rows.add(new long[]{userId, characterId}));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows).isSortedAccordingTo((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        long idSum = ids.get(0) * 2 + ids.get(1);
+        long squareSum = 2 * Math.floorMod(ids.get(0) * ids.get(0), FavouriteBatchRepository.FINGERPRINT_MODULUS)
+                + Math.floorMod(ids.get(1) * ids.get(1), FavouriteBatchRepository.FINGERPRINT_MODULUS);
+        assertThat(favouriteBatchRepository.favouriteFingerprint()).containsExactly(3L, idSum, squareSum);
+    }
 }
@@ -0,0 +1,95 @@
+package com.wiss.dragonball.backend.security;
+
+import com.wiss.dragonball.backend.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit-Tests fuer den {@link PasswordAuthenticator}. Datenbankarbeit laeuft auf einem
+ * Aufrufer-Executor, gehasht wird mit geringen BCrypt-Kosten.
+ */
+public class PasswordAuthenticatorTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(5);
+    private final PasswordHashingExecutor passwordHashing = new PasswordHashingExecutor(1, 4, 1);
+    private final UserService userService = mock(UserService.class);
+    private final PasswordAuthenticator authenticator =
+            new PasswordAuthenticator(userService, passwordEncoder, passwordHashing, Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        passwordHashing.shutdown();
+    }
+
+    /**
+     * Ein korrektes Passwort liefert den Nutzer; ein aktueller Hash wird nicht neu gespeichert.
+     */
+    @Test
+    void authenticate_returnsUserForCorrectPassword() throws Exception {
+        UserDetails goku = user(passwordEncoder.encode("kamehameha"));
+        when(userService.loadUserByUsername("goku")).thenReturn(goku);
+
+        assertEquals(goku, authenticator.authenticate("goku", "kamehameha").get(5, TimeUnit.SECONDS));
+        verify(userService, never()).updatePassword(any(), anyString());
+    }
+
+    /**
+     * Falsches Passwort und unbekannter Nutzer scheitern gleich.
+     */
+    @Test
+    void authenticate_rejectsWrongPasswordAndUnknownUser() {
+        when(userService.loadUserByUsername("goku")).thenReturn(user(passwordEncoder.encode("kamehameha")));
+        when(userService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("ghost"));
+
+        assertBadCredentials(() -> authenticator.authenticate("goku", "wrong").get(5, TimeUnit.SECONDS));
+        assertBadCredentials(() -> authenticator.authenticate("ghost", "kamehameha").get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Ein Hash mit geringeren Kosten wird nach erfolgreicher Pruefung neu berechnet und gespeichert.
+     */
+    @Test
+    void authenticate_rehashesOutdatedHash() throws Exception {
+        String outdated = new BCryptPasswordEncoder(4).encode("kamehameha");
+        UserDetails goku = user(outdated);
+        when(userService.loadUserByUsername("goku")).thenReturn(goku);
+        when(userService.updatePassword(eq(goku), anyString())).thenAnswer(invocation ->
+                User.withUserDetails(goku).password(invocation.getArgument(1)).build());
+
+        UserDetails authenticated = authenticator.authenticate("goku", "kamehameha").get(5, TimeUnit.SECONDS);
+
+        assertNotEquals(outdated, authenticated.getPassword());
+        assertTrue(passwordEncoder.matches("kamehameha", authenticated.getPassword()));
+    }
+
+    private static UserDetails user(String hash) {
+        return User.withUsername("goku").password(hash).roles("PLAYER").build();
+    }
+
+    private static void assertBadCredentials(Executable executable) {
+        ExecutionException failure = assertThrows(ExecutionException.class, executable);
+        assertInstanceOf(BadCredentialsException.class, failure.getCause());
+    }
+}
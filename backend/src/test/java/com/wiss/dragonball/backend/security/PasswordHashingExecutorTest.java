@@ -0,0 +1,64 @@
+package com.wiss.dragonball.backend.security;
+
+import com.wiss.dragonball.backend.dto.PasswordHashingStatsDTO;
+import com.wiss.dragonball.backend.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit-Tests fuer den {@link PasswordHashingExecutor}. Prueft die begrenzte
+ * Warteschlange und die sofortige Ablehnung bei Ueberlast.
+ */
+public class PasswordHashingExecutorTest {
+
+    /**
+     * Ist der einzige Thread belegt und die Warteschlange voll, wird sofort abgelehnt.
+     */
+    @Test
+    void submit_rejectsWhenQueueIsFull() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> running = executor.submit(() -> {
+                started.countDown();
+                await(release);
+                return "first";
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = executor.submit(() -> "second");
+
+            PasswordHashingBusyException busy = assertThrows(PasswordHashingBusyException.class,
+                    () -> executor.submit(() -> "third"));
+            assertEquals(2, busy.getRetryAfterSeconds());
+            assertEquals(1, executor.stats().getQueueDepth());
+
+            release.countDown();
+            assertEquals("first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+
+            PasswordHashingStatsDTO stats = executor.stats();
+            assertEquals(1, stats.getRejected());
+            assertEquals(1, stats.getPoolSize());
+            assertTrue(stats.getMaxHashMillis() > 0);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.wiss.dragonball.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests fuer den {@link TokenBucketLimiter}, inklusive eines Nebenlaeufigkeits-Stresstests.
+ */
+public class TokenBucketLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Viele Threads auf wenigen Schluesseln: pro Schluessel wird nie mehr als die
+     * Kapazitaet erlaubt, egal wie die Zugriffe verschraenkt sind.
+     */
+    @Test
+    void concurrentAcquires_neverExceedCapacityPerKey() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 0, 1_000, MINUTE, clock::get);
+        int threads = 16;
+        int attemptsPerThread = 2_000;
+        String[] keys = {"goku", "vegeta", "gohan", "10.0.0.1"};
+        AtomicInteger[] allowed = new AtomicInteger[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            allowed[i] = new AtomicInteger();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    int k = (i + offset) % keys.length;
+                    if (limiter.tryAcquire(keys[k]) == 0) {
+                        allowed[k].incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        for (AtomicInteger count : allowed) {
+            assertEquals(5, count.get());
+        }
+    }
+
+    /**
+     * Tokens werden mit der konfigurierten Rate nachgefuellt; ein leerer Bucket meldet die Wartezeit.
+     */
+    @Test
+    void emptyBucket_refillsOverTime() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 6, 1_000, MINUTE, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("goku"));
+        assertEquals(0, limiter.tryAcquire("goku"));
+        long wait = limiter.tryAcquire("goku");
+        assertEquals(TimeUnit.SECONDS.toNanos(10), wait, TimeUnit.MILLISECONDS.toNanos(1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, limiter.tryAcquire("goku"));
+    }
+
+    /**
+     * Der Speicher bleibt begrenzt und unbenutzte Eintraege werden verworfen.
+     */
+    @Test
+    void entries_areBoundedAndIdleOnesEvicted() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 5, 640, MINUTE, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("user" + i);
+        }
+        assertTrue(limiter.size() <= 640, "size was " + limiter.size());
+
+        TokenBucketLimiter idle = new TokenBucketLimiter(5, 5, 64_000, MINUTE, clock::get);
+        for (int i = 0; i < 1_000; i++) {
+            idle.tryAcquire("old" + i);
+        }
+        clock.addAndGet(2 * MINUTE);
+        for (int i = 0; i < 1_000; i++) {
+            idle.tryAcquire("fresh" + i);
+        }
+        assertEquals(1_000, idle.size(), "idle entries should have been evicted");
+    }
+}
@@ -0,0 +1,69 @@
+package com.wiss.dragonball.backend.security;
+
+import com.wiss.dragonball.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit-Tests fuer die {@link TokenGenerationTable}.
+ */
+public class TokenGenerationTableTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    /**
+     * Bekannte Benutzer werden einmal geladen und nach {@code refresh} neu gelesen.
+     */
+    @Test
+    void current_loadsKnownUserOnceUntilRefresh() {
+        TokenGenerationTable table = new TokenGenerationTable(userRepository, 60_000);
+        when(userRepository.findTokenGenerationByUsername("goku")).thenReturn(Optional.of(1L), Optional.of(2L));
+
+        assertTrue(table.isCurrent("goku", 1));
+        assertTrue(table.isCurrent("goku", 1));
+        table.refresh("goku");
+
+        assertEquals(2L, table.current("goku"));
+        verify(userRepository, times(2)).findTokenGenerationByUsername("goku");
+    }
+
+    /**
+     * Unbekannte Benutzer werden waehrend der TTL nicht erneut abgefragt; ein Anlegen ueber
+     * {@code refresh} ersetzt den Platzhalter sofort.
+     */
+    @Test
+    void current_cachesUnknownUserUntilRefresh() {
+        TokenGenerationTable table = new TokenGenerationTable(userRepository, 60_000);
+        when(userRepository.findTokenGenerationByUsername("ghost")).thenReturn(Optional.empty(), Optional.of(0L));
+
+        assertFalse(table.isCurrent("ghost", 0));
+        assertNull(table.current("ghost"));
+        verify(userRepository, times(1)).findTokenGenerationByUsername("ghost");
+
+        table.refresh("ghost");
+        assertTrue(table.isCurrent("ghost", 0));
+    }
+
+    /**
+     * Nach Ablauf der TTL wird ein unbekannter Benutzer erneut nachgeschlagen.
+     */
+    @Test
+    void current_reloadsUnknownUserAfterTtl() {
+        TokenGenerationTable table = new TokenGenerationTable(userRepository, 0);
+        when(userRepository.findTokenGenerationByUsername("ghost")).thenReturn(Optional.empty(), Optional.of(3L));
+
+        assertNull(table.current("ghost"));
+        assertEquals(3L, table.current("ghost"));
+        verify(userRepository, times(2)).findTokenGenerationByUsername("ghost");
+    }
+}
@@ -0,0 +1,81 @@
+package com.wiss.dragonball.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.repository.CharacterRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integrationstests fuer {@link CharacterExportService} gegen die H2-Testdatenbank.
+ * Prueft beide Formate ueber mehr als einen Block, damit das Leeren des
+ * Persistence Contexts zwischen den Bloecken mitgetestet wird.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class CharacterExportServiceTest {
+
+    private static final int CHARACTER_COUNT = CharacterExportService.CHUNK_SIZE + 3;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CharacterExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < CHARACTER_COUNT; i++) {
+            Character character = new Character();
+            character.setName("Fighter " + i);
+            character.setRace("Human");
+            character.setPowerLevel(i);
+            character.setTransformations(List.of("Form " + i));
+            entityManager.persist(character);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        exportService = new CharacterExportService(characterRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    void exportNdjson_writesOneCharacterPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportAll(out, CharacterExportService.Format.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(CHARACTER_COUNT);
+        assertThat(lines).hasSize(CHARACTER_COUNT);
+        JsonNode last = objectMapper.readTree(lines[CHARACTER_COUNT - 1]);
+        assertThat(last.get("name").asText()).isEqualTo("Fighter " + (CHARACTER_COUNT - 1));
+        assertThat(last.get("transformations").get(0).asText()).isEqualTo("Form " + (CHARACTER_COUNT - 1));
+    }
+
+    @Test
+    void exportJson_writesSingleArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportAll(out, CharacterExportService.Format.JSON);
+
+        JsonNode root = objectMapper.readTree(out.toByteArray());
+        assertThat(root.isArray()).isTrue();
+        assertThat(root).hasSize(CHARACTER_COUNT);
+        assertThat(root.get(0).get("name").asText()).isEqualTo("Fighter 0");
+    }
+}
@@ -0,0 +1,150 @@
+package com.wiss.dragonball.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiss.dragonball.backend.dto.CharacterImportErrorDTO;
+import com.wiss.dragonball.backend.dto.CharacterImportResultDTO;
+import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.repository.CharacterRepository;
+import com.wiss.dragonball.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Integrationstests fuer {@link CharacterImportService} gegen die H2-Testdatenbank.
+ * Der Import committet blockweise selbst, daher laufen die Tests ohne umgebende
+ * Test-Transaktion und raeumen die Tabelle danach auf.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CharacterImportServiceTest {
+
+    private static final int CHARACTER_COUNT = CharacterImportService.CHUNK_SIZE + 3;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CharacterImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        CharacterService characterService = new CharacterService(characterRepository, userRepository,
+                mock(FavouriteCounters.class), mock(FavouriteCoOccurrence.class), mock(FavouriteBitmapCache.class),
+                objectMapper);
+        importService = new CharacterImportService(characterService, entityManager, objectMapper,
+                transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        characterRepository.deleteAll();
+    }
+
+    /**
+     * Gueltige Zeilen werden in wenigen Batch-Statements gespeichert, ungueltige einzeln gemeldet.
+     */
+    @Test
+    void importNdjson_storesValidRecordsInBatchesAndReportsInvalidOnes() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < CHARACTER_COUNT; i++) {
+            ndjson.append(character("Fighter " + i, "Human", i)).append('\n');
+        }
+        ndjson.append("{\"name\":\"Nameless Race\",\"powerLevel\":1}\n");
+        ndjson.append("{\"name\":\"Broken\",\"race\":\"Human\",\"powerLevel\":\"over 9000\"}\n");
+        ndjson.append(character("Weakling", "Human", -1)).append('\n');
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CharacterImportResultDTO result = importService.importCharacters(stream(ndjson.toString()));
+
+        assertThat(result.getImported()).isEqualTo(CHARACTER_COUNT);
+        assertThat(result.getErrors())
+                .extracting(CharacterImportErrorDTO::getRecord, CharacterImportErrorDTO::getName)
+                .containsExactly(
+                        tuple(CHARACTER_COUNT + 1L, "Nameless Race"),
+                        tuple(CHARACTER_COUNT + 2L, "Broken"),
+                        tuple(CHARACTER_COUNT + 3L, "Weakling"));
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Race is required");
+        assertThat(characterRepository.count()).isEqualTo(CHARACTER_COUNT);
+        assertThat(((Number) entityManager.createNativeQuery("select count(*) from character_transformations")
+                .getSingleResult()).longValue()).isEqualTo(2L * CHARACTER_COUNT);
+        // ohne Batching waeren es mindestens drei Statements pro Charakter (ID, Charakter, Transformationen)
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(CHARACTER_COUNT / 10);
+    }
+
+    /**
+     * Ein JSON-Array wird elementweise gelesen; ein Syntaxfehler beendet den Import,
+     * die Datensaetze davor bleiben gespeichert.
+     */
+    @Test
+    void importJsonArray_stopsAtMalformedJson() throws Exception {
+        String json = "[" + character("Goku", "Saiyan", 9000) + "," + character("Vegeta", "Saiyan", 8000)
+                + ",{\"name\": oops}]";
+
+        CharacterImportResultDTO result = importService.importCharacters(stream(json));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors().get(0).getRecord()).isEqualTo(3);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Malformed JSON");
+        assertThat(characterRepository.findAll()).extracting(Character::getName).containsExactlyInAnyOrder("Goku", "Vegeta");
+    }
+
+    /**
+     * Lehnt die Datenbank einen Block ab, werden seine Datensaetze einzeln wiederholt und
+     * nur der fehlerhafte gemeldet.
+     */
+    @Test
+    void importRetriesFailedChunkRecordByRecord() throws Exception {
+        String tooLong = "X".repeat(300);
+        String json = "[" + character("Goku", "Saiyan", 9000) + "," + character(tooLong, "Saiyan", 1)
+                + "," + character("Gohan", "Saiyan", 7000) + "]";
+
+        CharacterImportResultDTO result = importService.importCharacters(stream(json));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(CharacterImportErrorDTO::getRecord).containsExactly(2L);
+        assertThat(characterRepository.findAll()).extracting(Character::getName).containsExactlyInAnyOrder("Goku", "Gohan");
+    }
+
+    private static String character(String name, String race, long powerLevel) {
+        return "{\"name\":\"" + name + "\",\"race\":\"" + race + "\",\"powerLevel\":" + powerLevel
+                + ",\"transformations\":[\"Base\",\"Form " + name.replaceAll("\\D", "") + "\"]}";
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.dto.CharacterDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit-Tests fuer den {@link CharacterPowerIndex}. Prueft Einfuegen, Verschieben und Entfernen.
+ */
+public class CharacterPowerIndexTest {
+
+    private final CharacterPowerIndex index = new CharacterPowerIndex();
+
+    /**
+     * Ein geaendertes Power Level verschiebt den Eintrag nach oben oder unten, ohne ihn zu verdoppeln.
+     */
+    @Test
+    void put_movesExistingCharacterInBothDirections() {
+        index.rebuild(List.of(character(1L, 10), character(2L, 20), character(3L, 30), character(4L, 40)));
+
+        index.put(character(1L, 35));
+        assertEquals(List.of(4L, 1L, 3L, 2L), index.top(0, 10));
+
+        index.put(character(4L, 5));
+        assertEquals(List.of(1L, 3L, 2L, 4L), index.top(0, 10));
+        assertEquals(4, index.rank(4L));
+
+        index.put(character(3L, 30));
+        index.put(character(5L, 20));
+        assertEquals(List.of(1L, 3L, 5L, 2L, 4L), index.top(0, 10));
+        assertEquals(3, index.rank(2L));
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Entfernte Charaktere verschwinden aus Ranglisten und Rang-Abfragen.
+     */
+    @Test
+    void remove_dropsCharacter() {
+        index.rebuild(List.of(character(1L, 10), character(2L, 20)));
+
+        index.remove(2L);
+
+        assertEquals(List.of(1L), index.top(0, 10));
+        assertEquals(-1, index.rank(2L));
+    }
+
+    private static CharacterDTO character(Long id, long powerLevel) {
+        CharacterDTO dto = new CharacterDTO();
+        dto.setId(id);
+        dto.setPowerLevel(powerLevel);
+        return dto;
+    }
+}
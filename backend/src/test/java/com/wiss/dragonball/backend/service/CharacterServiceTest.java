@@ -1,20 +1,34 @@
 package com.wiss.dragonball.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wiss.dragonball.backend.dto.CharacterDTO;
+import com.wiss.dragonball.backend.dto.CharacterPageDTO;
+import com.wiss.dragonball.backend.dto.FavouriteRankDTO;
+import com.wiss.dragonball.backend.dto.RaceFacetDTO;
+import com.wiss.dragonball.backend.dto.RelatedCharacterDTO;
+import com.wiss.dragonball.backend.dto.TransformationOperationDTO;
 import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.exception.CharacterNotFoundException;
+import com.wiss.dragonball.backend.exception.InvalidCharacterDataException;
+import com.wiss.dragonball.backend.exception.InvalidPageRequestException;
 import com.wiss.dragonball.backend.repository.CharacterRepository;
+import com.wiss.dragonball.backend.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 /**
@@ -35,6 +49,21 @@ public class CharacterServiceTest {
     @Mock
     private CharacterRepository characterRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FavouriteCounters favouriteCounters;
+
+    @Mock
+    private FavouriteCoOccurrence coOccurrence;
+
+    @Mock
+    private FavouriteBitmapCache favouriteBitmaps;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private CharacterService characterService;
 
@@ -59,6 +88,301 @@ public class CharacterServiceTest {
         verify(characterRepository, times(1)).findAll();
     }
 
+    /**
+     * Testet, dass {@link CharacterService#getAllCharacters()} nach dem ersten Laden
+     * aus dem Snapshot liest und Schreiboperationen den Snapshot ohne erneutes Laden aktualisieren.
+     */
+    @Test
+    public void whenGetAllCharactersTwice_thenReadRepositoryOnlyOnce() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        when(characterRepository.findAll()).thenReturn(List.of(goku));
+
+        characterService.getAllCharacters();
+        List<CharacterDTO> second = characterService.getAllCharacters();
+
+        assertThat(second).extracting(CharacterDTO::getName).containsExactly("Goku");
+        verify(characterRepository, times(1)).findAll();
+
+        Character vegeta = createTestCharacter("Vegeta", "Saiyan");
+        vegeta.setId(2L);
+        when(characterRepository.save(any(Character.class))).thenReturn(vegeta);
+        CharacterDTO dto = new CharacterDTO();
+        dto.setName("Vegeta");
+        dto.setRace("Saiyan");
+        characterService.createCharacter(dto);
+
+        assertThat(characterService.getAllCharacters())
+                .extracting(CharacterDTO::getName)
+                .containsExactly("Goku", "Vegeta");
+        verify(characterRepository, times(1)).findAll();
+    }
+
+    /**
+     * Testet {@link CharacterService#searchByName(String, Integer)} ueber den N-Gramm-Index.
+     * <p>Erwartet Substring-Treffer nach Relevanz sortiert und einen aktualisierten Index nach einem Update.</p>
+     */
+    @Test
+    public void whenSearchByName_thenReturnRankedMatchesFromIndex() {
+        Character gokuBlack = createTestCharacter("Goku Black", "Saiyan");
+        gokuBlack.setId(1L);
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(2L);
+        Character kidGoku = createTestCharacter("Kid Goku", "Saiyan");
+        kidGoku.setId(3L);
+        Character vegeta = createTestCharacter("Vegeta", "Saiyan");
+        vegeta.setId(4L);
+        when(characterRepository.findAll()).thenReturn(List.of(gokuBlack, goku, kidGoku, vegeta));
+
+        assertThat(characterService.searchByName("GOKU", 10))
+                .extracting(CharacterDTO::getName)
+                .containsExactly("Goku", "Goku Black", "Kid Goku");
+        assertThat(characterService.searchByName("ok", 2))
+                .extracting(CharacterDTO::getName)
+                .containsExactly("Goku", "Goku Black");
+
+        Character renamed = createTestCharacter("Vegito", "Saiyan");
+        renamed.setId(4L);
+        when(characterRepository.findById(4L)).thenReturn(Optional.of(vegeta));
+        when(characterRepository.save(any(Character.class))).thenReturn(renamed);
+        CharacterDTO update = new CharacterDTO();
+        update.setName("Vegito");
+        update.setRace("Saiyan");
+        characterService.updateCharacter(4L, update);
+
+        assertThat(characterService.searchByName("vegi", null))
+                .extracting(CharacterDTO::getName)
+                .containsExactly("Vegito");
+        assertThatThrownBy(() -> characterService.searchByName("geta", null))
+                .isInstanceOf(RuntimeException.class);
+        verify(characterRepository, times(1)).findAll();
+    }
+
+    /**
+     * Testet die Rassen-Facetten von {@link CharacterService#countCharactersByRace(String)}
+     * und {@link CharacterService#getRaceFacets()}.
+     * <p>Erwartet case-insensitive Zaehler, die ein Loeschen ohne erneutes Laden nachfuehren.</p>
+     */
+    @Test
+    public void whenCountCharactersByRace_thenUseFacetsAndFollowDeletes() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        Character vegeta = createTestCharacter("Vegeta", "saiyan");
+        vegeta.setId(2L);
+        Character piccolo = createTestCharacter("Piccolo", "Namekian");
+        piccolo.setId(3L);
+        when(characterRepository.findAll()).thenReturn(List.of(goku, vegeta, piccolo));
+
+        assertThat(characterService.countCharactersByRace("SAIYAN")).isEqualTo(2);
+        assertThat(characterService.getRaceFacets())
+                .extracting(RaceFacetDTO::getRace, RaceFacetDTO::getCount)
+                .containsExactly(tuple("Saiyan", 2L), tuple("Namekian", 1L));
+
+        when(characterRepository.deleteCharacterById(2L)).thenReturn(1);
+        characterService.deleteCharacter(2L);
+
+        assertThat(characterService.countCharactersByRace("saiyan")).isEqualTo(1);
+        assertThat(characterService.getCharactersByRaceIgnoreCase("Saiyan"))
+                .extracting(CharacterDTO::getName)
+                .containsExactly("Goku");
+        verify(characterRepository, never()).countByRace(any());
+        verify(characterRepository, times(1)).findAll();
+        verify(favouriteCounters).remove(2L);
+        verify(favouriteBitmaps).removeCharacter(2L);
+        verify(coOccurrence).removeCharacter(2L, 0);
+    }
+
+    /**
+     * Testet {@link CharacterService#getMostFavourited(Integer)}.
+     * <p>Erwartet die Rangliste aus den Zaehlern; gleich viele Favoriten teilen sich den Rang,
+     * Zaehler geloeschter Charaktere werden uebersprungen.</p>
+     */
+    @Test
+    public void whenGetMostFavourited_thenRankFromCountersWithTies() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        Character vegeta = createTestCharacter("Vegeta", "Saiyan");
+        vegeta.setId(2L);
+        Character piccolo = createTestCharacter("Piccolo", "Namekian");
+        piccolo.setId(3L);
+        when(characterRepository.findAll()).thenReturn(List.of(goku, vegeta, piccolo));
+        when(favouriteCounters.top(10)).thenReturn(List.of(
+                new FavouriteCounters.FavouriteCount(2L, 7),
+                new FavouriteCounters.FavouriteCount(99L, 5),
+                new FavouriteCounters.FavouriteCount(1L, 5),
+                new FavouriteCounters.FavouriteCount(3L, 5),
+                new FavouriteCounters.FavouriteCount(4L, 1)));
+
+        assertThat(characterService.getMostFavourited(null))
+                .extracting(FavouriteRankDTO::getName, FavouriteRankDTO::getFavouriteCount, FavouriteRankDTO::getRank)
+                .containsExactly(tuple("Vegeta", 7L, 1), tuple("Goku", 5L, 2), tuple("Piccolo", 5L, 2));
+    }
+
+    /**
+     * Testet {@link CharacterService#patchCharacter(Long, com.fasterxml.jackson.databind.JsonNode)}.
+     * <p>Erwartet, dass nur die Felder des Patches geaendert werden und {@code null} ein Feld entfernt.</p>
+     */
+    @Test
+    public void whenPatchCharacter_thenChangeOnlyPatchedFields() throws Exception {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        goku.setDescription("Old description");
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(goku));
+        when(characterRepository.save(goku)).thenReturn(goku);
+
+        CharacterDTO result = characterService.patchCharacter(1L,
+                objectMapper.readTree("{\"description\":\"Raised on Earth\",\"maxKi\":null}"));
+
+        assertThat(result.getDescription()).isEqualTo("Raised on Earth");
+        assertThat(result.getMaxKi()).isNull();
+        assertThat(result.getName()).isEqualTo("Goku");
+        assertThat(result.getKi()).isEqualTo("100000");
+        assertThat(goku.getPowerLevel()).isEqualTo(900000000L);
+    }
+
+    /**
+     * Ein Patch ohne Aenderung schreibt nichts; ID-Aenderungen und entfernte Pflichtfelder werden abgelehnt.
+     */
+    @Test
+    public void whenPatchIsNoOpOrInvalid_thenSkipWriteOrReject() throws Exception {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(goku));
+
+        CharacterDTO unchanged = characterService.patchCharacter(1L,
+                objectMapper.readTree("{\"name\":\"Goku\",\"favourite\":true}"));
+
+        assertThat(unchanged.getName()).isEqualTo("Goku");
+        verify(characterRepository, never()).save(any());
+        assertThatThrownBy(() -> characterService.patchCharacter(1L, objectMapper.readTree("{\"id\":2}")))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        assertThatThrownBy(() -> characterService.patchCharacter(1L, objectMapper.readTree("{\"powerLevel\":null}")))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        assertThatThrownBy(() -> characterService.patchCharacter(1L, objectMapper.readTree("{\"race\":\"\"}")))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        assertThatThrownBy(() -> characterService.patchCharacter(1L, objectMapper.readTree("[]")))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        verify(characterRepository, never()).save(any());
+    }
+
+    /**
+     * Testet {@link CharacterService#editTransformations(Long, List)}.
+     * <p>Erwartet, dass die Operationen nacheinander angewendet werden und die Collection erhalten bleibt.</p>
+     */
+    @Test
+    public void whenEditTransformations_thenApplyOperationsInOrder() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        goku.setTransformations(new ArrayList<>(List.of("Kaioken", "Super Saiyan", "Super Saiyan 3")));
+        List<String> collection = goku.getTransformations();
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(goku));
+        when(characterRepository.save(goku)).thenReturn(goku);
+
+        CharacterDTO result = characterService.editTransformations(1L, List.of(
+                TransformationOperationDTO.insert(2, "Super Saiyan 2"),
+                TransformationOperationDTO.insert(null, "Super Saiyan Blue"),
+                TransformationOperationDTO.move(0, 4),
+                TransformationOperationDTO.remove(2)));
+
+        assertThat(result.getTransformations())
+                .containsExactly("Super Saiyan", "Super Saiyan 2", "Super Saiyan Blue", "Kaioken");
+        assertThat(goku.getTransformations()).isSameAs(collection);
+    }
+
+    /**
+     * Eine ungueltige Operation bricht ab, ohne die Transformationen zu aendern.
+     */
+    @Test
+    public void whenTransformationOperationIsInvalid_thenRejectWithoutChanges() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        goku.setTransformations(new ArrayList<>(List.of("Kaioken", "Super Saiyan")));
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(goku));
+
+        assertThatThrownBy(() -> characterService.editTransformations(1L, List.of(
+                TransformationOperationDTO.remove(0), TransformationOperationDTO.remove(1))))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        assertThatThrownBy(() -> characterService.editTransformations(1L, List.of(
+                TransformationOperationDTO.insert(0, " "))))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        assertThatThrownBy(() -> characterService.editTransformations(1L, List.of(
+                new TransformationOperationDTO("replace", 0, null, "Base"))))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        assertThatThrownBy(() -> characterService.editTransformations(1L, List.of()))
+                .isInstanceOf(InvalidCharacterDataException.class);
+        assertThat(goku.getTransformations()).containsExactly("Kaioken", "Super Saiyan");
+        verify(characterRepository, never()).save(any());
+    }
+
+    /**
+     * Testet {@link CharacterService#getRelatedCharacters(Long, Integer)}.
+     * <p>Erwartet die Co-Favoriten aus der Matrix ohne geloeschte Charaktere und
+     * eine Exception fuer unbekannte IDs.</p>
+     */
+    @Test
+    public void whenGetRelatedCharacters_thenResolveCoOccurrencesFromSnapshot() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        Character vegeta = createTestCharacter("Vegeta", "Saiyan");
+        vegeta.setId(2L);
+        when(characterRepository.findAll()).thenReturn(List.of(goku, vegeta));
+        when(coOccurrence.related(1L, 5)).thenReturn(List.of(
+                new FavouriteCounters.FavouriteCount(99L, 4),
+                new FavouriteCounters.FavouriteCount(2L, 3)));
+
+        assertThat(characterService.getRelatedCharacters(1L, 5))
+                .extracting(RelatedCharacterDTO::getName, RelatedCharacterDTO::getSharedFavourites)
+                .containsExactly(tuple("Vegeta", 3L));
+        assertThatThrownBy(() -> characterService.getRelatedCharacters(42L, null))
+                .isInstanceOf(CharacterNotFoundException.class);
+    }
+
+    /**
+     * Testet die Power-Level-Rangliste: Top-K, Bereichsabfrage und Rang mit Gleichstand.
+     * <p>Erwartet, dass ein Update den Charakter im Index neu einsortiert.</p>
+     */
+    @Test
+    public void whenQueryingPowerRanking_thenUseSortedIndex() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        goku.setPowerLevel(900L);
+        Character vegeta = createTestCharacter("Vegeta", "Saiyan");
+        vegeta.setId(2L);
+        vegeta.setPowerLevel(800L);
+        Character gohan = createTestCharacter("Gohan", "Saiyan");
+        gohan.setId(3L);
+        gohan.setPowerLevel(800L);
+        Character krillin = createTestCharacter("Krillin", "Human");
+        krillin.setId(4L);
+        krillin.setPowerLevel(100L);
+        when(characterRepository.findAll()).thenReturn(List.of(goku, vegeta, gohan, krillin));
+
+        assertThat(characterService.getTopByPowerGreaterThan(100L, 2))
+                .extracting(CharacterDTO::getName)
+                .containsExactly("Goku", "Gohan");
+        assertThat(characterService.getCharactersByPowerRange(100L, 800L, null))
+                .extracting(CharacterDTO::getName)
+                .containsExactly("Gohan", "Vegeta", "Krillin");
+        assertThat(characterService.getPowerRank(2L).getRank()).isEqualTo(2);
+        assertThat(characterService.getPowerRank(3L).getRank()).isEqualTo(2);
+        assertThat(characterService.getPowerRank(4L).getRank()).isEqualTo(4);
+
+        Character poweredUp = createTestCharacter("Krillin", "Human");
+        poweredUp.setId(4L);
+        poweredUp.setPowerLevel(1000L);
+        when(characterRepository.findById(4L)).thenReturn(Optional.of(krillin));
+        when(characterRepository.save(any(Character.class))).thenReturn(poweredUp);
+        CharacterDTO update = new CharacterDTO();
+        update.setName("Krillin");
+        update.setRace("Human");
+        update.setPowerLevel(1000L);
+        characterService.updateCharacter(4L, update);
+
+        assertThat(characterService.getPowerRank(4L).getRank()).isEqualTo(1);
+        assertThat(characterService.getPowerRank(4L).getTotal()).isEqualTo(4);
+        verify(characterRepository, times(1)).findAll();
+    }
+
     /**
      * Testet {@link CharacterService#getCharacterById(Long)} mit einer gültigen ID.
      * <p>Erwartet einen DTO mit passendem Namen und ID.</p>
@@ -157,4 +481,34 @@ public class CharacterServiceTest {
         verify(characterRepository, times(1)).existsByNameAndRace(name, race);
     }
 
+    /**
+     * Testet {@link CharacterService#getFavouritePage(String, String, Integer)}.
+     * <p>Die Favoriten kommen als DTOs aus dem Snapshot; der Cursor der ersten Seite
+     * setzt die zweite Seite nach der letzten ID fort.</p>
+     */
+    @Test
+    public void whenGetFavouritePage_thenMapIdsFromSnapshotAndPaginate() {
+        Character goku = createTestCharacter("Goku", "Saiyan");
+        goku.setId(1L);
+        goku.setTransformations(List.of("Super Saiyan"));
+        Character vegeta = createTestCharacter("Vegeta", "Saiyan");
+        vegeta.setId(2L);
+        Character gohan = createTestCharacter("Gohan", "Saiyan");
+        gohan.setId(3L);
+        when(characterRepository.findAll()).thenReturn(List.of(goku, vegeta, gohan));
+        when(userRepository.findFavouriteIds("player", 0L, Limit.of(3))).thenReturn(List.of(1L, 2L, 3L));
+        when(userRepository.findFavouriteIds("player", 2L, Limit.of(3))).thenReturn(List.of(3L));
+
+        CharacterPageDTO first = characterService.getFavouritePage("player", null, 2);
+        CharacterPageDTO second = characterService.getFavouritePage("player", first.getNextCursor(), 2);
+
+        assertThat(first.getItems()).extracting(CharacterDTO::getName).containsExactly("Goku", "Vegeta");
+        assertThat(first.getItems().getFirst().getTransformations()).containsExactly("Super Saiyan");
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getItems()).extracting(CharacterDTO::getName).containsExactly("Gohan");
+        assertThat(second.getNextCursor()).isNull();
+        assertThatThrownBy(() -> characterService.getFavouritePage("player", "not-a-cursor", 2))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+
 }
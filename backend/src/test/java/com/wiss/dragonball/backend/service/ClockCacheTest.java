@@ -0,0 +1,65 @@
+package com.wiss.dragonball.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit-Tests fuer den {@link ClockCache}. Prueft Obergrenze, zweite Chance und bedingtes Einfuegen.
+ */
+public class ClockCacheTest {
+
+    /**
+     * Ein voller Cache verdraengt den seit dem letzten Umlauf nicht gelesenen Eintrag.
+     */
+    @Test
+    void put_evictsEntryNotReadSinceLastSweep() {
+        ClockCache<String, Integer> cache = new ClockCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(1, cache.get("a"));
+
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(1, cache.evictions());
+    }
+
+    /**
+     * Entfernte Eintraege geben ihren Platz frei; Ueberschreiben belegt keinen zusaetzlichen.
+     */
+    @Test
+    void remove_freesSlotWithoutEviction() {
+        ClockCache<String, Integer> cache = new ClockCache<>(2);
+        cache.put("a", 1);
+        cache.put("a", 2);
+        cache.put("b", 3);
+        cache.remove("b");
+        assertFalse(cache.remove("a", 1));
+
+        cache.put("c", 4);
+
+        assertEquals(2, cache.get("a"));
+        assertEquals(4, cache.get("c"));
+        assertEquals(0, cache.evictions());
+    }
+
+    /**
+     * Gilt die Bedingung unter der Sperre nicht mehr, wird nichts abgelegt; ohne Kapazitaet nie.
+     */
+    @Test
+    void putIf_skipsWhenConditionNoLongerHolds() {
+        ClockCache<String, Integer> cache = new ClockCache<>(2);
+        assertFalse(cache.putIf("a", 1, () -> false));
+        assertNull(cache.get("a"));
+
+        ClockCache<String, Integer> disabled = new ClockCache<>(0);
+        disabled.put("a", 1);
+        assertNull(disabled.get("a"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.repository.FavouriteBatchRepository;
+import com.wiss.dragonball.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit-Tests fuer den {@link FavouriteBitmapCache} zusammen mit der {@link FavouriteCoOccurrence}.
+ */
+public class FavouriteBitmapCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final FavouriteBitmapCache cache = new FavouriteBitmapCache(userRepository, 100);
+    private final FavouriteCoOccurrence coOccurrence = new FavouriteCoOccurrence(
+            mock(FavouriteBatchRepository.class), mock(PlatformTransactionManager.class), "", 3_600_000);
+
+    /**
+     * Nach dem Loeschen eines favorisierten Charakters fehlt er im gecachten Vorher-Stand;
+     * eine weitere Aenderung legt daher keine Paare mit ihm mehr an.
+     */
+    @Test
+    void removeCharacter_keepsDeletedCharacterOutOfLaterChanges() {
+        when(userRepository.findFavouriteIds("player", 0L, Limit.unlimited())).thenReturn(List.of(1L, 2L));
+        long versionBefore = cache.get("player").getVersion();
+
+        // Loeschen von Charakter 2, wie im After-Commit-Hook von CharacterService.deleteCharacter
+        cache.removeCharacter(2L);
+        coOccurrence.removeCharacter(2L, 1);
+
+        FavouriteBitmap cached = cache.get("player");
+        assertFalse(cached.contains(2L));
+        assertNotEquals(versionBefore, cached.getVersion());
+
+        cache.beginChange("player");
+        try {
+            FavouriteBitmap before = cache.apply("player", List.of(3L), List.of());
+            coOccurrence.record(before, List.of(3L), List.of());
+            assertArrayEquals(new long[]{1L}, before.toArray());
+        } finally {
+            cache.endChange("player");
+        }
+
+        assertEquals(List.of(new FavouriteCounters.FavouriteCount(1L, 1)), coOccurrence.related(3L, 5));
+        assertEquals(List.of(), coOccurrence.related(2L, 5));
+        assertArrayEquals(new long[]{1L, 3L}, cache.get("player").toArray());
+        verify(userRepository, times(1)).findFavouriteIds("player", 0L, Limit.unlimited());
+    }
+}
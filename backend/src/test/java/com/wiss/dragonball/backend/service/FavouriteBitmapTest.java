@@ -0,0 +1,66 @@
+package com.wiss.dragonball.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit-Tests fuer {@link FavouriteBitmap}. Prueft Array- und Bitmap-Bloecke sowie Aenderungen.
+ */
+public class FavouriteBitmapTest {
+
+    /**
+     * Duenn besetzte Bloecke (Array) und dichte Bloecke (Bitmap) liefern dieselbe Menge zurueck.
+     */
+    @Test
+    void of_storesSparseAndDenseBlocks() {
+        long[] dense = LongStream.range(70_000, 70_000 + FavouriteBitmap.ARRAY_CONTAINER_MAX + 10).toArray();
+        long[] ids = LongStream.concat(LongStream.of(-1, 1, 1, 5, 65_535), LongStream.of(dense)).toArray();
+
+        FavouriteBitmap bitmap = FavouriteBitmap.of(1, ids);
+
+        assertEquals(3 + dense.length, bitmap.size());
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(65_535));
+        assertTrue(bitmap.contains(70_000 + 100));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(65_536));
+        assertFalse(bitmap.contains(-1));
+        assertFalse(bitmap.contains(1L << 40));
+        assertArrayEquals(LongStream.concat(LongStream.of(1, 5, 65_535), LongStream.of(dense)).toArray(),
+                bitmap.toArray());
+    }
+
+    /**
+     * Aenderungen erzeugen eine neue Bitmap mit neuer Version; das Original bleibt unveraendert.
+     */
+    @Test
+    void withChanges_returnsUpdatedCopy() {
+        FavouriteBitmap original = FavouriteBitmap.of(1, new long[]{1, 2, 3});
+
+        FavouriteBitmap changed = original.withChanges(2, List.of(4L), List.of(2L));
+
+        assertArrayEquals(new long[]{1, 3, 4}, changed.toArray());
+        assertEquals(2, changed.getVersion());
+        assertArrayEquals(new long[]{1, 2, 3}, original.toArray());
+    }
+
+    /**
+     * Unsortierte, doppelte und bereits enthaltene IDs werden beim Zusammenfuehren korrekt behandelt.
+     */
+    @Test
+    void withChanges_mergesUnsortedAndOverlappingIds() {
+        FavouriteBitmap original = FavouriteBitmap.of(1, new long[]{2, 5, 70_000});
+
+        FavouriteBitmap changed = original.withChanges(2, List.of(9L, 1L, 5L, 9L, 3L), List.of(70_000L, 3L, 8L));
+
+        assertArrayEquals(new long[]{1, 2, 5, 9}, changed.toArray());
+        assertEquals(4, changed.size());
+    }
+}
@@ -0,0 +1,102 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.repository.FavouriteBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit-Tests fuer {@link FavouriteCoOccurrence}. Prueft inkrementelle Updates, den Neuaufbau
+ * aus der Datenbank und den Checkpoint.
+ */
+public class FavouriteCoOccurrenceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FavouriteBatchRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(FavouriteBatchRepository.class);
+    }
+
+    /**
+     * Ein neuer Favorit zaehlt ein Paar mit jedem bisherigen Favoriten, ein entfernter zieht es wieder ab.
+     */
+    @Test
+    void record_updatesPairsIncrementally() {
+        FavouriteCoOccurrence coOccurrence = create("");
+
+        coOccurrence.record(FavouriteBitmap.of(1, new long[0]), List.of(1L, 2L, 3L), List.of());
+        coOccurrence.record(FavouriteBitmap.of(2, new long[]{1L}), List.of(2L), List.of());
+        coOccurrence.record(FavouriteBitmap.of(3, new long[]{1L, 2L, 3L}), List.of(), List.of(3L));
+
+        assertEquals(List.of(new FavouriteCounters.FavouriteCount(2L, 2)), coOccurrence.related(1L, 5));
+        assertEquals(List.of(new FavouriteCounters.FavouriteCount(1L, 2)), coOccurrence.related(2L, 5));
+        assertEquals(List.of(), coOccurrence.related(3L, 5));
+    }
+
+    /**
+     * Ohne Checkpoint wird die Matrix aus den nach Nutzer sortierten Favoriten neu aufgebaut;
+     * ein geschriebener Checkpoint mit passendem Fingerabdruck ersetzt beim naechsten Start den Neuaufbau.
+     */
+    @Test
+    void load_rebuildsAndRestoresCheckpoint() throws Exception {
+        Path checkpoint = tempDir.resolve("co-occurrence.bin");
+        long[] fingerprint = fingerprint(1L, 2L, 1L, 3L, 2L);
+        when(repository.favouriteFingerprint()).thenReturn(fingerprint);
+        doAnswer(invocation -> {
+            FavouriteBatchRepository.FavouriteRowHandler handler = invocation.getArgument(0);
+            handler.accept(10L, 1L);
+            handler.accept(10L, 2L);
+            handler.accept(11L, 1L);
+            handler.accept(11L, 3L);
+            handler.accept(12L, 2L);
+            return null;
+        }).when(repository).forEachFavouriteByUser(any());
+
+        FavouriteCoOccurrence first = create(checkpoint.toString());
+        first.load();
+        assertEquals(List.of(
+                new FavouriteCounters.FavouriteCount(2L, 1),
+                new FavouriteCounters.FavouriteCount(3L, 1)), first.related(1L, 5));
+        assertEquals(2, first.checkpoint());
+        first.shutdown();
+
+        FavouriteBatchRepository restoredRepository = mock(FavouriteBatchRepository.class);
+        when(restoredRepository.favouriteFingerprint()).thenReturn(fingerprint);
+        FavouriteCoOccurrence restored = new FavouriteCoOccurrence(restoredRepository,
+                mock(PlatformTransactionManager.class), checkpoint.toString(), 3_600_000);
+        restored.load();
+        verify(restoredRepository, never()).forEachFavouriteByUser(any());
+        assertEquals(first.related(1L, 5), restored.related(1L, 5));
+        restored.shutdown();
+    }
+
+    private FavouriteCoOccurrence create(String checkpointPath) {
+        return new FavouriteCoOccurrence(repository, mock(PlatformTransactionManager.class), checkpointPath, 3_600_000);
+    }
+
+    private static long[] fingerprint(long... characterIds) {
+        long[] fingerprint = new long[3];
+        for (long id : characterIds) {
+            fingerprint[0]++;
+            fingerprint[1] += id;
+            fingerprint[2] += Math.floorMod(id * id, FavouriteBatchRepository.FINGERPRINT_MODULUS);
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,120 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.repository.FavouriteBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit-Tests fuer {@link FavouriteCounters}. Prueft Rangliste, Flush der Differenzen
+ * und den Abgleich beim Start.
+ */
+public class FavouriteCountersTest {
+
+    private FavouriteBatchRepository repository;
+    private FavouriteCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(FavouriteBatchRepository.class);
+        counters = new FavouriteCounters(repository, mock(PlatformTransactionManager.class), 3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Stubs zuruecksetzen, damit der abschliessende Flush nicht an einem Fehler-Stub scheitert
+        reset(repository);
+        counters.shutdown();
+    }
+
+    /**
+     * Die Rangliste ist absteigend nach Anzahl, bei Gleichstand nach ID, und laesst leere Zaehler weg.
+     */
+    @Test
+    void top_ordersByCountThenId() {
+        counters.increment(3L);
+        counters.increment(3L);
+        counters.increment(2L);
+        counters.increment(1L);
+        counters.increment(4L);
+        counters.decrement(4L);
+
+        assertEquals(List.of(
+                new FavouriteCounters.FavouriteCount(3L, 2),
+                new FavouriteCounters.FavouriteCount(1L, 1)), counters.top(2));
+        assertEquals(3, counters.top(10).size());
+    }
+
+    /**
+     * Ein Flush schreibt nur die Differenzen weg; Aenderungen waehrend des Flushs bleiben offen.
+     */
+    @Test
+    void flush_writesDeltasAndKeepsConcurrentChanges() {
+        counters.increment(1L);
+        counters.increment(1L);
+        counters.decrement(2L);
+        doAnswer(invocation -> {
+            // paralleler Favorit, waehrend der Batch laeuft
+            counters.increment(1L);
+            return null;
+        }).when(repository).addToFavouriteCounts(Map.of(1L, 2L, 2L, -1L));
+
+        assertEquals(2, counters.flush());
+        assertEquals(3, counters.count(1L));
+        assertEquals(1, counters.flush());
+        verify(repository).addToFavouriteCounts(Map.of(1L, 1L));
+        assertEquals(0, counters.flush());
+    }
+
+    /**
+     * Schlaegt der Flush fehl, bleiben die Differenzen fuer den naechsten Lauf erhalten.
+     */
+    @Test
+    void flush_keepsDeltasWhenWriteFails() {
+        counters.increment(1L);
+        doThrow(new IllegalStateException("db down")).when(repository).addToFavouriteCounts(any());
+
+        assertThrows(IllegalStateException.class, () -> counters.flush());
+        assertEquals(1, counters.count(1L));
+    }
+
+    /**
+     * Der Abgleich ersetzt die Zaehler durch die neu berechneten Werte aus der Datenbank;
+     * waehrend der Neuberechnung gezaehlte Favoriten bleiben als offene Differenz erhalten.
+     */
+    @Test
+    void reconcile_loadsCountsFromDatabase() {
+        counters.increment(9L);
+        counters.increment(1L);
+        when(repository.reconcileFavouriteCounts()).thenAnswer(invocation -> {
+            // Favorit, der waehrend der Neuberechnung gezaehlt wird
+            counters.increment(2L);
+            return 2;
+        });
+        when(repository.findFavouriteCounts()).thenReturn(Map.of(1L, 4L, 2L, 6L));
+
+        counters.reconcile();
+
+        assertEquals(0, counters.count(9L));
+        assertEquals(4, counters.count(1L));
+        assertEquals(List.of(
+                new FavouriteCounters.FavouriteCount(2L, 7),
+                new FavouriteCounters.FavouriteCount(1L, 4)), counters.top(5));
+        assertEquals(1, counters.flush());
+        verify(repository).addToFavouriteCounts(Map.of(2L, 1L));
+    }
+}
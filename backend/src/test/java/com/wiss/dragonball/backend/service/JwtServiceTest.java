@@ -0,0 +1,116 @@
+package com.wiss.dragonball.backend.service;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit-Tests fuer {@link JwtService}. Prueft die einmalige Verifikation
+ * und den Cache fuer bereits verifizierte Tokens.
+ */
+public class JwtServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final UserDetails goku = new User("goku", "secret", List.of(new SimpleGrantedAuthority("ROLE_PLAYER")));
+
+    /**
+     * Ein gueltiges Token liefert die Claims; der zweite Aufruf kommt aus dem Cache.
+     */
+    @Test
+    void verifyToken_returnsClaimsAndCachesThem() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 3_600_000, 100);
+        String token = jwtService.generateToken(goku, 0);
+
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(token);
+
+        assertNotNull(first);
+        assertEquals("goku", first.getSubject());
+        assertEquals("ROLE_PLAYER", first.get("roles", String.class));
+        assertSame(first, second);
+        assertTrue(jwtService.validateToken(token, goku));
+    }
+
+    /**
+     * Manipulierte oder abgelaufene Tokens ergeben {@code null} statt einer Ausnahme.
+     */
+    @Test
+    void verifyToken_rejectsTamperedAndExpiredTokens() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 3_600_000, 100);
+        String token = jwtService.generateToken(goku, 0);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        JwtService expiring = new JwtService(SECRET, -1_000, 3_600_000, 100);
+        String expired = expiring.generateToken(goku, 0);
+
+        assertNull(jwtService.verifyToken(tampered));
+        assertNull(jwtService.verifyToken(expired));
+        assertNull(jwtService.verifyToken("not-a-jwt"));
+        assertFalse(jwtService.validateToken(expired, goku));
+    }
+
+    /**
+     * Der Cache waechst nicht ueber seine Obergrenze, verdraengt einen seit dem Einfuegen nicht gelesenen
+     * Eintrag und liefert keine abgelaufenen Eintraege.
+     */
+    @Test
+    void verifiedTokenCache_isBoundedAndHonoursExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        JwtService jwtService = new JwtService(SECRET, 60_000, 3_600_000, 0);
+        Claims claims = jwtService.verifyToken(jwtService.generateToken(goku, 0));
+
+        cache.put("a", claims, 2_000, 1_000);
+        cache.put("b", claims, 2_000, 1_000);
+        assertNotNull(cache.get("a", 1_100));
+        cache.put("c", claims, 2_000, 1_000);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a", 1_500));
+        assertNull(cache.get("b", 1_500));
+        assertNotNull(cache.get("c", 1_500));
+        assertNull(cache.get("c", 2_000));
+    }
+
+    /**
+     * Rollen und Token-Generation lassen sich ohne Datenbank aus den Claims lesen.
+     */
+    @Test
+    void extractAuthoritiesAndGeneration_readClaims() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 3_600_000, 100);
+        Claims claims = jwtService.verifyToken(jwtService.generateToken(goku, 7));
+
+        assertEquals(7L, JwtService.extractGeneration(claims));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_PLAYER")), JwtService.extractAuthorities(claims));
+    }
+
+    /**
+     * Refresh-Tokens tragen Typ, Benutzer-ID und eine eindeutige ID; Access-Tokens nicht.
+     */
+    @Test
+    void generateRefreshToken_isTypedAndUnique() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 3_600_000, 100);
+        String first = jwtService.generateRefreshToken("goku", "ROLE_PLAYER", 3, 42L);
+        String second = jwtService.generateRefreshToken("goku", "ROLE_PLAYER", 3, 42L);
+
+        Claims claims = jwtService.verifyToken(first);
+
+        assertTrue(JwtService.isRefreshToken(claims));
+        assertEquals(42L, claims.get(JwtService.USER_ID_CLAIM, Long.class));
+        assertEquals(3L, JwtService.extractGeneration(claims));
+        assertNotEquals(first, second);
+        assertFalse(JwtService.isRefreshToken(jwtService.verifyToken(jwtService.generateToken(goku, 0))));
+    }
+}
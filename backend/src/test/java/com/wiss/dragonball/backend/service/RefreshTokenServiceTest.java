@@ -0,0 +1,144 @@
+package com.wiss.dragonball.backend.service;
+
+import com.wiss.dragonball.backend.entity.RefreshToken;
+import com.wiss.dragonball.backend.exception.InvalidRefreshTokenException;
+import com.wiss.dragonball.backend.repository.RefreshTokenRepository;
+import com.wiss.dragonball.backend.security.TokenGenerationTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit-Tests fuer {@link RefreshTokenService} und {@link RevokedTokenFilter}.
+ * Prueft Rotation, Erkennung wiederverwendeter Tokens und den Aufbau der Widerrufsliste.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private TokenGenerationTable tokenGenerations;
+    @Mock
+    private UserService userService;
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, 3_600_000, 100);
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, jwtService, tokenGenerations, userService, 100);
+    }
+
+    /**
+     * Ein gueltiger Refresh-Token wird genau einmal gegen ein neues Paar getauscht,
+     * ohne den Benutzer aus der Datenbank zu laden.
+     */
+    @Test
+    void rotate_issuesNewPairFromClaims() {
+        String refreshToken = jwtService.generateRefreshToken("goku", "ROLE_PLAYER", 2, 42L);
+        when(tokenGenerations.isCurrent("goku", 2)).thenReturn(true);
+        when(refreshTokenRepository.revokeActive(eq(RefreshTokenService.sha256Hex(refreshToken)), any())).thenReturn(1);
+
+        RefreshTokenService.IssuedTokens issued = refreshTokenService.rotate(refreshToken);
+
+        assertEquals("goku", issued.username());
+        assertEquals("ROLE_PLAYER", issued.roles());
+        assertEquals(42L, issued.userId());
+        assertNotEquals(refreshToken, issued.refreshToken());
+        assertFalse(JwtService.isRefreshToken(jwtService.verifyToken(issued.accessToken())));
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(userService, never()).loadUserOrThrow(any());
+    }
+
+    /**
+     * Ein bereits rotierter Token wird abgelehnt und widerruft alle Tokens des Benutzers.
+     */
+    @Test
+    void rotate_reusedTokenRevokesAllTokens() {
+        String refreshToken = jwtService.generateRefreshToken("goku", "ROLE_PLAYER", 0, 42L);
+        when(tokenGenerations.isCurrent("goku", 0)).thenReturn(true);
+        when(refreshTokenRepository.revokeActive(any(), any())).thenReturn(1);
+        refreshTokenService.rotate(refreshToken);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(refreshToken));
+
+        verify(userService).revokeTokens("goku");
+        verify(refreshTokenRepository, times(1)).revokeActive(any(), any());
+    }
+
+    /**
+     * Access-Tokens und Tokens einer alten Generation werden nicht eingeloest.
+     */
+    @Test
+    void rotate_rejectsAccessTokensAndStaleGenerations() {
+        String accessToken = jwtService.generateToken("goku", "ROLE_PLAYER", 0);
+        String staleToken = jwtService.generateRefreshToken("goku", "ROLE_PLAYER", 0, 42L);
+        when(tokenGenerations.isCurrent("goku", 0)).thenReturn(false);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(accessToken));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(staleToken));
+        verify(refreshTokenRepository, never()).revokeActive(any(), any());
+    }
+
+    /**
+     * Beim Start widerrufene Tokens aus der Datenbank werden sofort erkannt.
+     */
+    @Test
+    void loadRevokedTokens_rebuildsFilterFromDatabase() {
+        String refreshToken = jwtService.generateRefreshToken("goku", "ROLE_PLAYER", 0, 42L);
+        RefreshToken revoked = new RefreshToken(RefreshTokenService.sha256Hex(refreshToken), "goku",
+                Instant.now().plusSeconds(3_600));
+        revoked.setRevoked(true);
+        when(refreshTokenRepository.findRevokedNotExpired(any())).thenReturn(List.of(revoked));
+
+        refreshTokenService.loadRevokedTokens();
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(refreshToken));
+        verify(userService).revokeTokens("goku");
+    }
+
+    /**
+     * Der Filter kennt jeden widerrufenen Hash, vergisst abgelaufene und waechst ueber
+     * die erwartete Groesse hinaus, ohne Eintraege zu verlieren.
+     */
+    @Test
+    void revokedTokenFilter_hasNoFalseNegativesAndDropsExpiredEntries() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(100);
+        Map<String, Long> initial = new HashMap<>();
+        initial.put(RefreshTokenService.sha256Hex("expired"), 500L);
+        filter.rebuild(initial, 0);
+
+        for (int i = 0; i < 1_000; i++) {
+            filter.add(RefreshTokenService.sha256Hex("token" + i), 10_000, 1_000);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.isRevoked(RefreshTokenService.sha256Hex("token" + i), 1_000));
+        }
+        assertFalse(filter.isRevoked(RefreshTokenService.sha256Hex("token0"), 10_000));
+        assertFalse(filter.isRevoked(RefreshTokenService.sha256Hex("expired"), 1_000));
+        assertEquals(1_000, filter.size());
+    }
+}
@@ -1,21 +1,37 @@
 package com.wiss.dragonball.backend.service;
 
-import com.wiss.dragonball.backend.entity.Character;
+import com.wiss.dragonball.backend.dto.FavouriteBatchRequestDTO;
+import com.wiss.dragonball.backend.dto.FavouriteBatchResultDTO;
 import com.wiss.dragonball.backend.entity.Role;
 import com.wiss.dragonball.backend.entity.User;
+import com.wiss.dragonball.backend.exception.CharacterNotFoundException;
+import com.wiss.dragonball.backend.exception.InvalidFavouriteBatchException;
 import com.wiss.dragonball.backend.repository.CharacterRepository;
+import com.wiss.dragonball.backend.repository.FavouriteBatchRepository;
 import com.wiss.dragonball.backend.repository.UserRepository;
+import com.wiss.dragonball.backend.security.TokenGenerationTable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +48,18 @@ public class UserServiceTest {
     private CharacterRepository characterRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private TokenGenerationTable tokenGenerations;
+    @Mock
+    private FavouriteBatchRepository favouriteBatchRepository;
+    @Mock
+    private FavouriteCounters favouriteCounters;
+    @Mock
+    private FavouriteBitmapCache favouriteBitmaps;
+    @Mock
+    private FavouriteCoOccurrence coOccurrence;
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(100, 60);
 
     @InjectMocks
     private UserService userService;
@@ -57,45 +85,193 @@ public class UserServiceTest {
     }
 
     /**
-     * Stellt sicher, dass ein hinzugefuegter Favorit mit dem Nutzer verknuepft
-     * und ueber das Repository gespeichert wird.
+     * Stellt sicher, dass ein Favorit per einzelnem INSERT hinzugefuegt wird,
+     * ohne Nutzer oder Charakter zu laden.
      */
     @Test
-    void addFavourite_addsCharacterToUserFavourites() {
+    void addFavourite_insertsJoinRowWithoutLoadingEntities() {
         // Vorbereitung
-        User user = new User("player", "hashed", Role.PLAYER);
-        Character character = new Character();
-        character.setId(1L);
-        when(userRepository.findByUsername("player")).thenReturn(Optional.of(user));
-        when(characterRepository.findById(1L)).thenReturn(Optional.of(character));
-        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.insertFavourite("player", 1L)).thenReturn(1);
+
+        // Aktion
+        userService.addFavourite("player", 1L);
+
+        // Pruefung
+        verify(userRepository).insertFavourite("player", 1L);
+        verify(userRepository, never()).findByUsername(any());
+        verify(characterRepository, never()).findById(any());
+        verify(favouriteCounters).increment(1L);
+        verify(favouriteBitmaps).apply("player", List.of(1L), List.of());
+    }
+
+    /**
+     * Stellt sicher, dass ein bereits vorhandener Favorit den Beliebtheits-Zaehler nicht veraendert.
+     */
+    @Test
+    void addFavourite_existingFavouriteDoesNotCount() {
+        // Vorbereitung
+        when(userRepository.insertFavourite("player", 1L)).thenReturn(0);
+        when(userRepository.findIdByUsername("player")).thenReturn(Optional.of(5L));
 
         // Aktion
         userService.addFavourite("player", 1L);
 
         // Pruefung
-        assertEquals(1, user.getFavourites().size(), "Charakter sollte zu den Favoriten hinzugefuegt werden");
+        verify(favouriteCounters, never()).increment(any());
+    }
+
+    /**
+     * Stellt sicher, dass ein unbekannter Nutzer weiterhin als nicht gefunden gemeldet wird,
+     * obwohl das INSERT dann einfach keine Zeile einfuegt.
+     */
+    @Test
+    void addFavourite_unknownUserThrowsNotFound() {
+        // Vorbereitung
+        when(userRepository.insertFavourite("ghost", 1L)).thenReturn(0);
+        when(userRepository.findIdByUsername("ghost")).thenReturn(Optional.empty());
+
+        // Aktion und Pruefung
+        assertThrows(NoSuchElementException.class, () -> userService.addFavourite("ghost", 1L));
+        verify(favouriteCounters, never()).increment(any());
+    }
+
+    /**
+     * Stellt sicher, dass ein verletzter Fremdschluessel als unbekannter Charakter gemeldet wird.
+     */
+    @Test
+    void addFavourite_unknownCharacterThrowsNotFound() {
+        // Vorbereitung
+        when(userRepository.insertFavourite("player", 99L))
+                .thenThrow(new DataIntegrityViolationException("fk_character"));
+        when(characterRepository.existsById(99L)).thenReturn(false);
+
+        // Aktion und Pruefung
+        assertThrows(CharacterNotFoundException.class, () -> userService.addFavourite("player", 99L));
     }
 
     /**
-     * Stellt sicher, dass ein Favorit entfernt wird und die aktualisierte
-     * Entitaet gespeichert wird.
+     * Stellt sicher, dass ein Batch Duplikate zusammenfasst, unbekannte Charaktere meldet
+     * und nur je einen Insert- und Delete-Batch absetzt.
      */
     @Test
-    void removeFavourite_removesCharacterFromUserFavourites() {
+    void applyFavouriteBatch_reportsDeltaAndUnknownIds() {
+        // Vorbereitung
+        when(userRepository.findIdByUsername("player")).thenReturn(Optional.of(5L));
+        when(characterRepository.findExistingIds(List.of(1L, 2L, 99L))).thenReturn(List.of(1L, 2L));
+        when(favouriteBatchRepository.insertAll(5L, List.of(1L, 2L))).thenReturn(List.of(2L));
+        when(favouriteBatchRepository.deleteAll(5L, List.of(7L))).thenReturn(List.of(7L));
+        FavouriteBitmap before = FavouriteBitmap.of(1L, new long[]{3L, 7L});
+        when(favouriteBitmaps.apply("player", List.of(2L), List.of(7L))).thenReturn(before);
+
+        // Aktion
+        FavouriteBatchResultDTO result = userService.applyFavouriteBatch("player",
+                new FavouriteBatchRequestDTO(List.of(1L, 2L, 2L, 99L), List.of(7L)));
+
+        // Pruefung
+        assertEquals(List.of(2L), result.getAdded());
+        assertEquals(List.of(7L), result.getRemoved());
+        assertEquals(List.of(99L), result.getUnknown());
+        verify(userRepository, never()).findByUsername(any());
+        verify(favouriteCounters).increment(2L);
+        verify(favouriteCounters, never()).increment(1L);
+        verify(favouriteCounters).decrement(7L);
+        verify(favouriteBitmaps).beginChange("player");
+        verify(favouriteBitmaps).endChange("player");
+        verify(coOccurrence).record(before, List.of(2L), List.of(7L));
+    }
+
+    /**
+     * Stellt sicher, dass ein nach der Existenzpruefung geloeschter Charakter (verletzter
+     * Fremdschluessel beim Batch-Insert) als unbekannter Charakter gemeldet wird.
+     */
+    @Test
+    void applyFavouriteBatch_characterDeletedConcurrentlyThrowsNotFound() {
+        // Vorbereitung
+        when(userRepository.findIdByUsername("player")).thenReturn(Optional.of(5L));
+        when(characterRepository.findExistingIds(List.of(4L))).thenReturn(List.of(4L));
+        when(favouriteBatchRepository.insertAll(5L, List.of(4L)))
+                .thenThrow(new DataIntegrityViolationException("fk_character"));
+
+        // Aktion und Pruefung
+        CharacterNotFoundException thrown = assertThrows(CharacterNotFoundException.class,
+                () -> userService.applyFavouriteBatch("player", new FavouriteBatchRequestDTO(List.of(4L), List.of())));
+        assertEquals(4L, thrown.getCharacterId());
+        verify(favouriteBitmaps).endChange("player");
+        verify(favouriteCounters, never()).increment(4L);
+    }
+
+    /**
+     * Stellt sicher, dass widerspruechliche Batches abgelehnt werden, bevor die Datenbank laeuft.
+     */
+    @Test
+    void applyFavouriteBatch_rejectsIdInBothLists() {
+        assertThrows(InvalidFavouriteBatchException.class, () -> userService.applyFavouriteBatch("player",
+                new FavouriteBatchRequestDTO(List.of(1L), List.of(1L))));
+        verify(favouriteBatchRepository, never()).insertAll(anyLong(), any());
+    }
+
+    /**
+     * Stellt sicher, dass ein Favorit per einzelnem DELETE entfernt wird.
+     */
+    @Test
+    void removeFavourite_deletesJoinRowWithoutLoadingEntities() {
+        // Vorbereitung
+        when(userRepository.deleteFavourite("player", 2L)).thenReturn(1);
+
+        // Aktion
+        userService.removeFavourite("player", 2L);
+
+        // Pruefung
+        verify(userRepository).deleteFavourite("player", 2L);
+        verify(userRepository, never()).findByUsername(any());
+        verify(favouriteCounters).decrement(2L);
+    }
+
+    /**
+     * Stellt sicher, dass wiederholte Lookups aus dem Cache bedient werden und
+     * ein Passwortwechsel den Eintrag gezielt verwirft.
+     */
+    @Test
+    void loadUserByUsername_isCachedUntilPasswordChanges() {
         // Vorbereitung
         User user = new User("player", "hashed", Role.PLAYER);
-        Character character = new Character();
-        character.setId(2L);
-        user.addFavourite(character);
         when(userRepository.findByUsername("player")).thenReturn(Optional.of(user));
-        when(characterRepository.findById(2L)).thenReturn(Optional.of(character));
-        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(passwordEncoder.encode("newSecret")).thenReturn("newHash");
 
         // Aktion
-        userService.removeFavourite("player", 2L);
+        UserDetails first = userService.loadUserByUsername("player");
+        UserDetails second = userService.loadUserByUsername("player");
+        userService.changePassword("player", "newSecret");
+        UserDetails afterChange = userService.loadUserByUsername("player");
+
+        // Pruefung
+        assertEquals("hashed", first.getPassword());
+        assertEquals(first, second);
+        assertFalse(first instanceof CredentialsContainer, "Gecachte Eintraege duerfen nicht geloescht werden koennen");
+        assertEquals("newHash", afterChange.getPassword());
+        verify(userRepository, times(3)).findByUsername("player");
+        verify(tokenGenerations).refresh("player");
+        assertEquals(1, userService.getUserDetailsCacheStats().getHits());
+        assertEquals(2, userService.getUserDetailsCacheStats().getMisses());
+    }
+
+    /**
+     * Stellt sicher, dass ein beim Login neu berechneter Hash gespeichert und
+     * der gecachte Nutzer verworfen wird (Rehash-on-Login).
+     */
+    @Test
+    void updatePassword_storesRehashedPassword() {
+        // Vorbereitung
+        User user = new User("player", "$2a$10$old", Role.PLAYER);
+        when(userRepository.findByUsername("player")).thenReturn(Optional.of(user));
+        UserDetails principal = userService.loadUserByUsername("player");
+
+        // Aktion
+        UserDetails updated = userService.updatePassword(principal, "$2a$12$new");
 
         // Pruefung
-        assertEquals(0, user.getFavourites().size(), "Charakter sollte aus den Favoriten entfernt werden");
+        assertEquals("$2a$12$new", user.getPassword());
+        assertEquals("$2a$12$new", updated.getPassword());
+        assertEquals("$2a$12$new", userService.loadUserByUsername("player").getPassword());
     }
 }
@@ -5,7 +5,7 @@ import { useAuth } from "../contexts/AuthContext";
 import {
   addFavourite,
   removeFavourite,
-  getMyFavourites,
+  getAllMyFavourites,
 } from "../services/favouriteService";
 
 // Zahl wie 6000000 -> "6,000,000"
@@ -34,6 +34,7 @@ const formatKi = (value) => {
  * - baseKi/totalKi: numerisch oder String, werden formatiert
  * - image: Bild-URL, faellt auf Platzhalter zurueck
  * - isCustom: markiert lokale Charaktere ohne Backend-ID
+ * - favourite: Favoriten-Flag aus der Listen-Antwort; fehlt es, wird der Status nachgeladen
  */
 const CharacterCard = ({
                          id,
@@ -45,6 +46,7 @@ const CharacterCard = ({
                          totalKi,
                          affiliation,
                          isCustom = false,
+                         favourite,
                        }) => {
   const displayImage = image || "/Jiren.webp";
   const targetId = id ?? encodeURIComponent(name);
@@ -53,19 +55,23 @@ const CharacterCard = ({
       : affiliation;
 
   const { isAuthenticated } = useAuth();
-  const [isFavourite, setIsFavourite] = useState(false);
+  const [isFavourite, setIsFavourite] = useState(favourite === true);
   const [favError, setFavError] = useState(null);
   const numericId = Number.isFinite(Number(id)) ? Number(id) : null;
   const showFav = isAuthenticated && numericId !== null;
 
-  // Favoritenstatus laden, sobald Nutzer angemeldet ist.
+  // Favoritenstatus laden, sobald Nutzer angemeldet ist - ausser die Liste hat ihn mitgeliefert.
   useEffect(() => {
     let active = true;
     const load = async () => {
       if (!showFav) return;
+      if (typeof favourite === "boolean") {
+        setIsFavourite(favourite);
+        return;
+      }
       try {
-        const response = await getMyFavourites();
-        const ids = (response.data || []).map((c) => c.id);
+        const favourites = await getAllMyFavourites();
+        const ids = favourites.map((c) => c.id);
         if (active) setIsFavourite(ids.includes(numericId));
       } catch (err) {
         console.error("Failed to load favourites", err);
@@ -75,7 +81,7 @@ const CharacterCard = ({
     return () => {
       active = false;
     };
-  }, [showFav, id]);
+  }, [showFav, id, favourite]);
 
   const handleToggleFavourite = async (event) => {
     event.preventDefault();
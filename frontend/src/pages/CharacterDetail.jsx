@@ -4,7 +4,7 @@ import { useAuth } from "../contexts/AuthContext";
 import {
     addFavourite,
     removeFavourite,
-    getMyFavourites,
+    getAllMyFavourites,
 } from "../services/favouriteService";
 
 /**
@@ -55,8 +55,8 @@ const CharacterDetail = ({
                 return;
             }
             try {
-                const response = await getMyFavourites();
-                const ids = (response.data || []).map((c) => c.id);
+                const favourites = await getAllMyFavourites();
+                const ids = favourites.map((c) => c.id);
                 setIsFavourite(ids.includes(character.id));
             } catch (err) {
                 console.error("Failed to load favourites", err);
@@ -11,6 +11,7 @@ import CharacterCard from "../components/CharacterCard";
  */
 const FavoritesPage = () => {
     const [items, setItems] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState(null);
 
@@ -20,7 +21,8 @@ const FavoritesPage = () => {
             try {
                 const response = await getMyFavourites();
                 if (!active) return;
-                setItems(response.data || []);
+                setItems(response.data?.items || []);
+                setNextCursor(response.data?.nextCursor || null);
             } catch (err) {
                 if (!active) return;
                 setError(err.message || "Failed to load favourites");
@@ -34,6 +36,17 @@ const FavoritesPage = () => {
         };
     }, []);
 
+    // Naechste Seite anhaengen (Cursor-Pagination, stabil nach ID sortiert)
+    const handleLoadMore = async () => {
+        try {
+            const response = await getMyFavourites(nextCursor);
+            setItems((prev) => [...prev, ...(response.data?.items || [])]);
+            setNextCursor(response.data?.nextCursor || null);
+        } catch (err) {
+            setError(err.message || "Failed to load favourites");
+        }
+    };
+
     const handleRemove = async (id) => {
         try {
             await removeFavourite(id);
@@ -75,6 +88,9 @@ const FavoritesPage = () => {
                             </button>
                         </div>
                     ))}
+                    {nextCursor && (
+                        <button onClick={handleLoadMore}>Load more</button>
+                    )}
                 </div>
             )}
         </div>
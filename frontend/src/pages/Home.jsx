@@ -51,6 +51,7 @@ const Home = () => {
                         baseKi={character.ki}
                         totalKi={character.maxKi}
                         affiliation={character.affiliation}
+                        favourite={character.favourite}
                     />
                 ))
             )}
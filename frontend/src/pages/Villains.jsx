@@ -55,6 +55,7 @@ const Villains = () => {
                     baseKi={character.ki}
                     totalKi={character.maxKi}
                     affiliation={character.affiliation}
+                    favourite={character.favourite}
                 />
             ))
         )}
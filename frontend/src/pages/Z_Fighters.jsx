@@ -55,6 +55,7 @@ const Z_Fighters = () => {
                     baseKi={character.ki}
                     totalKi={character.maxKi}
                     affiliation={character.affiliation}
+                    favourite={character.favourite}
                 />
             ))
         )}
@@ -30,14 +30,52 @@ apiClient.interceptors.request.use(
     (error) => Promise.reject(error)
 );
 
+// Laufender Refresh, damit parallele 401-Antworten nur einen Refresh ausloesen.
+let refreshPromise = null;
+
+// Tauscht den Refresh-Token gegen ein neues Token-Paar. Nutzt bewusst axios
+// direkt, damit ein fehlgeschlagener Refresh nicht erneut hier landet.
+function refreshTokens() {
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (!refreshToken) {
+        return Promise.reject(new Error("No refresh token"));
+    }
+    if (!refreshPromise) {
+        refreshPromise = axios
+            .post(`${API_BASE_URL}/api/auth/refresh`, { refreshToken })
+            .then((response) => {
+                localStorage.setItem("authToken", response.data.token);
+                localStorage.setItem("refreshToken", response.data.refreshToken);
+                return response.data.token;
+            })
+            .finally(() => {
+                refreshPromise = null;
+            });
+    }
+    return refreshPromise;
+}
+
 // Handle auth errors globally.
 apiClient.interceptors.response.use(
     (response) => response,
-    (error) => {
+    async (error) => {
         if (error.response) {
             const status = error.response.status;
+            const original = error.config;
+            // Abgelaufenes Access-Token: einmal erneuern und die Anfrage wiederholen
+            if (status === 401 && original && !original._retried && !original.url?.startsWith("/api/auth/")) {
+                original._retried = true;
+                try {
+                    const token = await refreshTokens();
+                    original.headers.Authorization = `Bearer ${token}`;
+                    return apiClient(original);
+                } catch (refreshError) {
+                    // Refresh fehlgeschlagen -> unten wie bisher abmelden
+                }
+            }
             if (status === 401) {
                 localStorage.removeItem("authToken");
+                localStorage.removeItem("refreshToken");
                 localStorage.removeItem("userData");
                 window.location.href = "/login";
             }
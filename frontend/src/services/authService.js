@@ -49,13 +49,22 @@ export async function login(username, password) {
     const userId = response.data?.userId || decoded.userId || null;
     const user = { username: usernameFromResponse || usernameFromToken, role, userId };
     localStorage.setItem('authToken', accessToken);
+    if (response.data?.refreshToken) {
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+    }
     localStorage.setItem('userData', JSON.stringify(user));
     return { token: accessToken, user };
 }
 
 export function logout() {
+    const refreshToken = localStorage.getItem('refreshToken');
     localStorage.removeItem('authToken');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('userData');
+    // Refresh-Token serverseitig widerrufen; Fehler sind egal, lokal ist bereits abgemeldet
+    if (refreshToken) {
+        apiClient.post('/api/auth/logout', { refreshToken }).catch(() => {});
+    }
 }
 
 export function getToken() {
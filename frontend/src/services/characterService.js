@@ -9,6 +9,16 @@ export function getCharacters() {
 }
 
 // Charakter per Name laden (Backend: /api/characters/name/:name)
+// Cursor-Pagination: cursor aus der Vorseite (nextCursor) unveraendert weitergeben
+export function getCharacterPage({ sort, cursor, limit } = {}) {
+    return apiClient.get(`${BASE}/page`, { params: { sort, cursor, limit } });
+}
+
+export function getCharacterPageByRace(race, { sort, cursor, limit } = {}) {
+    const encoded = encodeURIComponent(race);
+    return apiClient.get(`${BASE}/race/${encoded}/page`, { params: { sort, cursor, limit } });
+}
+
 export function getCharacterByName(name) {
     const encoded = encodeURIComponent(name);
     return apiClient.get(`${BASE}/name/${encoded}`);
@@ -47,6 +57,18 @@ export function getTop5ByPowerGreaterThan(minPower) {
     return apiClient.get(`${BASE}/powerlevel-greater-than/${minPower}`);
 }
 
+export function getMostFavourited(limit) {
+    return apiClient.get(`${BASE}/most-favourited`, {
+        params: { limit },
+    });
+}
+
+export function getRelatedCharacters(id, limit) {
+    return apiClient.get(`${BASE}/${id}/related`, {
+        params: { limit },
+    });
+}
+
 export function existsByNameAndRace(name, race) {
     return apiClient.get(`${BASE}/exists`, {
         params: { name, race },
@@ -61,6 +83,17 @@ export function updateCharacter(id, data) {
     return apiClient.put(`${BASE}/${id}`, data);
 }
 
+export function patchCharacter(id, patch) {
+    return apiClient.patch(`${BASE}/${id}`, patch, {
+        headers: { 'Content-Type': 'application/merge-patch+json' },
+    });
+}
+
+// operations: [{ op: 'insert' | 'remove' | 'move', index, to, value }], applied in order
+export function editTransformations(id, operations) {
+    return apiClient.patch(`${BASE}/${id}/transformations`, operations);
+}
+
 export function deleteCharacter(id) {
     return apiClient.delete(`${BASE}/${id}`);
 }
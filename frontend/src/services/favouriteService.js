@@ -3,11 +3,29 @@ import apiClient from "./apiClient";
 const BASE = "/api/users";
 
 /**
- * Holt die Favoriten des aktuell eingeloggten Benutzers.
- * GET /api/users/favourites
+ * Holt eine Seite der Favoriten des aktuell eingeloggten Benutzers.
+ * GET /api/users/favourites?cursor=..&limit=..
+ * Antwort: { items, nextCursor, limit, sort }; nextCursor ist null auf der letzten Seite.
  */
-export function getMyFavourites() {
-    return apiClient.get(`${BASE}/favourites`);
+export function getMyFavourites(cursor = null, limit = 20) {
+    const params = { limit };
+    if (cursor) params.cursor = cursor;
+    return apiClient.get(`${BASE}/favourites`, { params });
+}
+
+/**
+ * Holt alle Favoriten, indem die Seiten nacheinander geladen werden.
+ * Liefert direkt das Array der Charaktere.
+ */
+export async function getAllMyFavourites() {
+    const all = [];
+    let cursor = null;
+    do {
+        const response = await getMyFavourites(cursor, 100);
+        all.push(...(response.data?.items || []));
+        cursor = response.data?.nextCursor;
+    } while (cursor);
+    return all;
 }
 
 /**
@@ -25,3 +43,12 @@ export function addFavourite(characterId) {
 export function removeFavourite(characterId) {
     return apiClient.delete(`${BASE}/favourites/${characterId}`);
 }
+
+/**
+ * Fuegt mehrere Charaktere hinzu und entfernt andere in einem Aufruf.
+ * POST /api/users/favourites/batch
+ * Antwort: { added, removed, unknown } mit den tatsaechlich geaenderten IDs.
+ */
+export function applyFavouriteBatch(add = [], remove = []) {
+    return apiClient.post(`${BASE}/favourites/batch`, { add, remove });
+}